@@ -0,0 +1,272 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.benchmarks;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.UnsafeValues;
+import org.bukkit.World;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+
+/**
+ * Minimal stand-ins for the Bukkit server objects the plugin touches, built from dynamic proxies so
+ * the benchmarks run the plugin's real classes without a server. Unknown methods return null, zero
+ * or false.
+ */
+final class BukkitStandIn {
+
+  private static final int DATA_VERSION = 4438;
+
+  private static boolean installed = false;
+
+  private BukkitStandIn() {}
+
+  /** Registers the stand-in server with {@link Bukkit}. Safe to call from every benchmark state. */
+  static synchronized void install() {
+    if (installed) {
+      return;
+    }
+
+    ItemFactory itemFactory = proxy(ItemFactory.class, BukkitStandIn::handleItemFactory);
+
+    ConsoleCommandSender console = proxy(ConsoleCommandSender.class, BukkitStandIn::handleObject);
+
+    UnsafeValues unsafe = proxy(UnsafeValues.class, BukkitStandIn::handleUnsafe);
+
+    java.util.logging.Logger serverLogger = java.util.logging.Logger.getLogger("StandInServer");
+
+    Server server =
+        proxy(
+            Server.class,
+            (self, method, args) -> {
+              switch (method.getName()) {
+                case "getItemFactory":
+                  return itemFactory;
+                case "getConsoleSender":
+                  return console;
+                case "getUnsafe":
+                  return unsafe;
+                case "getLogger":
+                  return serverLogger;
+                case "getName":
+                case "getVersion":
+                case "getBukkitVersion":
+                  return "StandIn";
+                default:
+                  return handleObject(self, method, args);
+              }
+            });
+
+    Bukkit.setServer(server);
+
+    installed = true;
+  }
+
+  static World world(String name) {
+    UUID uid = UUID.nameUUIDFromBytes(name.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+
+    return proxy(
+        World.class,
+        (self, method, args) -> {
+          switch (method.getName()) {
+            case "getName":
+              return name;
+            case "getUID":
+              return uid;
+            case "toString":
+              return "StandInWorld{" + name + "}";
+            default:
+              return handleObject(self, method, args);
+          }
+        });
+  }
+
+  /** Item carrying a stand-in meta that is compared by display name and lore. */
+  static ItemStack itemWithMeta(Material material, String displayName, List<String> lore) {
+    ItemStack item = new ItemStack(material);
+
+    item.setItemMeta(meta(new MetaState(displayName, lore)));
+
+    return item;
+  }
+
+  private static ItemMeta meta(MetaState state) {
+    return (ItemMeta)
+        Proxy.newProxyInstance(
+            BukkitStandIn.class.getClassLoader(),
+            new Class<?>[] {ItemMeta.class, Damageable.class, Serializable.class},
+            state);
+  }
+
+  private static Object handleItemFactory(Object self, Method method, Object[] args) {
+    switch (method.getName()) {
+      case "equals":
+        if (args != null && args.length == 2) {
+          return metaEquals((ItemMeta) args[0], (ItemMeta) args[1]);
+        }
+        return handleObject(self, method, args);
+      case "isApplicable":
+        return true;
+      case "asMetaFor":
+        return args[0];
+      case "updateMaterial":
+        return args[1];
+      default:
+        return handleObject(self, method, args);
+    }
+  }
+
+  private static Object handleUnsafe(Object self, Method method, Object[] args) {
+    switch (method.getName()) {
+      case "getDataVersion":
+        return DATA_VERSION;
+      case "getMaterial":
+        return Material.getMaterial((String) args[0]);
+      default:
+        return handleObject(self, method, args);
+    }
+  }
+
+  private static boolean metaEquals(ItemMeta first, ItemMeta second) {
+    if (first == null || second == null) {
+      ItemMeta other = first == null ? second : first;
+
+      return other == null || (!other.hasDisplayName() && !other.hasLore());
+    }
+
+    return first.equals(second);
+  }
+
+  /** Value state of a stand-in item meta. Serializable so it round-trips through ItemCodec. */
+  private static final class MetaState implements InvocationHandler, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String displayName;
+
+    private final ArrayList<String> lore;
+
+    private MetaState(String displayName, List<String> lore) {
+      this.displayName = displayName;
+      this.lore = new ArrayList<>(lore);
+    }
+
+    @Override
+    public Object invoke(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "clone":
+          return meta(new MetaState(displayName, lore));
+        case "hasDisplayName":
+          return displayName != null;
+        case "getDisplayName":
+          return displayName;
+        case "hasLore":
+          return !lore.isEmpty();
+        case "getLore":
+          return new ArrayList<>(lore);
+        case "equals":
+          if (args.length == 1) {
+            Object other = args[0];
+
+            return other != null
+                && Proxy.isProxyClass(other.getClass())
+                && Proxy.getInvocationHandler(other) instanceof MetaState
+                && sameValue((MetaState) Proxy.getInvocationHandler(other));
+          }
+          return handleObject(self, method, args);
+        case "hashCode":
+          return Objects.hash(displayName, lore);
+        case "toString":
+          return "StandInMeta{" + displayName + ", " + lore.size() + " lore lines}";
+        default:
+          return defaultValue(method.getReturnType());
+      }
+    }
+
+    private boolean sameValue(MetaState other) {
+      return Objects.equals(displayName, other.displayName) && lore.equals(other.lore);
+    }
+  }
+
+  private static Object handleObject(Object self, Method method, Object[] args) {
+    switch (method.getName()) {
+      case "equals":
+        return args != null && args.length == 1 && self == args[0];
+      case "hashCode":
+        return System.identityHashCode(self);
+      case "toString":
+        return "StandIn" + self.getClass().getInterfaces()[0].getSimpleName();
+      default:
+        return defaultValue(method.getReturnType());
+    }
+  }
+
+  private static Object defaultValue(Class<?> type) {
+    if (!type.isPrimitive() || type == void.class) {
+      return null;
+    }
+
+    if (type == boolean.class) {
+      return false;
+    }
+
+    if (type == char.class) {
+      return '\0';
+    }
+
+    if (type == long.class) {
+      return 0L;
+    }
+
+    if (type == float.class) {
+      return 0F;
+    }
+
+    if (type == double.class) {
+      return 0D;
+    }
+
+    if (type == byte.class) {
+      return (byte) 0;
+    }
+
+    if (type == short.class) {
+      return (short) 0;
+    }
+
+    return 0;
+  }
+
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    ClassLoader loader = BukkitStandIn.class.getClassLoader();
+
+    return type.cast(Proxy.newProxyInstance(loader, new Class<?>[] {type}, handler));
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.benchmarks;
+
+import com.mrh00k.hopperfilterx.managers.ChunkHopperManager;
+import com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Index operations of {@link ChunkHopperManager} with hoppers scattered over an 8192 block square,
+ * using a fixed seed so every run indexes the same positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkHopperManagerBenchmark {
+
+  private static final int SPREAD = 4096;
+
+  private static final long SEED = 42L;
+
+  @Param({"1000", "10000", "100000"})
+  public int hoppers;
+
+  private ChunkHopperManager manager;
+
+  private World world;
+
+  private HopperData[] indexed;
+
+  private int[] xs;
+
+  private int[] ys;
+
+  private int[] zs;
+
+  private HopperData extra;
+
+  private int cursor;
+
+  @Setup
+  public void setup() {
+    BukkitStandIn.install();
+
+    world = BukkitStandIn.world("world");
+
+    manager = new ChunkHopperManager();
+
+    indexed = new HopperData[hoppers];
+
+    xs = new int[hoppers];
+
+    ys = new int[hoppers];
+
+    zs = new int[hoppers];
+
+    SplittableRandom random = new SplittableRandom(SEED);
+
+    for (int i = 0; i < hoppers; i++) {
+      xs[i] = random.nextInt(-SPREAD, SPREAD);
+
+      ys[i] = random.nextInt(-64, 256);
+
+      zs[i] = random.nextInt(-SPREAD, SPREAD);
+
+      Location location = new Location(world, xs[i], ys[i], zs[i]);
+
+      indexed[i] = new HopperData("hopper-" + i, location, "owner-" + i % 64);
+
+      manager.addFilteredHopper(indexed[i]);
+    }
+
+    extra = new HopperData("extra", new Location(world, SPREAD + 8, 64, SPREAD + 8), "owner-0");
+  }
+
+  private int next() {
+    int current = cursor;
+
+    cursor = current + 1 == hoppers ? 0 : current + 1;
+
+    return current;
+  }
+
+  @Benchmark
+  public HopperData lookupHit() {
+    int i = next();
+
+    return manager.getHopperData(world, xs[i], ys[i], zs[i]);
+  }
+
+  @Benchmark
+  public HopperData lookupMiss() {
+    int i = next();
+
+    // Above the sampled height range, so it is never indexed
+    return manager.getHopperData(world, xs[i], 300, zs[i]);
+  }
+
+  /** Re-indexes a hopper that is already present, the path taken when a chunk is reloaded. */
+  @Benchmark
+  public void addExisting() {
+    manager.addFilteredHopper(indexed[next()]);
+  }
+
+  /** Adds a hopper in a chunk of its own and removes it again, so the index size stays fixed. */
+  @Benchmark
+  public boolean addRemove() {
+    manager.addFilteredHopper(extra);
+
+    return manager.removeFilteredHopper(extra.getLocation());
+  }
+}
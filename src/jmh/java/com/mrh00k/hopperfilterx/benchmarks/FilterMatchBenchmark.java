@@ -0,0 +1,127 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.benchmarks;
+
+import com.mrh00k.hopperfilterx.managers.FilterCache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filter evaluation as done by {@code HopperListener.isItemAllowedByFilter}: a {@link FilterCache}
+ * lookup followed by {@link FilterCache.CompiledFilter#allows}. Items with meta all share one
+ * material, so every check walks the whole candidate list.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterMatchBenchmark {
+
+  private static final String HOPPER_ID = "benchmark-hopper";
+
+  private static final int LORE_LINES = 8;
+
+  private static final Material[] PLAIN_MATERIALS = {
+    Material.STONE, Material.DIRT, Material.COBBLESTONE, Material.SAND, Material.GRAVEL,
+    Material.OAK_LOG, Material.OAK_PLANKS, Material.COAL, Material.IRON_INGOT, Material.GOLD_INGOT,
+    Material.DIAMOND, Material.EMERALD, Material.REDSTONE, Material.LAPIS_LAZULI, Material.QUARTZ,
+    Material.WHEAT, Material.CARROT, Material.POTATO, Material.BEETROOT, Material.PUMPKIN,
+    Material.MELON_SLICE, Material.SUGAR_CANE, Material.BAMBOO, Material.CACTUS, Material.KELP,
+    Material.BONE, Material.STRING, Material.GUNPOWDER
+  };
+
+  @Param({"1", "9", "27"})
+  public int filterSize;
+
+  /** none: plain items, name: display name only, lore: shared name and lore, last line differs. */
+  @Param({"none", "name", "lore"})
+  public String meta;
+
+  private FilterCache filterCache;
+
+  private ItemStack allowedItem;
+
+  private ItemStack deniedItem;
+
+  @Setup
+  public void setup() {
+    BukkitStandIn.install();
+
+    filterCache = FilterCache.getInstance();
+
+    List<ItemStack> filter = new ArrayList<>(filterSize);
+
+    for (int i = 0; i < filterSize; i++) {
+      filter.add(createItem(i));
+    }
+
+    filterCache.update(HOPPER_ID, filter);
+
+    // Equal to the last filter entry but a different instance, like a real moving item
+    allowedItem = createItem(filterSize - 1);
+
+    deniedItem = createItem(filterSize);
+  }
+
+  private ItemStack createItem(int index) {
+    switch (meta) {
+      case "none":
+        return new ItemStack(PLAIN_MATERIALS[index]);
+      case "name":
+        return BukkitStandIn.itemWithMeta(Material.PAPER, "Filter item " + index, List.of());
+      case "lore":
+        List<String> lore = new ArrayList<>(LORE_LINES);
+
+        for (int line = 0; line < LORE_LINES - 1; line++) {
+          lore.add("Shared lore line " + line);
+        }
+
+        lore.add("Variant " + index);
+
+        return BukkitStandIn.itemWithMeta(Material.PAPER, "Sorted item", lore);
+      default:
+        throw new IllegalArgumentException("Unknown meta mode " + meta);
+    }
+  }
+
+  @Benchmark
+  public boolean allowed() {
+    return filterCache.get(HOPPER_ID).allows(allowedItem);
+  }
+
+  @Benchmark
+  public boolean denied() {
+    return filterCache.get(HOPPER_ID).allows(deniedItem);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.benchmarks;
+
+import com.mrh00k.hopperfilterx.utils.ItemCodec;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serialization round-trip of the item lists {@code DatabaseManager} stores for filters and
+ * creative stashes, which all go through {@link ItemCodec}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemCodecBenchmark {
+
+  @Param({"1", "9", "27"})
+  public int items;
+
+  /** none: plain items, lore: every item carries a display name and four lore lines. */
+  @Param({"none", "lore"})
+  public String meta;
+
+  private List<ItemStack> stacks;
+
+  private byte[] encoded;
+
+  @Setup
+  public void setup() throws IOException {
+    BukkitStandIn.install();
+
+    stacks = new ArrayList<>(items);
+
+    for (int i = 0; i < items; i++) {
+      if ("lore".equals(meta)) {
+        stacks.add(
+            BukkitStandIn.itemWithMeta(
+                Material.PAPER,
+                "Stored item " + i,
+                List.of("First line", "Second line", "Third line", "Variant " + i)));
+      } else {
+        stacks.add(new ItemStack(Material.COBBLESTONE, 1 + i % 64));
+      }
+    }
+
+    encoded = ItemCodec.encode(stacks);
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return ItemCodec.encode(stacks);
+  }
+
+  @Benchmark
+  public List<ItemStack> decode() throws IOException {
+    return ItemCodec.decode(encoded);
+  }
+
+  @Benchmark
+  public List<ItemStack> roundTrip() throws IOException {
+    return ItemCodec.decode(ItemCodec.encode(stacks));
+  }
+}
@@ -0,0 +1,744 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.bukkit.GameMode;
+import org.bukkit.Material;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.event.Event;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Offline load harness for HopperFilterX. It loads the shaded plugin jar into a stand-in server,
+ * builds chains of filtered hoppers fed by a chest and fires synthetic place, configure, item move
+ * and break events through Bukkit's event dispatch. Every phase reports throughput and the bytes
+ * allocated on the main thread per event, and every item move is checked against a reference
+ * {@link ItemStack#isSimilar} evaluation of the filters involved.
+ *
+ * <p>Run it with {@code ./gradlew loadTest}; the process exits with status 1 when a move decision
+ * differs from the reference or the plugin logs an error.
+ */
+public final class HopperFarmLoadTest {
+
+  private static final String PLAYER_NAME = "Farmer";
+
+  /** Events fired between two scheduler ticks, roughly what a busy farm produces per tick. */
+  private static final int EVENTS_PER_TICK = 64;
+
+  private static final int CHAIN_Y = 64;
+
+  private static final int MAX_REPORTED_MISMATCHES = 10;
+
+  /** Console errors the harness causes on purpose; the update check cannot reach the network. */
+  private static final List<String> EXPECTED_ERRORS = List.of("Failed to check for updates");
+
+  private static final Material[] PLAIN_POOL = {
+    Material.COBBLESTONE, Material.DIRT, Material.SAND, Material.GRAVEL, Material.OAK_LOG,
+    Material.COAL, Material.IRON_INGOT, Material.GOLD_INGOT, Material.REDSTONE, Material.DIAMOND,
+    Material.WHEAT, Material.CARROT, Material.POTATO, Material.BONE, Material.STRING,
+    Material.GUNPOWDER
+  };
+
+  private static final int NAMED_VARIANTS = 6;
+
+  private final Options options;
+
+  private final SplittableRandom random;
+
+  private final StandInServer server;
+
+  private final List<Chain> chains = new ArrayList<>();
+
+  private final Map<StandInWorld.StandInBlock, List<ItemStack>> filters = new HashMap<>();
+
+  private final List<ItemStack> itemPool = new ArrayList<>();
+
+  private final List<PhaseResult> results = new ArrayList<>();
+
+  private final List<String> failures = new ArrayList<>();
+
+  private StandInWorld world;
+
+  private StandInPlayer farmer;
+
+  private long moveChecks;
+
+  private long moveMismatches;
+
+  private HopperFarmLoadTest(Options options) {
+    this.options = options;
+    this.random = new SplittableRandom(options.seed);
+    this.server = new StandInServer(options.verbose);
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 2) {
+      System.err.println(
+          "Usage: HopperFarmLoadTest <plugin jar> <work dir> [--hoppers=N] [--chain=N]"
+              + " [--moves=N] [--warmup=N] [--breaks=N] [--seed=N] [--verbose]");
+      System.exit(2);
+    }
+
+    int status = new HopperFarmLoadTest(Options.parse(args)).run();
+
+    // The plugin's database threads are not daemons; do not wait for them to wind down
+    System.exit(status);
+  }
+
+  private int run() throws Exception {
+    blockNetwork();
+
+    File pluginsDir = prepareWorkDir();
+
+    server.install();
+
+    world = server.addWorld("world");
+    farmer = server.addPlayer(PLAYER_NAME, world);
+
+    Plugin plugin = loadPlugin(pluginsDir);
+
+    buildItemPool();
+
+    placeHoppers(obtainFilteredHopper());
+    configureFilters();
+    fillSources();
+
+    moveItems("InventoryMoveItemEvent (warm-up)", options.warmup);
+    moveItems("InventoryMoveItemEvent", options.moves);
+
+    replaceHoppers(breakHoppers());
+
+    moveItems("InventoryMoveItemEvent (after re-place)", Math.max(1, options.moves / 4));
+
+    server.getPluginManager().disablePlugin(plugin);
+    server.getScheduler().cancelAll();
+
+    return report();
+  }
+
+  /** The update check is the only network access; make it fail fast instead of hanging. */
+  private static void blockNetwork() {
+    URL.setURLStreamHandlerFactory(
+        protocol ->
+            "http".equals(protocol) || "https".equals(protocol)
+                ? new URLStreamHandler() {
+                  @Override
+                  protected URLConnection openConnection(URL url) throws IOException {
+                    throw new IOException("network access is disabled in the load harness");
+                  }
+                }
+                : null);
+  }
+
+  /** Starts from an empty data folder so every run begins with a fresh database. */
+  private File prepareWorkDir() throws IOException {
+    Path pluginsDir = options.workDir.toPath().resolve("plugins");
+
+    if (Files.exists(pluginsDir)) {
+      try (Stream<Path> paths = Files.walk(pluginsDir)) {
+        for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+          Files.delete(path);
+        }
+      }
+    }
+
+    Files.createDirectories(pluginsDir);
+
+    return pluginsDir.toFile();
+  }
+
+  private Plugin loadPlugin(File pluginsDir) throws Exception {
+    Path jar = pluginsDir.toPath().resolve(options.pluginJar.getName());
+
+    Files.copy(options.pluginJar.toPath(), jar, StandardCopyOption.REPLACE_EXISTING);
+
+    Plugin plugin = server.getPluginManager().loadPlugin(jar.toFile());
+
+    server.getPluginManager().enablePlugin(plugin);
+
+    if (!plugin.isEnabled()) {
+      throw new IllegalStateException("HopperFilterX failed to enable; see the errors above");
+    }
+
+    return plugin;
+  }
+
+  /** Plain items plus named and lored paper, which only meta-aware filter entries match. */
+  private void buildItemPool() {
+    for (Material material : PLAIN_POOL) {
+      itemPool.add(new ItemStack(material));
+    }
+
+    itemPool.add(new ItemStack(Material.PAPER));
+
+    for (int variant = 0; variant < NAMED_VARIANTS; variant++) {
+      List<String> lore = variant % 2 == 0 ? null : List.of("Batch " + variant);
+
+      itemPool.add(StandInItems.item(Material.PAPER, 1, "Ticket #" + variant, lore));
+    }
+  }
+
+  private ItemStack obtainFilteredHopper() {
+    server.dispatch(server.getConsole(), "hopper give " + PLAYER_NAME + " 1");
+
+    for (ItemStack item : farmer.getInventory().getContents()) {
+      if (item != null && item.getType() == Material.HOPPER && item.hasItemMeta()) {
+        farmer.getInventory().clear();
+
+        ItemStack single = item.clone();
+
+        single.setAmount(1);
+
+        return single;
+      }
+    }
+
+    throw new IllegalStateException("/hopper give did not hand out a filtered hopper");
+  }
+
+  private void placeHoppers(ItemStack hopperItem) {
+    List<BlockPlaceEvent> events = new ArrayList<>();
+
+    for (int placed = 0, chainIndex = 0; placed < options.hoppers; chainIndex++) {
+      int z = chainIndex * 2;
+      int length = Math.min(options.chain, options.hoppers - placed);
+
+      StandInWorld.StandInBlock chest = world.blockAt(-1, CHAIN_Y, z);
+
+      chest.setType(Material.CHEST);
+
+      Chain chain = new Chain(chest);
+
+      for (int x = 0; x < length; x++) {
+        StandInWorld.StandInBlock block = world.blockAt(x, CHAIN_Y, z);
+
+        events.add(placeEvent(block, hopperItem));
+        chain.hoppers.add(block);
+      }
+
+      chains.add(chain);
+      placed += length;
+    }
+
+    measure("BlockPlaceEvent", events, this::fire);
+
+    for (BlockPlaceEvent event : events) {
+      if (event.isCancelled()) {
+        failures.add("Placement was cancelled at " + event.getBlock());
+      }
+    }
+  }
+
+  private BlockPlaceEvent placeEvent(StandInWorld.StandInBlock block, ItemStack item) {
+    BlockState replaced = block.getState();
+
+    block.setType(Material.HOPPER);
+
+    return new BlockPlaceEvent(
+        block.block,
+        replaced,
+        world.blockAt(block.x, block.y - 1, block.z).block,
+        item.clone(),
+        farmer.getPlayer(),
+        true,
+        EquipmentSlot.HAND);
+  }
+
+  /**
+   * Gives every hopper a filter through the GUI: a quarter stay empty, the rest get plain entries,
+   * meta entries or both.
+   */
+  private void configureFilters() {
+    List<StandInWorld.StandInBlock> hoppers = new ArrayList<>();
+
+    for (Chain chain : chains) {
+      for (StandInWorld.StandInBlock hopper : chain.hoppers) {
+        filters.put(hopper, randomFilter());
+        hoppers.add(hopper);
+      }
+    }
+
+    measure("PlayerInteractEvent + InventoryCloseEvent", hoppers, this::configureFilter);
+  }
+
+  private List<ItemStack> randomFilter() {
+    List<ItemStack> filter = new ArrayList<>();
+    int kind = random.nextInt(100);
+
+    if (kind < 25) {
+      return filter;
+    }
+
+    if (kind < 85) {
+      int entries = 1 + random.nextInt(5);
+
+      for (int entry = 0; entry < entries; entry++) {
+        filter.add(new ItemStack(PLAIN_POOL[random.nextInt(PLAIN_POOL.length)]));
+      }
+    }
+
+    if (kind >= 60) {
+      int entries = 1 + random.nextInt(3);
+
+      for (int entry = 0; entry < entries; entry++) {
+        filter.add(itemPool.get(PLAIN_POOL.length + 1 + random.nextInt(NAMED_VARIANTS)).clone());
+      }
+    }
+
+    return filter;
+  }
+
+  private void configureFilter(StandInWorld.StandInBlock hopper) {
+    fire(
+        new PlayerInteractEvent(
+            farmer.getPlayer(),
+            Action.RIGHT_CLICK_BLOCK,
+            null,
+            hopper.block,
+            BlockFace.UP,
+            EquipmentSlot.HAND));
+
+    InventoryView view = farmer.getOpenView();
+
+    if (view == null) {
+      failures.add("Right-click did not open the filter GUI at " + hopper.block);
+      return;
+    }
+
+    List<ItemStack> filter = filters.get(hopper);
+    Inventory gui = view.getTopInventory();
+
+    for (int slot = 0; slot < filter.size(); slot++) {
+      gui.setItem(slot, filter.get(slot).clone());
+    }
+
+    fire(new InventoryCloseEvent(view));
+
+    farmer.closeView();
+  }
+
+  /** Gives the retry sweep something to move: each chest and hopper starts with a few items. */
+  private void fillSources() {
+    for (Chain chain : chains) {
+      fill(chain.chest, 9);
+
+      for (StandInWorld.StandInBlock hopper : chain.hoppers) {
+        fill(hopper, 2);
+      }
+    }
+  }
+
+  private void fill(StandInWorld.StandInBlock block, int stacks) {
+    Inventory inventory = ((InventoryHolder) block.getState()).getInventory();
+
+    for (int stack = 0; stack < stacks; stack++) {
+      ItemStack item = randomItem();
+
+      item.setAmount(1 + random.nextInt(16));
+      inventory.addItem(item);
+    }
+  }
+
+  private ItemStack randomItem() {
+    return itemPool.get(random.nextInt(itemPool.size())).clone();
+  }
+
+  /**
+   * Fires item moves between neighbours of random chains and compares each outcome with the
+   * reference: a move goes through only if the source and the destination hopper both accept it.
+   * Accepted moves are not carried out, so every chain keeps feeding the same kind of traffic.
+   */
+  private void moveItems(String phase, int count) {
+    if (count <= 0) {
+      return;
+    }
+
+    List<InventoryMoveItemEvent> events = new ArrayList<>(count);
+    boolean[] expected = new boolean[count];
+
+    for (int index = 0; index < count; index++) {
+      Chain chain = chains.get(random.nextInt(chains.size()));
+      int position = random.nextInt(chain.hoppers.size()) - 1;
+
+      StandInWorld.StandInBlock source = position < 0 ? chain.chest : chain.hoppers.get(position);
+      StandInWorld.StandInBlock destination = chain.hoppers.get(position + 1);
+      ItemStack item = randomItem();
+
+      expected[index] = accepts(source, item) && accepts(destination, item);
+      events.add(
+          new InventoryMoveItemEvent(inventory(source), item, inventory(destination), true));
+    }
+
+    measure(phase, events, this::fire);
+
+    for (int index = 0; index < count; index++) {
+      InventoryMoveItemEvent event = events.get(index);
+
+      moveChecks++;
+
+      if (event.isCancelled() == expected[index]) {
+        moveMismatches++;
+
+        if (moveMismatches <= MAX_REPORTED_MISMATCHES) {
+          failures.add(
+              phase
+                  + ": "
+                  + event.getItem()
+                  + " from "
+                  + event.getSource().getHolder()
+                  + " to "
+                  + event.getDestination().getHolder()
+                  + " was "
+                  + (event.isCancelled() ? "blocked" : "allowed")
+                  + ", reference says "
+                  + (expected[index] ? "allowed" : "blocked"));
+        }
+      }
+    }
+  }
+
+  private static Inventory inventory(StandInWorld.StandInBlock block) {
+    return ((InventoryHolder) block.getState()).getInventory();
+  }
+
+  /** Reference semantics: an empty filter accepts anything, otherwise one entry isSimilar. */
+  private boolean accepts(StandInWorld.StandInBlock block, ItemStack item) {
+    List<ItemStack> filter = filters.get(block);
+
+    if (filter == null || filter.isEmpty()) {
+      return true;
+    }
+
+    for (ItemStack entry : filter) {
+      if (entry.isSimilar(item)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /** Breaks a random sample of hoppers in survival, which drops them with their UUID. */
+  private List<Replacement> breakHoppers() {
+    List<StandInWorld.StandInBlock> all = new ArrayList<>(filters.keySet());
+
+    all.sort(
+        Comparator.comparingInt((StandInWorld.StandInBlock block) -> block.z)
+            .thenComparingInt(block -> block.x));
+
+    List<BlockBreakEvent> events = new ArrayList<>();
+
+    for (int index = 0; index < Math.min(options.breaks, all.size()); index++) {
+      StandInWorld.StandInBlock hopper = all.remove(random.nextInt(all.size()));
+
+      events.add(new BlockBreakEvent(hopper.block, farmer.getPlayer()));
+    }
+
+    farmer.setGameMode(GameMode.SURVIVAL);
+
+    List<Replacement> replacements = new ArrayList<>();
+
+    measure(
+        "BlockBreakEvent",
+        events,
+        event -> {
+          fire(event);
+
+          if (!event.isCancelled()) {
+            StandInWorld.StandInBlock block = blockOf(event);
+
+            block.setType(Material.AIR);
+            replacements.add(new Replacement(block, droppedHopper()));
+          }
+        });
+
+    for (BlockBreakEvent event : events) {
+      if (event.isCancelled()) {
+        failures.add("Owner could not break the hopper at " + event.getBlock());
+      }
+    }
+
+    return replacements;
+  }
+
+  private StandInWorld.StandInBlock blockOf(BlockBreakEvent event) {
+    return world.blockAt(event.getBlock().getX(), event.getBlock().getY(), event.getBlock().getZ());
+  }
+
+  private ItemStack droppedHopper() {
+    for (ItemStack drop : world.takeDrops()) {
+      if (drop.getType() == Material.HOPPER && StandInItems.data(drop, "uuid") != null) {
+        return drop;
+      }
+    }
+
+    return null;
+  }
+
+  /** Places the dropped hoppers back, which must bring back their filters from the database. */
+  private void replaceHoppers(List<Replacement> replacements) {
+    List<BlockPlaceEvent> events = new ArrayList<>();
+
+    for (Replacement replacement : replacements) {
+      if (replacement.item == null) {
+        failures.add("Breaking " + replacement.block.block + " dropped no filtered hopper");
+        continue;
+      }
+
+      events.add(placeEvent(replacement.block, replacement.item));
+    }
+
+    measure("BlockPlaceEvent (re-place)", events, this::fire);
+
+    for (BlockPlaceEvent event : events) {
+      if (event.isCancelled()) {
+        failures.add("Re-placement was cancelled at " + event.getBlock());
+      }
+    }
+  }
+
+  private void fire(Event event) {
+    server.getPluginManager().callEvent(event);
+  }
+
+  /**
+   * Runs one phase on the main thread and records its wall time and the bytes the main thread
+   * allocated. Work done by the plugin's database writer is not part of the allocation figure.
+   */
+  private <E> void measure(String phase, List<E> events, Consumer<E> action) {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+    long start = System.nanoTime();
+    int fired = 0;
+
+    for (E event : events) {
+      action.accept(event);
+
+      if (++fired % EVENTS_PER_TICK == 0) {
+        server.getScheduler().tick();
+      }
+    }
+
+    server.getScheduler().tick();
+
+    long nanos = System.nanoTime() - start;
+    long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+    results.add(new PhaseResult(phase, events.size(), nanos, allocated));
+  }
+
+  private int report() {
+    System.out.println();
+    System.out.printf(
+        Locale.ROOT,
+        "HopperFilterX load test: %d hoppers in %d chains, seed %d%n%n",
+        filters.size(),
+        chains.size(),
+        options.seed);
+    System.out.printf(
+        Locale.ROOT,
+        "%-42s %9s %11s %12s %10s %12s %11s%n",
+        "Phase",
+        "Events",
+        "Time ms",
+        "Events/s",
+        "ns/event",
+        "Bytes/event",
+        "Alloc MB/s");
+
+    for (PhaseResult result : results) {
+      double seconds = result.nanos / 1e9;
+      long events = Math.max(1, result.events);
+
+      System.out.printf(
+          Locale.ROOT,
+          "%-42s %9d %11.1f %12.0f %10d %12d %11.1f%n",
+          result.phase,
+          result.events,
+          result.nanos / 1e6,
+          result.events / Math.max(seconds, 1e-9),
+          result.nanos / events,
+          result.allocatedBytes / events,
+          result.allocatedBytes / 1048576.0 / Math.max(seconds, 1e-9));
+    }
+
+    List<String> errors = new ArrayList<>();
+
+    for (String error : server.getErrors()) {
+      if (EXPECTED_ERRORS.stream().noneMatch(error::contains)) {
+        errors.add(error);
+      }
+    }
+
+    int unexpectedErrors =
+        server.getErrorCount() - (server.getErrors().size() - errors.size());
+
+    System.out.println();
+    System.out.printf(
+        Locale.ROOT,
+        "Move decisions checked against isSimilar: %d, mismatches: %d%n",
+        moveChecks,
+        moveMismatches);
+    System.out.printf(
+        Locale.ROOT,
+        "Plugin errors: %d, warnings: %d (main-thread allocation only; the database writer"
+            + " thread is not counted)%n",
+        unexpectedErrors,
+        server.getWarningCount());
+
+    failures.forEach(failure -> System.out.println("FAIL " + failure));
+    errors.forEach(error -> System.out.println("ERROR " + error));
+
+    boolean passed = failures.isEmpty() && unexpectedErrors == 0 && moveMismatches == 0;
+
+    System.out.println(passed ? "PASSED" : "FAILED");
+
+    return passed ? 0 : 1;
+  }
+
+  private static final class Chain {
+    private final StandInWorld.StandInBlock chest;
+
+    private final List<StandInWorld.StandInBlock> hoppers = new ArrayList<>();
+
+    private Chain(StandInWorld.StandInBlock chest) {
+      this.chest = chest;
+    }
+  }
+
+  private static final class Replacement {
+    private final StandInWorld.StandInBlock block;
+
+    private final ItemStack item;
+
+    private Replacement(StandInWorld.StandInBlock block, ItemStack item) {
+      this.block = block;
+      this.item = item;
+    }
+  }
+
+  private static final class PhaseResult {
+    private final String phase;
+
+    private final int events;
+
+    private final long nanos;
+
+    private final long allocatedBytes;
+
+    private PhaseResult(String phase, int events, long nanos, long allocatedBytes) {
+      this.phase = phase;
+      this.events = events;
+      this.nanos = nanos;
+      this.allocatedBytes = allocatedBytes;
+    }
+  }
+
+  private static final class Options {
+    private File pluginJar;
+
+    private File workDir;
+
+    private int hoppers = 2000;
+
+    private int chain = 8;
+
+    private int moves = 200_000;
+
+    private int warmup = 50_000;
+
+    private int breaks = 200;
+
+    private long seed = 42L;
+
+    private boolean verbose = false;
+
+    private static Options parse(String[] args) {
+      Options options = new Options();
+
+      options.pluginJar = new File(args[0]);
+      options.workDir = new File(args[1]);
+
+      for (String arg : Arrays.copyOfRange(args, 2, args.length)) {
+        String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+        String value = pair.length > 1 ? pair[1] : "";
+
+        switch (pair[0]) {
+          case "hoppers":
+            options.hoppers = Integer.parseInt(value);
+            break;
+          case "chain":
+            options.chain = Math.max(2, Integer.parseInt(value));
+            break;
+          case "moves":
+            options.moves = Integer.parseInt(value);
+            break;
+          case "warmup":
+            options.warmup = Integer.parseInt(value);
+            break;
+          case "breaks":
+            options.breaks = Integer.parseInt(value);
+            break;
+          case "seed":
+            options.seed = Long.parseLong(value);
+            break;
+          case "verbose":
+            options.verbose = true;
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+      }
+
+      return options;
+    }
+  }
+}
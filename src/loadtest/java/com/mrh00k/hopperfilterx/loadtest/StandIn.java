@@ -0,0 +1,124 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.loadtest;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Base for the dynamic-proxy stand-ins of the Bukkit interfaces. Subclasses answer the methods the
+ * plugin actually calls; anything else returns null, zero or false, like an idle server would.
+ * Object methods use identity semantics unless a subclass overrides them.
+ */
+abstract class StandIn implements InvocationHandler {
+
+  /** Returned by {@link #handle} for methods the stand-in does not implement. */
+  static final Object UNHANDLED = new Object();
+
+  private static final Object[] NO_ARGS = new Object[0];
+
+  static <T> T proxy(Class<T> type, StandIn handler) {
+    return type.cast(proxy(handler, type));
+  }
+
+  static Object proxy(StandIn handler, Class<?>... types) {
+    return Proxy.newProxyInstance(StandIn.class.getClassLoader(), types, handler);
+  }
+
+  /** Returns the stand-in behind a proxy created by this class, or null for anything else. */
+  static <T extends StandIn> T unwrap(Object candidate, Class<T> type) {
+    if (candidate == null || !Proxy.isProxyClass(candidate.getClass())) {
+      return null;
+    }
+
+    InvocationHandler handler = Proxy.getInvocationHandler(candidate);
+
+    return type.isInstance(handler) ? type.cast(handler) : null;
+  }
+
+  @Override
+  public final Object invoke(Object self, Method method, Object[] args) throws Throwable {
+    Object[] arguments = args == null ? NO_ARGS : args;
+
+    if (method.getDeclaringClass() == Object.class) {
+      switch (method.getName()) {
+        case "equals":
+          return self == arguments[0] || sameValue(arguments[0]);
+        case "hashCode":
+          return valueHash();
+        default:
+          return describe();
+      }
+    }
+
+    Object result = handle(self, method, arguments);
+
+    return result == UNHANDLED ? defaultValue(method.getReturnType()) : result;
+  }
+
+  protected abstract Object handle(Object self, Method method, Object[] args) throws Throwable;
+
+  protected boolean sameValue(Object other) {
+    return false;
+  }
+
+  protected int valueHash() {
+    return System.identityHashCode(this);
+  }
+
+  protected String describe() {
+    return getClass().getSimpleName();
+  }
+
+  static Object defaultValue(Class<?> type) {
+    if (!type.isPrimitive() || type == void.class) {
+      return null;
+    }
+
+    if (type == boolean.class) {
+      return false;
+    }
+
+    if (type == long.class) {
+      return 0L;
+    }
+
+    if (type == double.class) {
+      return 0D;
+    }
+
+    if (type == float.class) {
+      return 0F;
+    }
+
+    if (type == short.class) {
+      return (short) 0;
+    }
+
+    if (type == byte.class) {
+      return (byte) 0;
+    }
+
+    if (type == char.class) {
+      return '\0';
+    }
+
+    return 0;
+  }
+}
@@ -0,0 +1,277 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.loadtest;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import org.bukkit.Material;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+/**
+ * Array-backed inventory with Bukkit's stacking rules for {@code addItem} and {@code removeItem}.
+ * Player inventories have 36 storage slots followed by armour and off hand, and slot 0 is the held
+ * item.
+ */
+final class StandInInventory extends StandIn {
+
+  private static final int PLAYER_STORAGE = 36;
+
+  private final InventoryType type;
+
+  private final String title;
+
+  private final ItemStack[] slots;
+
+  private final int storageSize;
+
+  private final Inventory inventory;
+
+  private InventoryHolder holder;
+
+  private int maxStackSize = 64;
+
+  StandInInventory(InventoryType type, int size, String title, InventoryHolder holder) {
+    this.type = type;
+    this.title = title;
+    this.holder = holder;
+    this.slots = new ItemStack[size];
+    this.storageSize = type == InventoryType.PLAYER ? Math.min(PLAYER_STORAGE, size) : size;
+    this.inventory =
+        type == InventoryType.PLAYER
+            ? proxy(PlayerInventory.class, this)
+            : proxy(Inventory.class, this);
+  }
+
+  Inventory getInventory() {
+    return inventory;
+  }
+
+  String getTitle() {
+    return title;
+  }
+
+  InventoryType getType() {
+    return type;
+  }
+
+  void setHolder(InventoryHolder holder) {
+    this.holder = holder;
+  }
+
+  @Override
+  protected Object handle(Object self, Method method, Object[] args) {
+    switch (method.getName()) {
+      case "getSize":
+        return slots.length;
+      case "getMaxStackSize":
+        return maxStackSize;
+      case "setMaxStackSize":
+        maxStackSize = (Integer) args[0];
+        return null;
+      case "getType":
+        return type;
+      case "getHolder":
+        return holder;
+      case "getViewers":
+        return new ArrayList<>();
+      case "getItem":
+        return args[0] instanceof Integer ? slots[(Integer) args[0]] : slots[0];
+      case "setItem":
+        if (args[0] instanceof Integer) {
+          slots[(Integer) args[0]] = (ItemStack) args[1];
+        }
+        return null;
+      case "getContents":
+        return slots.clone();
+      case "getStorageContents":
+        return Arrays.copyOf(slots, storageSize);
+      case "setContents":
+      case "setStorageContents":
+        ItemStack[] contents = (ItemStack[]) args[0];
+        System.arraycopy(contents, 0, slots, 0, Math.min(contents.length, slots.length));
+        return null;
+      case "addItem":
+        return add((ItemStack[]) args[0]);
+      case "removeItem":
+        return remove((ItemStack[]) args[0]);
+      case "firstEmpty":
+        return firstEmpty();
+      case "isEmpty":
+        return firstNonEmpty() < 0;
+      case "clear":
+        if (args.length == 1) {
+          slots[(Integer) args[0]] = null;
+        } else {
+          Arrays.fill(slots, null);
+        }
+        return null;
+      case "contains":
+        return contains(args[0]);
+      case "iterator":
+        return Arrays.asList(slots).listIterator();
+      case "getItemInMainHand":
+        return slots[0] == null ? new ItemStack(Material.AIR) : slots[0];
+      case "setItemInMainHand":
+        slots[0] = (ItemStack) args[0];
+        return null;
+      case "getItemInOffHand":
+        return new ItemStack(Material.AIR);
+      case "getArmorContents":
+        return new ItemStack[4];
+      case "getExtraContents":
+        return new ItemStack[1];
+      default:
+        return UNHANDLED;
+    }
+  }
+
+  private int firstEmpty() {
+    for (int slot = 0; slot < storageSize; slot++) {
+      if (slots[slot] == null) {
+        return slot;
+      }
+    }
+
+    return -1;
+  }
+
+  private int firstNonEmpty() {
+    for (int slot = 0; slot < slots.length; slot++) {
+      if (slots[slot] != null && slots[slot].getType() != Material.AIR) {
+        return slot;
+      }
+    }
+
+    return -1;
+  }
+
+  private boolean contains(Object wanted) {
+    for (ItemStack item : slots) {
+      if (item == null) {
+        continue;
+      }
+
+      boolean match =
+          wanted instanceof Material
+              ? item.getType() == wanted
+              : item.isSimilar((ItemStack) wanted);
+
+      if (match) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private HashMap<Integer, ItemStack> add(ItemStack[] items) {
+    HashMap<Integer, ItemStack> leftover = new HashMap<>();
+
+    for (int index = 0; index < items.length; index++) {
+      ItemStack item = items[index];
+
+      if (item == null || item.getType() == Material.AIR) {
+        continue;
+      }
+
+      int limit = Math.max(1, Math.min(maxStackSize, item.getMaxStackSize()));
+      int remaining = item.getAmount();
+
+      for (int slot = 0; slot < storageSize && remaining > 0; slot++) {
+        ItemStack current = slots[slot];
+
+        if (current != null && current.getAmount() < limit && current.isSimilar(item)) {
+          int moved = Math.min(remaining, limit - current.getAmount());
+
+          current.setAmount(current.getAmount() + moved);
+          remaining -= moved;
+        }
+      }
+
+      for (int slot = 0; slot < storageSize && remaining > 0; slot++) {
+        if (slots[slot] == null) {
+          ItemStack placed = item.clone();
+          int moved = Math.min(remaining, limit);
+
+          placed.setAmount(moved);
+          slots[slot] = placed;
+          remaining -= moved;
+        }
+      }
+
+      if (remaining > 0) {
+        ItemStack rest = item.clone();
+
+        rest.setAmount(remaining);
+        leftover.put(index, rest);
+      }
+    }
+
+    return leftover;
+  }
+
+  private HashMap<Integer, ItemStack> remove(ItemStack[] items) {
+    HashMap<Integer, ItemStack> leftover = new HashMap<>();
+
+    for (int index = 0; index < items.length; index++) {
+      ItemStack item = items[index];
+
+      if (item == null) {
+        continue;
+      }
+
+      int remaining = item.getAmount();
+
+      for (int slot = 0; slot < slots.length && remaining > 0; slot++) {
+        ItemStack current = slots[slot];
+
+        if (current != null && current.isSimilar(item)) {
+          int taken = Math.min(remaining, current.getAmount());
+
+          remaining -= taken;
+
+          if (taken == current.getAmount()) {
+            slots[slot] = null;
+          } else {
+            current.setAmount(current.getAmount() - taken);
+          }
+        }
+      }
+
+      if (remaining > 0) {
+        ItemStack rest = item.clone();
+
+        rest.setAmount(remaining);
+        leftover.put(index, rest);
+      }
+    }
+
+    return leftover;
+  }
+
+  @Override
+  protected String describe() {
+    return "StandInInventory{" + type + ", " + slots.length + " slots}";
+  }
+}
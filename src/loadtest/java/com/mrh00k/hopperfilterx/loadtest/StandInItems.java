@@ -0,0 +1,277 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.loadtest;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+/**
+ * Item factory and item meta with the parts of CraftBukkit's behaviour the plugin relies on:
+ * display names, lore and a persistent data container, compared by value. Meta goes through
+ * Bukkit's configuration serialization like the real thing, so filter contents survive the
+ * plugin's item codec.
+ */
+final class StandInItems {
+
+  private static final String SERIALIZED_ALIAS = "HopperFilterXLoadTestMeta";
+
+  private StandInItems() {}
+
+  static ItemFactory factory() {
+    ConfigurationSerialization.registerClass(SerializedMeta.class, SERIALIZED_ALIAS);
+
+    return StandIn.proxy(ItemFactory.class, new Factory());
+  }
+
+  static ItemStack item(Material material, int amount, String displayName, List<String> lore) {
+    ItemStack item = new ItemStack(material, amount);
+
+    if (displayName != null || lore != null) {
+      Meta meta = new Meta();
+
+      meta.displayName = displayName;
+      meta.lore = lore == null ? null : new ArrayList<>(lore);
+
+      item.setItemMeta(meta.asItemMeta());
+    }
+
+    return item;
+  }
+
+  /** Returns the persistent data value stored under the given key name, in any namespace. */
+  static Object data(ItemStack item, String key) {
+    if (item == null || !item.hasItemMeta()) {
+      return null;
+    }
+
+    Meta meta = StandIn.unwrap(item.getItemMeta(), Meta.class);
+
+    if (meta == null) {
+      return null;
+    }
+
+    for (Map.Entry<String, Object> entry : meta.data.entrySet()) {
+      if (entry.getKey().endsWith(":" + key)) {
+        return entry.getValue();
+      }
+    }
+
+    return null;
+  }
+
+  private static final class Factory extends StandIn {
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "getItemMeta":
+          return new Meta().asItemMeta();
+        case "isApplicable":
+          return true;
+        case "equals":
+          return metaEquals(args[0], args[1]);
+        case "asMetaFor":
+          return args[0];
+        case "updateMaterial":
+          return args[1];
+        default:
+          return UNHANDLED;
+      }
+    }
+  }
+
+  /** Like CraftBukkit, a missing meta equals an empty one; ItemStack#hasItemMeta relies on it. */
+  private static boolean metaEquals(Object first, Object second) {
+    if (first == null || second == null) {
+      Meta other = StandIn.unwrap(first == null ? second : first, Meta.class);
+
+      return other == null || other.isEmpty();
+    }
+
+    return first.equals(second);
+  }
+
+  /** Target of the configuration serialization alias written by {@link Meta}. */
+  public static final class SerializedMeta implements ConfigurationSerializable {
+    private SerializedMeta() {}
+
+    @SuppressWarnings("unchecked")
+    public static ItemMeta deserialize(Map<String, Object> map) {
+      Meta meta = new Meta();
+
+      meta.displayName = (String) map.get("name");
+      meta.lore = map.get("lore") == null ? null : new ArrayList<>((List<String>) map.get("lore"));
+      meta.data = new LinkedHashMap<>((Map<String, Object>) map.get("data"));
+
+      return meta.asItemMeta();
+    }
+
+    @Override
+    public Map<String, Object> serialize() {
+      return Collections.emptyMap();
+    }
+  }
+
+  private static final class Meta extends StandIn {
+    private String displayName;
+
+    private ArrayList<String> lore;
+
+    private LinkedHashMap<String, Object> data = new LinkedHashMap<>();
+
+    ItemMeta asItemMeta() {
+      return (ItemMeta) proxy(this, Damageable.class);
+    }
+
+    private boolean isEmpty() {
+      return displayName == null && (lore == null || lore.isEmpty()) && data.isEmpty();
+    }
+
+    private Meta copy() {
+      Meta copy = new Meta();
+
+      copy.displayName = displayName;
+      copy.lore = lore == null ? null : new ArrayList<>(lore);
+      copy.data = new LinkedHashMap<>(data);
+
+      return copy;
+    }
+
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "hasDisplayName":
+          return displayName != null;
+        case "getDisplayName":
+          return displayName == null ? "" : displayName;
+        case "setDisplayName":
+          displayName = (String) args[0];
+          return null;
+        case "hasLore":
+          return lore != null && !lore.isEmpty();
+        case "getLore":
+          return lore == null ? null : new ArrayList<>(lore);
+        case "setLore":
+          lore = args[0] == null ? null : new ArrayList<>(castList(args[0]));
+          return null;
+        case "getPersistentDataContainer":
+          return proxy(PersistentDataContainer.class, new DataContainer(this));
+        case "clone":
+          return copy().asItemMeta();
+        case "serialize":
+          Map<String, Object> map = new LinkedHashMap<>();
+          map.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, SERIALIZED_ALIAS);
+          map.put("name", displayName);
+          map.put("lore", lore);
+          map.put("data", new LinkedHashMap<>(data));
+          return map;
+        case "getEnchants":
+          return Collections.emptyMap();
+        case "getItemFlags":
+          return Collections.emptySet();
+        default:
+          return UNHANDLED;
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> castList(Object value) {
+      return (List<String>) value;
+    }
+
+    @Override
+    protected boolean sameValue(Object other) {
+      Meta meta = unwrap(other, Meta.class);
+
+      return meta != null
+          && Objects.equals(displayName, meta.displayName)
+          && Objects.equals(lore, meta.lore)
+          && Objects.equals(data, meta.data);
+    }
+
+    @Override
+    protected int valueHash() {
+      return Objects.hash(displayName, lore, data);
+    }
+
+    @Override
+    protected String describe() {
+      return "Meta{name=" + displayName + ", lore=" + lore + ", data=" + data.keySet() + "}";
+    }
+  }
+
+  private static final class DataContainer extends StandIn {
+    private final Meta meta;
+
+    DataContainer(Meta meta) {
+      this.meta = meta;
+    }
+
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "set":
+          meta.data.put(args[0].toString(), args[2]);
+          return null;
+        case "has":
+          return args.length == 1 ? meta.data.containsKey(args[0].toString()) : typed(args) != null;
+        case "get":
+          return typed(args);
+        case "getOrDefault":
+          Object value = typed(args);
+          return value == null ? args[2] : value;
+        case "remove":
+          meta.data.remove(args[0].toString());
+          return null;
+        case "isEmpty":
+          return meta.data.isEmpty();
+        case "getKeys":
+          Set<NamespacedKey> keys = new LinkedHashSet<>();
+          for (String key : meta.data.keySet()) {
+            keys.add(NamespacedKey.fromString(key));
+          }
+          return keys;
+        default:
+          return UNHANDLED;
+      }
+    }
+
+    private Object typed(Object[] args) {
+      Object value = meta.data.get(args[0].toString());
+      Class<?> type = ((PersistentDataType<?, ?>) args[1]).getComplexType();
+
+      return type.isInstance(value) ? value : null;
+    }
+  }
+}
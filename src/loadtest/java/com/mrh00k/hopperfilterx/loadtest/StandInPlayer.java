@@ -0,0 +1,210 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.loadtest;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.metadata.MetadataValue;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Online player standing in a stand-in world. It holds every permission without being an operator,
+ * sneaks by default so right-clicking a hopper opens the filter, and tracks its open inventory view
+ * and metadata the way the server does.
+ */
+final class StandInPlayer extends StandIn {
+
+  private final String name;
+
+  private final UUID uniqueId;
+
+  private final StandInWorld world;
+
+  private final Player player;
+
+  private final StandInInventory inventory;
+
+  private final StandInInventory enderChest;
+
+  private final Map<String, List<MetadataValue>> metadata = new HashMap<>();
+
+  private GameMode gameMode = GameMode.SURVIVAL;
+
+  private boolean sneaking = true;
+
+  private InventoryView openView;
+
+  StandInPlayer(String name, StandInWorld world) {
+    this.name = name;
+    this.uniqueId =
+        UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8));
+    this.world = world;
+    this.player = proxy(Player.class, this);
+    this.inventory = new StandInInventory(InventoryType.PLAYER, 41, "Inventory", player);
+    this.enderChest = new StandInInventory(InventoryType.ENDER_CHEST, 27, "Ender Chest", player);
+  }
+
+  Player getPlayer() {
+    return player;
+  }
+
+  PlayerInventory getInventory() {
+    return (PlayerInventory) inventory.getInventory();
+  }
+
+  InventoryView getOpenView() {
+    return openView;
+  }
+
+  void closeView() {
+    openView = null;
+  }
+
+  void setGameMode(GameMode gameMode) {
+    this.gameMode = gameMode;
+  }
+
+  @Override
+  protected Object handle(Object self, Method method, Object[] args) {
+    switch (method.getName()) {
+      case "getName":
+      case "getDisplayName":
+      case "getPlayerListName":
+        return name;
+      case "getUniqueId":
+        return uniqueId;
+      case "getType":
+        return EntityType.PLAYER;
+      case "hasPermission":
+      case "isPermissionSet":
+      case "isOnline":
+      case "isValid":
+        return true;
+      case "isOp":
+        return false;
+      case "getGameMode":
+        return gameMode;
+      case "setGameMode":
+        gameMode = (GameMode) args[0];
+        return null;
+      case "isSneaking":
+        return sneaking;
+      case "setSneaking":
+        sneaking = (Boolean) args[0];
+        return null;
+      case "sendMessage":
+      case "sendRawMessage":
+        return null;
+      case "getInventory":
+      case "getEquipment":
+        return inventory.getInventory();
+      case "getEnderChest":
+        return enderChest.getInventory();
+      case "getWorld":
+        return world.getWorld();
+      case "getLocation":
+        return new Location(world.getWorld(), 0.5, 64, 0.5);
+      case "getLocale":
+        return "en_us";
+      case "getServer":
+        return Bukkit.getServer();
+      case "openInventory":
+        if (args[0] instanceof Inventory) {
+          StandInInventory top = unwrap(args[0], StandInInventory.class);
+          openView = proxy(InventoryView.class, new View(top, (Inventory) args[0]));
+        }
+        return openView;
+      case "getOpenInventory":
+        return openView;
+      case "closeInventory":
+        openView = null;
+        return null;
+      case "setMetadata":
+        metadata
+            .computeIfAbsent((String) args[0], k -> new ArrayList<>())
+            .add((MetadataValue) args[1]);
+        return null;
+      case "getMetadata":
+        return new ArrayList<>(metadata.getOrDefault((String) args[0], new ArrayList<>()));
+      case "hasMetadata":
+        return metadata.containsKey((String) args[0]);
+      case "removeMetadata":
+        List<MetadataValue> values = metadata.get((String) args[0]);
+        if (values != null) {
+          values.removeIf(value -> value.getOwningPlugin() == (Plugin) args[1]);
+          if (values.isEmpty()) {
+            metadata.remove((String) args[0]);
+          }
+        }
+        return null;
+      default:
+        return UNHANDLED;
+    }
+  }
+
+  @Override
+  protected String describe() {
+    return "StandInPlayer{" + name + "}";
+  }
+
+  private final class View extends StandIn {
+    private final StandInInventory top;
+
+    private final Inventory topInventory;
+
+    View(StandInInventory top, Inventory topInventory) {
+      this.top = top;
+      this.topInventory = topInventory;
+    }
+
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "getTopInventory":
+          return topInventory;
+        case "getBottomInventory":
+          return inventory.getInventory();
+        case "getPlayer":
+          return player;
+        case "getTitle":
+        case "getOriginalTitle":
+          return top == null ? "" : top.getTitle();
+        case "getType":
+          return top == null ? InventoryType.CHEST : top.getType();
+        case "countSlots":
+          return topInventory.getSize() + 36;
+        default:
+          return UNHANDLED;
+      }
+    }
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.loadtest;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Scheduler driven by {@link #tick()} instead of a clock. Synchronous tasks run on the tick they
+ * are due; asynchronous tasks without a delay run immediately on the calling thread, so work the
+ * plugin hands off is finished, and measured, before the next event is fired.
+ */
+final class StandInScheduler extends StandIn {
+
+  private final BukkitScheduler scheduler = proxy(BukkitScheduler.class, this);
+
+  private final PriorityQueue<Task> queue =
+      new PriorityQueue<>(
+          Comparator.comparingLong((Task task) -> task.due).thenComparingInt(task -> task.id));
+
+  private long currentTick;
+
+  private int nextId = 1;
+
+  BukkitScheduler getScheduler() {
+    return scheduler;
+  }
+
+  /** Advances one server tick and runs every task that is due. */
+  void tick() {
+    currentTick++;
+
+    List<Task> due = new ArrayList<>();
+
+    while (!queue.isEmpty() && queue.peek().due <= currentTick) {
+      due.add(queue.poll());
+    }
+
+    for (Task task : due) {
+      if (task.cancelled) {
+        continue;
+      }
+
+      task.run();
+
+      if (task.period > 0 && !task.cancelled) {
+        task.due = currentTick + task.period;
+        queue.add(task);
+      }
+    }
+  }
+
+  void cancelAll() {
+    for (Task task : queue) {
+      task.cancelled = true;
+    }
+
+    queue.clear();
+  }
+
+  @Override
+  protected Object handle(Object self, Method method, Object[] args) throws Exception {
+    String name = method.getName();
+
+    switch (name) {
+      case "runTask":
+      case "runTaskLater":
+      case "runTaskTimer":
+      case "runTaskAsynchronously":
+      case "runTaskLaterAsynchronously":
+      case "runTaskTimerAsynchronously":
+        return schedule(name.endsWith("Asynchronously"), args).proxy;
+      case "scheduleSyncDelayedTask":
+      case "scheduleSyncRepeatingTask":
+        return schedule(false, args).id;
+      case "scheduleAsyncDelayedTask":
+      case "scheduleAsyncRepeatingTask":
+        return schedule(true, args).id;
+      case "callSyncMethod":
+        FutureTask<?> future = new FutureTask<>((Callable<?>) args[1]);
+        future.run();
+        return future;
+      case "cancelTask":
+        for (Task task : queue) {
+          if (task.id == (Integer) args[0]) {
+            task.cancelled = true;
+          }
+        }
+        queue.removeIf(task -> task.cancelled);
+        return null;
+      case "cancelTasks":
+        cancelAll();
+        return null;
+      case "isQueued":
+        return queue.stream().anyMatch(task -> task.id == (Integer) args[0]);
+      case "isCurrentlyRunning":
+        return false;
+      case "getPendingTasks":
+        List<BukkitTask> pending = new ArrayList<>();
+        for (Task task : queue) {
+          pending.add(task.proxy);
+        }
+        return pending;
+      default:
+        return UNHANDLED;
+    }
+  }
+
+  private Task schedule(boolean async, Object[] args) {
+    long delay = args.length > 2 ? Math.max(0L, ((Number) args[2]).longValue()) : 0L;
+    long period = args.length > 3 ? ((Number) args[3]).longValue() : -1L;
+    Task task = new Task(nextId++, (Plugin) args[0], args[1], !async, period);
+
+    if (async && delay == 0 && period <= 0) {
+      task.run();
+
+      return task;
+    }
+
+    task.due = currentTick + Math.max(1L, delay);
+    queue.add(task);
+
+    return task;
+  }
+
+  private final class Task extends StandIn {
+    private final int id;
+
+    private final Plugin owner;
+
+    private final Object body;
+
+    private final boolean sync;
+
+    private final long period;
+
+    private final BukkitTask proxy;
+
+    private long due;
+
+    private boolean cancelled;
+
+    Task(int id, Plugin owner, Object body, boolean sync, long period) {
+      this.id = id;
+      this.owner = owner;
+      this.body = body;
+      this.sync = sync;
+      this.period = period;
+      this.proxy = proxy(BukkitTask.class, this);
+    }
+
+    @SuppressWarnings("unchecked")
+    void run() {
+      if (body instanceof Runnable) {
+        ((Runnable) body).run();
+      } else {
+        ((Consumer<BukkitTask>) body).accept(proxy);
+      }
+    }
+
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "getTaskId":
+          return id;
+        case "getOwner":
+          return owner;
+        case "isSync":
+          return sync;
+        case "isCancelled":
+          return cancelled;
+        case "cancel":
+          cancelled = true;
+          queue.remove(this);
+          return null;
+        default:
+          return UNHANDLED;
+      }
+    }
+  }
+}
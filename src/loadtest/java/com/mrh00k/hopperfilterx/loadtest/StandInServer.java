@@ -0,0 +1,424 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.loadtest;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.stream.Stream;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Keyed;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.Server;
+import org.bukkit.UnsafeValues;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.plugin.SimplePluginManager;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+/**
+ * Offline server for the load harness. Plugins are loaded by Bukkit's own {@link
+ * SimplePluginManager} and {@link JavaPluginLoader}, so events and commands reach the plugin
+ * through the same dispatch code as on a live server; everything below that is a stand-in.
+ * Console errors and severe log records are collected so the harness can fail on them.
+ */
+final class StandInServer extends StandIn {
+
+  private static final int MAX_RECORDED_ERRORS = 20;
+
+  private final Server server = proxy(Server.class, this);
+
+  private final StandInScheduler scheduler = new StandInScheduler();
+
+  private final ItemFactory itemFactory = StandInItems.factory();
+
+  private final java.util.logging.Logger logger = java.util.logging.Logger.getLogger("StandIn");
+
+  private final ConsoleCommandSender console = proxy(ConsoleCommandSender.class, new Console());
+
+  private final UnsafeValues unsafe = proxy(UnsafeValues.class, new Unsafe());
+
+  private final Map<String, StandInWorld> worlds = new LinkedHashMap<>();
+
+  private final Map<String, StandInPlayer> players = new LinkedHashMap<>();
+
+  private final Map<Class<?>, Object> registries = new HashMap<>();
+
+  private final Map<Class<?>, Object> idleServices = new HashMap<>();
+
+  private final List<String> errors = new ArrayList<>();
+
+  private final boolean verbose;
+
+  private SimpleCommandMap commandMap;
+
+  private SimplePluginManager pluginManager;
+
+  private int errorCount;
+
+  private int warningCount;
+
+  StandInServer(boolean verbose) {
+    this.verbose = verbose;
+  }
+
+  /** Registers this server with {@link Bukkit} and creates its plugin manager. */
+  void install() {
+    logger.setUseParentHandlers(verbose);
+    logger.addHandler(
+        new Handler() {
+          @Override
+          public void publish(LogRecord record) {
+            if (record.getLevel().intValue() >= Level.SEVERE.intValue()) {
+              Throwable thrown = record.getThrown();
+
+              recordError(record.getMessage() + (thrown == null ? "" : ": " + thrown));
+            }
+          }
+
+          @Override
+          public void flush() {}
+
+          @Override
+          public void close() {}
+        });
+
+    Bukkit.setServer(server);
+
+    commandMap = new SimpleCommandMap(server);
+    pluginManager = new SimplePluginManager(server, commandMap);
+    pluginManager.registerInterface(JavaPluginLoader.class);
+  }
+
+  SimplePluginManager getPluginManager() {
+    return pluginManager;
+  }
+
+  StandInScheduler getScheduler() {
+    return scheduler;
+  }
+
+  ConsoleCommandSender getConsole() {
+    return console;
+  }
+
+  StandInWorld addWorld(String name) {
+    return worlds.computeIfAbsent(name, StandInWorld::new);
+  }
+
+  StandInPlayer addPlayer(String name, StandInWorld world) {
+    return players.computeIfAbsent(name, k -> new StandInPlayer(name, world));
+  }
+
+  boolean dispatch(CommandSender sender, String commandLine) {
+    return commandMap.dispatch(sender, commandLine);
+  }
+
+  int getErrorCount() {
+    return errorCount;
+  }
+
+  int getWarningCount() {
+    return warningCount;
+  }
+
+  List<String> getErrors() {
+    return Collections.unmodifiableList(errors);
+  }
+
+  private void recordError(String message) {
+    errorCount++;
+
+    if (errors.size() < MAX_RECORDED_ERRORS) {
+      errors.add(message);
+    }
+  }
+
+  @Override
+  protected Object handle(Object self, Method method, Object[] args) throws Exception {
+    switch (method.getName()) {
+      case "getName":
+        return "StandIn";
+      case "getVersion":
+      case "getBukkitVersion":
+        return "1.21.7-R0.1-SNAPSHOT";
+      case "getMinecraftVersion":
+        return "1.21.7";
+      case "getLogger":
+        return logger;
+      case "getConsoleSender":
+        return console;
+      case "getPluginManager":
+        return pluginManager;
+      case "getScheduler":
+        return scheduler.getScheduler();
+      case "getItemFactory":
+        return itemFactory;
+      case "getUnsafe":
+        return unsafe;
+      case "getRegistry":
+        return registries.computeIfAbsent(
+            (Class<?>) args[0], type -> proxy(Registry.class, new StandInRegistry(type)));
+      case "isPrimaryThread":
+        return true;
+      case "getWorlds":
+        List<Object> loaded = new ArrayList<>();
+        worlds.values().forEach(world -> loaded.add(world.getWorld()));
+        return loaded;
+      case "getWorld":
+        for (StandInWorld world : worlds.values()) {
+          if (world.getName().equals(args[0]) || world.getUid().equals(args[0])) {
+            return world.getWorld();
+          }
+        }
+        return null;
+      case "getOnlinePlayers":
+        List<Player> online = new ArrayList<>();
+        players.values().forEach(player -> online.add(player.getPlayer()));
+        return online;
+      case "getPlayer":
+      case "getPlayerExact":
+        return findPlayer(args[0]);
+      case "createInventory":
+        return createInventory(args);
+      case "getPluginCommand":
+        Command command = commandMap.getCommand((String) args[0]);
+        return command instanceof PluginCommand ? command : null;
+      case "dispatchCommand":
+        return dispatch((CommandSender) args[0], (String) args[1]);
+      default:
+        return idle(method.getReturnType());
+    }
+  }
+
+  private Player findPlayer(Object key) {
+    for (StandInPlayer player : players.values()) {
+      Player online = player.getPlayer();
+
+      if (key instanceof UUID
+          ? online.getUniqueId().equals(key)
+          : online.getName().equalsIgnoreCase((String) key)) {
+        return online;
+      }
+    }
+
+    return null;
+  }
+
+  private Object createInventory(Object[] args) {
+    InventoryHolder holder = (InventoryHolder) args[0];
+    String title = args.length > 2 ? (String) args[2] : "Container";
+
+    if (args[1] instanceof InventoryType) {
+      InventoryType type = (InventoryType) args[1];
+
+      return new StandInInventory(type, type.getDefaultSize(), title, holder).getInventory();
+    }
+
+    return new StandInInventory(InventoryType.CHEST, (Integer) args[1], title, holder)
+        .getInventory();
+  }
+
+  /** Services such as the messenger or the services manager: present, but doing nothing. */
+  private Object idle(Class<?> type) {
+    if (!type.isInterface() || type.getName().startsWith("java.")) {
+      return UNHANDLED;
+    }
+
+    return idleServices.computeIfAbsent(type, k -> proxy(k, new Idle()));
+  }
+
+  private static final class Idle extends StandIn {
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      return UNHANDLED;
+    }
+  }
+
+  /**
+   * Registry that answers every key. Interface element types (sounds, item types) get a keyed
+   * stand-in per key; enum element types resolve by constant name.
+   */
+  private static final class StandInRegistry extends StandIn {
+    private final Class<?> type;
+
+    private final Map<NamespacedKey, Object> elements = new HashMap<>();
+
+    StandInRegistry(Class<?> type) {
+      this.type = type;
+    }
+
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "get":
+        case "getOrThrow":
+          return element((NamespacedKey) args[0]);
+        case "match":
+          return element(NamespacedKey.fromString(((String) args[0]).toLowerCase(Locale.ROOT)));
+        case "iterator":
+          return Collections.emptyIterator();
+        case "stream":
+          return Stream.empty();
+        default:
+          return UNHANDLED;
+      }
+    }
+
+    private Object element(NamespacedKey key) {
+      if (key == null) {
+        return null;
+      }
+
+      return elements.computeIfAbsent(key, this::create);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object create(NamespacedKey key) {
+      String constant = key.getKey().toUpperCase(Locale.ROOT).replace('.', '_');
+
+      if (type.isEnum()) {
+        try {
+          return Enum.valueOf((Class) type, constant);
+        } catch (IllegalArgumentException e) {
+          return null;
+        }
+      }
+
+      if (!type.isInterface()) {
+        return null;
+      }
+
+      KeyedElement element = new KeyedElement(key, constant);
+
+      return Keyed.class.isAssignableFrom(type)
+          ? proxy(element, type)
+          : proxy(element, type, Keyed.class);
+    }
+  }
+
+  private static final class KeyedElement extends StandIn {
+    private final NamespacedKey key;
+
+    private final String constant;
+
+    KeyedElement(NamespacedKey key, String constant) {
+      this.key = key;
+      this.constant = constant;
+    }
+
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "getKey":
+        case "getKeyOrThrow":
+        case "getKeyOrNull":
+          return key;
+        case "name":
+          return constant;
+        case "getTranslationKey":
+          return key.getNamespace() + "." + key.getKey();
+        case "getMaxStackSize":
+          return 64;
+        default:
+          return UNHANDLED;
+      }
+    }
+
+    @Override
+    protected String describe() {
+      return key.toString();
+    }
+  }
+
+  /** The few unsafe values used while loading a plugin jar. */
+  private static final class Unsafe extends StandIn {
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "processClass":
+          return args[2];
+        case "isSupportedApiVersion":
+          return true;
+        default:
+          return UNHANDLED;
+      }
+    }
+  }
+
+  /** Console sender; the plugin logs through it, so red lines count as errors. */
+  private final class Console extends StandIn {
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "sendMessage":
+        case "sendRawMessage":
+          for (Object arg : args) {
+            if (arg instanceof String) {
+              console((String) arg);
+            } else if (arg instanceof String[]) {
+              for (String line : (String[]) arg) {
+                console(line);
+              }
+            }
+          }
+          return null;
+        case "getName":
+          return "CONSOLE";
+        case "hasPermission":
+        case "isPermissionSet":
+        case "isOp":
+          return true;
+        case "getServer":
+          return server;
+        default:
+          return UNHANDLED;
+      }
+    }
+
+    private void console(String message) {
+      if (message.contains(ChatColor.RED.toString())) {
+        recordError(ChatColor.stripColor(message));
+      } else if (message.contains(ChatColor.YELLOW.toString())) {
+        warningCount++;
+      }
+
+      if (verbose) {
+        System.out.println(ChatColor.stripColor(message));
+      }
+    }
+  }
+}
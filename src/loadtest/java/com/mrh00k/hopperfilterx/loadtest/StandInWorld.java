@@ -0,0 +1,384 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.loadtest;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Chest;
+import org.bukkit.block.Hopper;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Item;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * World made of a sparse block map. Hoppers and chests get a block state that holds a real
+ * inventory, and dropped items are kept so the harness can pick them up again.
+ */
+final class StandInWorld extends StandIn {
+
+  private final String name;
+
+  private final UUID uid;
+
+  private final World world;
+
+  private final Map<Long, StandInBlock> blocks = new HashMap<>();
+
+  private final List<ItemStack> drops = new ArrayList<>();
+
+  StandInWorld(String name) {
+    this.name = name;
+    this.uid = UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+    this.world = proxy(World.class, this);
+  }
+
+  World getWorld() {
+    return world;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  UUID getUid() {
+    return uid;
+  }
+
+  StandInBlock blockAt(int x, int y, int z) {
+    long key = ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+
+    return blocks.computeIfAbsent(key, k -> new StandInBlock(x, y, z));
+  }
+
+  /** Returns and forgets everything dropped since the last call. */
+  List<ItemStack> takeDrops() {
+    List<ItemStack> taken = new ArrayList<>(drops);
+
+    drops.clear();
+
+    return taken;
+  }
+
+  @Override
+  protected Object handle(Object self, Method method, Object[] args) {
+    switch (method.getName()) {
+      case "getName":
+        return name;
+      case "getUID":
+        return uid;
+      case "getBlockAt":
+        if (args.length == 1) {
+          Location location = (Location) args[0];
+
+          return blockAt(location.getBlockX(), location.getBlockY(), location.getBlockZ()).block;
+        }
+        return blockAt((Integer) args[0], (Integer) args[1], (Integer) args[2]).block;
+      case "dropItem":
+      case "dropItemNaturally":
+        ItemStack dropped = ((ItemStack) args[1]).clone();
+        drops.add(dropped);
+        return proxy(Item.class, new DroppedItem(dropped, (Location) args[0]));
+      case "getChunkAt":
+        if (args[0] instanceof Location) {
+          Location location = (Location) args[0];
+
+          return chunk(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        }
+        if (args[0] instanceof Block) {
+          Block block = (Block) args[0];
+
+          return chunk(block.getX() >> 4, block.getZ() >> 4);
+        }
+        return chunk((Integer) args[0], (Integer) args[1]);
+      case "isChunkLoaded":
+        return true;
+      case "getLoadedChunks":
+        return new Chunk[0];
+      case "getMinHeight":
+        return -64;
+      case "getMaxHeight":
+        return 320;
+      default:
+        return UNHANDLED;
+    }
+  }
+
+  Chunk chunk(int chunkX, int chunkZ) {
+    return proxy(Chunk.class, new StandInChunk(chunkX, chunkZ));
+  }
+
+  @Override
+  protected String describe() {
+    return "StandInWorld{" + name + "}";
+  }
+
+  private final class StandInChunk extends StandIn {
+    private final int chunkX;
+
+    private final int chunkZ;
+
+    StandInChunk(int chunkX, int chunkZ) {
+      this.chunkX = chunkX;
+      this.chunkZ = chunkZ;
+    }
+
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "getX":
+          return chunkX;
+        case "getZ":
+          return chunkZ;
+        case "getWorld":
+          return world;
+        case "isLoaded":
+          return true;
+        case "getBlock":
+          int x = (chunkX << 4) + (Integer) args[0];
+          int z = (chunkZ << 4) + (Integer) args[2];
+          return blockAt(x, (Integer) args[1], z).block;
+        default:
+          return UNHANDLED;
+      }
+    }
+
+    @Override
+    protected boolean sameValue(Object other) {
+      StandInChunk chunk = unwrap(other, StandInChunk.class);
+
+      return chunk != null && chunk.chunkX == chunkX && chunk.chunkZ == chunkZ;
+    }
+
+    @Override
+    protected int valueHash() {
+      return 31 * chunkX + chunkZ;
+    }
+  }
+
+  /** A block position; its identity is stable, so proxies compare by reference. */
+  final class StandInBlock extends StandIn {
+    final int x;
+
+    final int y;
+
+    final int z;
+
+    final Block block;
+
+    private Material type = Material.AIR;
+
+    private Object state;
+
+    StandInBlock(int x, int y, int z) {
+      this.x = x;
+      this.y = y;
+      this.z = z;
+      this.block = proxy(Block.class, this);
+    }
+
+    Material getType() {
+      return type;
+    }
+
+    void setType(Material type) {
+      if (this.type != type) {
+        this.type = type;
+        this.state = null;
+      }
+    }
+
+    /** The block state, created once per block type so inventory holders stay the same object. */
+    BlockState getState() {
+      if (state == null) {
+        BlockStateHandler handler = new BlockStateHandler(this);
+
+        if (type == Material.HOPPER) {
+          handler.inventory = new StandInInventory(InventoryType.HOPPER, 5, "Hopper", null);
+          state = proxy(Hopper.class, handler);
+        } else if (type == Material.CHEST) {
+          handler.inventory = new StandInInventory(InventoryType.CHEST, 27, "Chest", null);
+          state = proxy(Chest.class, handler);
+        } else {
+          state = proxy(BlockState.class, handler);
+        }
+
+        if (handler.inventory != null) {
+          handler.inventory.setHolder((InventoryHolder) state);
+        }
+      }
+
+      return (BlockState) state;
+    }
+
+    Location getLocation() {
+      return new Location(world, x, y, z);
+    }
+
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "getType":
+          return type;
+        case "setType":
+          setType((Material) args[0]);
+          return null;
+        case "isEmpty":
+          return type == Material.AIR;
+        case "getWorld":
+          return world;
+        case "getX":
+          return x;
+        case "getY":
+          return y;
+        case "getZ":
+          return z;
+        case "getLocation":
+          if (args.length == 1) {
+            Location target = (Location) args[0];
+
+            if (target != null) {
+              target.setWorld(world);
+              target.setX(x);
+              target.setY(y);
+              target.setZ(z);
+            }
+
+            return target;
+          }
+          return getLocation();
+        case "getChunk":
+          return chunk(x >> 4, z >> 4);
+        case "getState":
+          return getState();
+        case "getRelative":
+          if (args[0] instanceof BlockFace) {
+            BlockFace face = (BlockFace) args[0];
+            int distance = args.length > 1 ? (Integer) args[1] : 1;
+
+            return blockAt(
+                    x + face.getModX() * distance,
+                    y + face.getModY() * distance,
+                    z + face.getModZ() * distance)
+                .block;
+          }
+          return blockAt(x + (Integer) args[0], y + (Integer) args[1], z + (Integer) args[2])
+              .block;
+        case "breakNaturally":
+          setType(Material.AIR);
+          return true;
+        default:
+          return UNHANDLED;
+      }
+    }
+
+    @Override
+    protected String describe() {
+      return "StandInBlock{" + name + " " + x + "," + y + "," + z + " " + type + "}";
+    }
+  }
+
+  private final class BlockStateHandler extends StandIn {
+    private final StandInBlock block;
+
+    private StandInInventory inventory;
+
+    BlockStateHandler(StandInBlock block) {
+      this.block = block;
+    }
+
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "getInventory":
+        case "getSnapshotInventory":
+        case "getBlockInventory":
+          return inventory == null ? null : inventory.getInventory();
+        case "getBlock":
+          return block.block;
+        case "getType":
+          return block.getType();
+        case "getWorld":
+          return world;
+        case "getX":
+          return block.x;
+        case "getY":
+          return block.y;
+        case "getZ":
+          return block.z;
+        case "getLocation":
+          return block.getLocation();
+        case "getChunk":
+          return chunk(block.x >> 4, block.z >> 4);
+        case "isPlaced":
+          return true;
+        case "update":
+          return true;
+        default:
+          return UNHANDLED;
+      }
+    }
+
+    @Override
+    protected String describe() {
+      return "StandInState{" + block.describe() + "}";
+    }
+  }
+
+  private final class DroppedItem extends StandIn {
+    private final ItemStack stack;
+
+    private final Location location;
+
+    DroppedItem(ItemStack stack, Location location) {
+      this.stack = stack;
+      this.location = location;
+    }
+
+    @Override
+    protected Object handle(Object self, Method method, Object[] args) {
+      switch (method.getName()) {
+        case "getItemStack":
+          return stack;
+        case "getLocation":
+          return location;
+        case "getWorld":
+          return world;
+        case "getType":
+          return EntityType.ITEM;
+        case "isValid":
+          return true;
+        default:
+          return UNHANDLED;
+      }
+    }
+  }
+}
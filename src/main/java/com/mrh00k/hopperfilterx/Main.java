@@ -20,6 +20,7 @@ package com.mrh00k.hopperfilterx;
 import com.mrh00k.hopperfilterx.commands.HopperCommand;
 import com.mrh00k.hopperfilterx.listeners.GameModeChangeListener;
 import com.mrh00k.hopperfilterx.listeners.HopperListener;
+import com.mrh00k.hopperfilterx.managers.CreativeStashManager;
 import com.mrh00k.hopperfilterx.managers.DatabaseManager;
 import com.mrh00k.hopperfilterx.managers.MessageManager;
 import com.mrh00k.hopperfilterx.utils.Logger;
@@ -109,6 +110,20 @@ public class Main extends JavaPlugin {
       logger.info(
           "Shutting down " + PluginName + " v" + PluginVersion + " - beginning cleanup sequence");
 
+      try {
+        CreativeStashManager.getInstance().flush();
+      } catch (Exception e) {
+        logger.error("Failed to save creative hopper stashes: " + e.getMessage());
+      }
+
+      try {
+        DatabaseManager.drainWriteQueue();
+
+        logger.info("Pending database writes committed");
+      } catch (Exception e) {
+        logger.error("Failed to drain database write queue: " + e.getMessage());
+      }
+
       try {
         DatabaseManager.flushAndSync();
       } catch (Exception e) {
@@ -124,6 +139,8 @@ public class Main extends JavaPlugin {
       }
 
       logger.success("Plugin " + PluginName + " v" + PluginVersion + " disabled successfully");
+
+      logger.shutdown();
     }
   }
 
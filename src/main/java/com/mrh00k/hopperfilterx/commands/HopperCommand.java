@@ -18,14 +18,19 @@
 package com.mrh00k.hopperfilterx.commands;
 
 import com.mrh00k.hopperfilterx.Main;
+import com.mrh00k.hopperfilterx.managers.ChunkHopperManager;
+import com.mrh00k.hopperfilterx.managers.CreativeStashManager;
 import com.mrh00k.hopperfilterx.managers.DatabaseManager;
 import com.mrh00k.hopperfilterx.managers.MessageManager;
+import com.mrh00k.hopperfilterx.managers.MetricsManager;
 import com.mrh00k.hopperfilterx.managers.SoundManager;
 import com.mrh00k.hopperfilterx.utils.HopperUtils;
 import com.mrh00k.hopperfilterx.utils.InventoryUtils;
 import com.mrh00k.hopperfilterx.utils.Logger;
+import com.mrh00k.hopperfilterx.utils.ServerUtils;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import net.md_5.bungee.api.chat.ClickEvent;
 import net.md_5.bungee.api.chat.ComponentBuilder;
 import net.md_5.bungee.api.chat.HoverEvent;
@@ -67,6 +72,8 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
         handleRemoveCommand(sender, args);
       } else if (subCommand.equals("list")) {
         handleListCommand(sender, args);
+      } else if (subCommand.equals("stats")) {
+        handleStatsCommand(sender, args);
       } else if (subCommand.equals("reload")) {
         if (sender instanceof Player && !sender.hasPermission("hopperfilterx.reload")) {
           SoundManager.playErrorSound((Player) sender);
@@ -77,6 +84,7 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
         Main pluginInstance = JavaPlugin.getPlugin(Main.class);
         pluginInstance.reloadConfig();
         Logger.getInstance().reloadDebugConfiguration(pluginInstance);
+        ServerUtils.reloadForceGamemode();
         MessageManager.getInstance().reload();
         sender.sendMessage(MessageManager.getInstance().getMessage("command.reload-success"));
         logger.success("Plugin reloaded successfully");
@@ -106,7 +114,8 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
         sender.isOp()
             || sender.hasPermission("hopperfilterx.give")
             || sender.hasPermission("hopperfilterx.remove")
-            || sender.hasPermission("hopperfilterx.reload");
+            || sender.hasPermission("hopperfilterx.reload")
+            || sender.hasPermission("hopperfilterx.stats");
 
     if (!isOperator) {
       // Usuarios normales solo ven los comandos permitidos
@@ -134,6 +143,8 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
         if (sender instanceof Player && sender.getName().equalsIgnoreCase(args[1])) {
           completions.add(sender.getName());
         }
+      } else if (args.length == 3 && args[0].equalsIgnoreCase("list")) {
+        completions.add("<page>");
       }
       return completions;
     }
@@ -144,8 +155,11 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
       completions.add("remove");
       completions.add("list");
       completions.add("reload");
+      completions.add("stats");
       completions.add("addperm");
       completions.add("removeperm");
+    } else if (args.length == 2 && args[0].equalsIgnoreCase("stats")) {
+      completions.add("reset");
     } else if (args.length == 2 && args[0].equalsIgnoreCase("give")) {
       for (Player player : Bukkit.getOnlinePlayers()) {
         completions.add(player.getName());
@@ -162,6 +176,8 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
       for (Player player : Bukkit.getOnlinePlayers()) {
         completions.add(player.getName());
       }
+    } else if (args.length == 3 && args[0].equalsIgnoreCase("list")) {
+      completions.add("<page>");
     } else if (args.length == 2 && args[0].equalsIgnoreCase("addperm")) {
       for (Player player : Bukkit.getOnlinePlayers()) {
         if (!player.getName().equalsIgnoreCase(sender.getName())) {
@@ -226,23 +242,12 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
         }
       }
       // Verificar si el jugador tiene hoppers
-      List<com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData> hoppers =
-          com.mrh00k.hopperfilterx.managers.DatabaseManager.loadAllHopperData();
-      boolean hasHopper = false;
+      boolean hasHopper;
       if (hopperUuid != null) {
-        for (com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData h : hoppers) {
-          if (h.getOwner().equalsIgnoreCase(owner) && h.getId().equals(hopperUuid)) {
-            hasHopper = true;
-            break;
-          }
-        }
+        DatabaseManager.HopperData h = DatabaseManager.getHopperById(hopperUuid);
+        hasHopper = h != null && h.getOwner().equalsIgnoreCase(owner);
       } else {
-        for (com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData h : hoppers) {
-          if (h.getOwner().equalsIgnoreCase(owner)) {
-            hasHopper = true;
-            break;
-          }
-        }
+        hasHopper = DatabaseManager.ownerHasHoppers(owner);
       }
       if (!hasHopper) {
         sender.sendMessage(MessageManager.getInstance().getMessage("command.addperm-no-hoppers"));
@@ -425,6 +430,33 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
     }
   }
 
+  /** Removes the given hoppers of a player, once their ids have been looked up. */
+  private void removeAllHoppers(CommandSender sender, String targetPlayerName, List<String> ids) {
+    Player target = Bukkit.getPlayerExact(targetPlayerName);
+
+    if (target == null) {
+      sender.sendMessage(MessageManager.getInstance().getMessage("command.player-not-found"));
+
+      return;
+    }
+
+    for (String uuid : ids) {
+      handleRemoveCommand(sender, new String[] {"remove", targetPlayerName, uuid});
+    }
+
+    if (!ids.isEmpty()) {
+      sender.sendMessage(
+          MessageManager.getInstance()
+              .getMessage("command.remove-success-all", "player", targetPlayerName));
+
+      target.sendMessage(MessageManager.getInstance().getMessage("command.remove-notify-all"));
+    } else {
+      sender.sendMessage(
+          MessageManager.getInstance()
+              .getMessage("command.remove-no-hoppers", "player", targetPlayerName));
+    }
+  }
+
   private void handleRemoveCommand(CommandSender sender, String[] args) {
     try {
       if (!(sender.hasPermission("hopperfilterx.remove") || sender.isOp())) {
@@ -456,29 +488,42 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
       boolean removed = false;
 
       if (args.length < 3) {
-        java.util.List<com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData> allHoppers =
-            com.mrh00k.hopperfilterx.managers.DatabaseManager.loadAllHopperData();
-        java.util.List<String> toRemove = new java.util.ArrayList<>();
-        for (com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData data : allHoppers) {
-          if (data.getOwner().equalsIgnoreCase(targetPlayerName)) {
-            toRemove.add(data.getId());
-          }
-        }
-        for (String uuid : toRemove) {
-          handleRemoveCommand(sender, new String[] {"remove", targetPlayerName, uuid});
-          removed = true;
-        }
-        if (removed) {
-          sender.sendMessage(
-              MessageManager.getInstance()
-                  .getMessage("command.remove-success-all", "player", targetPlayerName));
+        // Owners are stored under their exact name, which the online target provides
+        String ownerName = target.getName();
+
+        Main plugin = JavaPlugin.getPlugin(Main.class);
+
+        // Hoppers that are not resident are looked up in the database, off the main thread
+        Bukkit.getScheduler()
+            .runTaskAsynchronously(
+                plugin,
+                () -> {
+                  List<String> toRemove = new ArrayList<>();
+
+                  try {
+                    for (DatabaseManager.HopperData data :
+                        ChunkHopperManager.getInstance().getAllHoppersByOwner(ownerName)) {
+                      toRemove.add(data.getId());
+                    }
+                  } catch (Exception e) {
+                    logger.error("Error executing hopper remove command: " + e.getMessage());
+
+                    Bukkit.getScheduler()
+                        .runTask(
+                            plugin,
+                            () ->
+                                sender.sendMessage(
+                                    MessageManager.getInstance()
+                                        .getMessage("error.unexpected", "error", e.getMessage())));
+
+                    return;
+                  }
+
+                  Bukkit.getScheduler()
+                      .runTask(
+                          plugin, () -> removeAllHoppers(sender, targetPlayerName, toRemove));
+                });
 
-          target.sendMessage(MessageManager.getInstance().getMessage("command.remove-notify-all"));
-        } else {
-          sender.sendMessage(
-              MessageManager.getInstance()
-                  .getMessage("command.remove-no-hoppers", "player", targetPlayerName));
-        }
         return;
       }
 
@@ -564,27 +609,24 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
         }
       }
 
-      com.mrh00k.hopperfilterx.managers.ChunkHopperManager chunkHopperManager =
-          new com.mrh00k.hopperfilterx.managers.ChunkHopperManager();
+      ChunkHopperManager chunkHopperManager = ChunkHopperManager.getInstance();
 
-      java.util.List<com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData> allHoppers =
-          com.mrh00k.hopperfilterx.managers.DatabaseManager.loadAllHopperData();
+      com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData data =
+          DatabaseManager.getHopperById(uuid);
 
-      for (com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData data : allHoppers) {
-        if (uuid.equals(data.getId()) && data.isPlaced()) {
-          org.bukkit.Location loc = data.getLocation();
+      if (data != null && data.isPlaced()) {
+        org.bukkit.Location loc = data.getLocation();
 
-          org.bukkit.World world = loc.getWorld();
+        org.bukkit.World world = loc.getWorld();
 
-          if (world != null && world.getBlockAt(loc).getType() == org.bukkit.Material.HOPPER) {
-            SoundManager.playHopperBrokenSound(target, loc);
+        if (world != null && world.getBlockAt(loc).getType() == org.bukkit.Material.HOPPER) {
+          SoundManager.playHopperBrokenSound(target, loc);
 
-            world.getBlockAt(loc).setType(org.bukkit.Material.AIR);
+          world.getBlockAt(loc).setType(org.bukkit.Material.AIR);
 
-            removed = true;
+          removed = true;
 
-            chunkHopperManager.removeFilteredHopper(loc);
-          }
+          chunkHopperManager.removeFilteredHopper(loc);
         }
       }
 
@@ -597,41 +639,72 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
             com.mrh00k.hopperfilterx.managers.DatabaseManager.deleteFilteredHopper(uuid);
             foundInDb = true;
           }
-
-          java.util.UUID playerUuid = target.getUniqueId();
-          java.util.List<org.bukkit.inventory.ItemStack> creativeHoppers =
-              com.mrh00k.hopperfilterx.managers.DatabaseManager.loadCreativeHoppers(playerUuid);
-          java.util.List<org.bukkit.inventory.ItemStack> updated = new java.util.ArrayList<>();
-          for (org.bukkit.inventory.ItemStack item : creativeHoppers) {
-            if (!uuid.equals(
-                com.mrh00k.hopperfilterx.utils.HopperUtils.getUuidFromFilteredHopper(
-                    item, filteredHopperKey))) {
-              updated.add(item);
-            } else {
-              foundInDb = true;
-            }
-          }
-          if (updated.size() != creativeHoppers.size()) {
-            com.mrh00k.hopperfilterx.managers.DatabaseManager.saveCreativeHoppers(
-                playerUuid, updated);
-          }
         } catch (Exception e) {
           sender.sendMessage(
               MessageManager.getInstance().getMessage("error.unexpected", "error", e.getMessage()));
           logger.error("Error removing hopper from database: " + e.getMessage());
         }
-        if (foundInDb) {
-          sender.sendMessage(
-              MessageManager.getInstance()
-                  .getMessage("command.remove-success", "player", targetPlayerName, "uuid", uuid));
-          target.sendMessage(
-              MessageManager.getInstance().getMessage("command.remove-notify", "uuid", uuid));
-        } else {
-          sender.sendMessage(
-              MessageManager.getInstance()
-                  .getMessage(
-                      "command.remove-not-found", "player", targetPlayerName, "uuid", uuid));
-        }
+
+        boolean deleted = foundInDb;
+
+        Main plugin = JavaPlugin.getPlugin(Main.class);
+
+        // The creative stash may have to be read from the database, so it is checked off the
+        // main thread
+        Bukkit.getScheduler()
+            .runTaskAsynchronously(
+                plugin,
+                () -> {
+                  boolean stashed = false;
+
+                  String error = null;
+
+                  try {
+                    stashed =
+                        CreativeStashManager.getInstance()
+                            .removeHopper(target.getUniqueId(), uuid, filteredHopperKey);
+                  } catch (Exception e) {
+                    error = e.getMessage();
+
+                    logger.error("Error removing hopper from creative stash: " + error);
+                  }
+
+                  boolean found = deleted || stashed;
+
+                  String failure = error;
+
+                  Bukkit.getScheduler()
+                      .runTask(
+                          plugin,
+                          () -> {
+                            MessageManager messages = MessageManager.getInstance();
+
+                            if (failure != null) {
+                              sender.sendMessage(
+                                  messages.getMessage("error.unexpected", "error", failure));
+                            }
+
+                            if (found) {
+                              sender.sendMessage(
+                                  messages.getMessage(
+                                      "command.remove-success",
+                                      "player",
+                                      targetPlayerName,
+                                      "uuid",
+                                      uuid));
+                              target.sendMessage(
+                                  messages.getMessage("command.remove-notify", "uuid", uuid));
+                            } else {
+                              sender.sendMessage(
+                                  messages.getMessage(
+                                      "command.remove-not-found",
+                                      "player",
+                                      targetPlayerName,
+                                      "uuid",
+                                      uuid));
+                            }
+                          });
+                });
         return;
       }
 
@@ -691,23 +764,15 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
           return;
         }
       }
-      List<com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData> hoppers =
-          com.mrh00k.hopperfilterx.managers.DatabaseManager.loadAllHopperData();
-      boolean hasHopper = false;
+      List<com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData> hoppers;
+      boolean hasHopper;
       if (hopperUuid != null) {
-        for (com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData h : hoppers) {
-          if (h.getOwner().equalsIgnoreCase(owner) && h.getId().equals(hopperUuid)) {
-            hasHopper = true;
-            break;
-          }
-        }
+        hoppers = java.util.Collections.emptyList();
+        DatabaseManager.HopperData h = DatabaseManager.getHopperById(hopperUuid);
+        hasHopper = h != null && h.getOwner().equalsIgnoreCase(owner);
       } else {
-        for (com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData h : hoppers) {
-          if (h.getOwner().equalsIgnoreCase(owner)) {
-            hasHopper = true;
-            break;
-          }
-        }
+        hoppers = DatabaseManager.getHoppersByOwner(owner);
+        hasHopper = !hoppers.isEmpty();
       }
       if (!hasHopper) {
         sender.sendMessage(
@@ -725,12 +790,10 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
           if (!hadPermission) {
             // Si no tiene global, verifica si tiene algún específico
             for (com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData h : hoppers) {
-              if (h.getOwner().equalsIgnoreCase(owner)) {
-                if (com.mrh00k.hopperfilterx.managers.DatabaseManager.hasHopperPermission(
-                    owner, permitted, h.getId())) {
-                  hadPermission = true;
-                  break;
-                }
+              if (com.mrh00k.hopperfilterx.managers.DatabaseManager.hasHopperPermission(
+                  owner, permitted, h.getId())) {
+                hadPermission = true;
+                break;
               }
             }
           }
@@ -765,11 +828,9 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
         }
         // Remove per-hopper permissions
         for (com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData h : hoppers) {
-          if (h.getOwner().equalsIgnoreCase(owner)) {
-            if (com.mrh00k.hopperfilterx.managers.DatabaseManager.removeHopperPermission(
-                owner, permitted, h.getId())) {
-              anyRemoved = true;
-            }
+          if (com.mrh00k.hopperfilterx.managers.DatabaseManager.removeHopperPermission(
+              owner, permitted, h.getId())) {
+            anyRemoved = true;
           }
         }
         removed = anyRemoved;
@@ -795,6 +856,80 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
     }
   }
 
+  private void handleStatsCommand(CommandSender sender, String[] args) {
+    if (!(sender.hasPermission("hopperfilterx.stats") || sender.isOp())) {
+      if (sender instanceof Player) {
+        SoundManager.playErrorSound((Player) sender);
+      }
+      sender.sendMessage(MessageManager.getInstance().getMessage("no-permission"));
+      return;
+    }
+
+    MessageManager messages = MessageManager.getInstance();
+    MetricsManager metrics = MetricsManager.getInstance();
+
+    if (args.length >= 2) {
+      if (!args[1].equalsIgnoreCase("reset")) {
+        sender.sendMessage(messages.getMessage("command.usage-stats"));
+        return;
+      }
+
+      metrics.reset();
+      sender.sendMessage(messages.getMessage("command.stats-reset"));
+      logger.info("Metrics reset by " + sender.getName());
+      return;
+    }
+
+    long elapsedSeconds = (System.currentTimeMillis() - metrics.getSinceMillis()) / 1000;
+    sender.sendMessage(
+        messages.getMessage(
+            "command.stats-header",
+            "duration",
+            (elapsedSeconds / 60) + "m " + (elapsedSeconds % 60) + "s"));
+
+    for (Map.Entry<String, MetricsManager.Timer> entry : metrics.getTimers().entrySet()) {
+      MetricsManager.Timer timer = entry.getValue();
+      if (timer.getCount() == 0) continue;
+      sender.sendMessage(
+          messages.getMessage(
+              "command.stats-timer",
+              "name",
+              entry.getKey(),
+              "count",
+              String.valueOf(timer.getCount()),
+              "mean",
+              formatNanos(timer.getMeanNanos()),
+              "p50",
+              formatNanos(timer.getPercentileNanos(0.50)),
+              "p99",
+              formatNanos(timer.getPercentileNanos(0.99))));
+    }
+
+    for (Map.Entry<String, MetricsManager.Counter> entry : metrics.getCounters().entrySet()) {
+      sender.sendMessage(
+          messages.getMessage(
+              "command.stats-counter",
+              "name",
+              entry.getKey(),
+              "value",
+              String.valueOf(entry.getValue().get())));
+    }
+
+    sender.sendMessage(
+        messages.getMessage(
+            "command.stats-queue", "size", String.valueOf(DatabaseManager.getWriteQueueSize())));
+  }
+
+  private static String formatNanos(long nanos) {
+    if (nanos < 1_000L) {
+      return nanos + "ns";
+    }
+    if (nanos < 1_000_000L) {
+      return String.format(java.util.Locale.ROOT, "%.1fus", nanos / 1_000.0);
+    }
+    return String.format(java.util.Locale.ROOT, "%.1fms", nanos / 1_000_000.0);
+  }
+
   private void handleListCommand(CommandSender sender, String[] args) {
     try {
       if (!(sender.hasPermission("hopperfilterx.list"))) {
@@ -825,6 +960,21 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
         }
       }
 
+      int page = 1;
+
+      if (args.length >= 3) {
+        try {
+          page = Integer.parseInt(args[2]);
+        } catch (NumberFormatException e) {
+          page = 0;
+        }
+
+        if (page < 1) {
+          sender.sendMessage(MessageManager.getInstance().getMessage("command.invalid-page"));
+          return;
+        }
+      }
+
       // Player not found solo si el target no está online y no es el propio sender
       Player targetPlayer = Bukkit.getPlayer(targetPlayerName);
       if (targetPlayer == null
@@ -833,89 +983,57 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
         return;
       }
 
-      java.util.List<com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData> allHoppers =
-          com.mrh00k.hopperfilterx.managers.DatabaseManager.loadAllHopperData();
+      // Owners are stored under their exact name; resolve it from the online player or sender
+      String ownerName = targetPlayer != null ? targetPlayer.getName() : sender.getName();
 
-      java.util.List<com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData> playerHoppers =
-          new java.util.ArrayList<>();
+      // Si es operador y está buscando a otro jugador, mensaje personalizado
+      boolean otherPlayer = sender.isOp() && !sender.getName().equalsIgnoreCase(targetPlayerName);
 
-      for (com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData data : allHoppers) {
-        if (data.getOwner().equalsIgnoreCase(targetPlayerName)) {
-          playerHoppers.add(data);
-        }
-      }
+      Main plugin = JavaPlugin.getPlugin(Main.class);
 
-      if (playerHoppers.isEmpty()) {
-        // Si es operador y está buscando a otro jugador, mensaje personalizado
-        if (sender.isOp() && !(sender.getName().equalsIgnoreCase(targetPlayerName))) {
-          sender.sendMessage(
-              MessageManager.getInstance()
-                  .getMessage("command.list-no-hoppers", "player", targetPlayerName));
-        } else {
-          // Si es el propio usuario, mensaje "que te pertenezcan"
-          sender.sendMessage(
-              MessageManager.getInstance().getMessage("command.list-no-hoppers-user"));
-        }
-        return;
-      }
+      int pageSize = Math.max(1, plugin.getConfig().getInt("commands.list-page-size", 10));
 
-      sender.sendMessage(
-          MessageManager.getInstance()
-              .getMessage("command.list-header", "player", targetPlayerName));
-
-      for (com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData data : playerHoppers) {
-        // Crear el componente UUID con click to copy y hover
-        TextComponent uuidComponent = new TextComponent(data.getId());
-        uuidComponent.setColor(net.md_5.bungee.api.ChatColor.WHITE);
-        uuidComponent.setClickEvent(
-            new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, data.getId()));
-
-        // Crear el texto de hover
-        TextComponent hoverText =
-            new TextComponent(
-                MessageManager.getInstance().getMessageWithoutPrefix("command.click-to-copy"));
-        hoverText.setColor(net.md_5.bungee.api.ChatColor.WHITE);
-        uuidComponent.setHoverEvent(
-            new HoverEvent(
-                HoverEvent.Action.SHOW_TEXT,
-                new ComponentBuilder(hoverText.getText())
-                    .color(net.md_5.bungee.api.ChatColor.WHITE)
-                    .create()));
-
-        // Crear el texto de estado
-        String statusText;
-        if (data.isPlaced()) {
-          String world =
-              data.getLocation().getWorld() != null ? data.getLocation().getWorld().getName() : "?";
-
-          statusText =
-              MessageManager.getInstance()
-                  .getMessageWithoutPrefix(
-                      "command.list-entry-placed",
-                      "world",
-                      world,
-                      "x",
-                      data.getLocation().getBlockX(),
-                      "y",
-                      data.getLocation().getBlockY(),
-                      "z",
-                      data.getLocation().getBlockZ());
-        } else {
-          statusText =
-              MessageManager.getInstance().getMessageWithoutPrefix("command.list-entry-inventory");
-        }
+      String listedName = targetPlayerName;
 
-        // Construir el mensaje completo
-        TextComponent linePrefix = new TextComponent("\n- ");
-        TextComponent statusComponent = new TextComponent("\n" + statusText);
+      int requestedPage = page;
 
-        TextComponent completeMessage = new TextComponent("");
-        completeMessage.addExtra(linePrefix);
-        completeMessage.addExtra(uuidComponent);
-        completeMessage.addExtra(statusComponent);
+      // The lookup may hit the database, so the page is built off the main thread
+      Bukkit.getScheduler()
+          .runTaskAsynchronously(
+              plugin,
+              () -> {
+                Runnable reply;
 
-        sender.spigot().sendMessage(completeMessage);
-      }
+                try {
+                  List<DatabaseManager.HopperData> hoppers =
+                      ChunkHopperManager.getInstance().getAllHoppersByOwner(ownerName);
+
+                  reply =
+                      buildListPage(
+                          sender, listedName, otherPlayer, hoppers, requestedPage, pageSize);
+                } catch (Exception e) {
+                  logger.error("Error executing hopper list command: " + e.getMessage());
+
+                  reply =
+                      () ->
+                          sender.sendMessage(
+                              MessageManager.getInstance()
+                                  .getMessage("error.unexpected", "error", e.getMessage()));
+                }
+
+                Runnable send = reply;
+
+                Bukkit.getScheduler()
+                    .runTask(
+                        plugin,
+                        () -> {
+                          if (sender instanceof Player && !((Player) sender).isOnline()) {
+                            return;
+                          }
+
+                          send.run();
+                        });
+              });
     } catch (Exception e) {
       sender.sendMessage(
           MessageManager.getInstance().getMessage("error.unexpected", "error", e.getMessage()));
@@ -923,4 +1041,115 @@ public class HopperCommand implements CommandExecutor, TabCompleter {
       logger.error("Error executing hopper list command: " + e.getMessage());
     }
   }
+
+  /**
+   * Renders one page of {@code /hopper list} from hoppers in {@link DatabaseManager#BY_ID} order,
+   * so a page number always selects the same slice. Runs off the main thread; the returned task
+   * only sends the prepared messages.
+   */
+  private Runnable buildListPage(
+      CommandSender sender,
+      String targetPlayerName,
+      boolean otherPlayer,
+      List<DatabaseManager.HopperData> hoppers,
+      int page,
+      int pageSize) {
+    MessageManager messages = MessageManager.getInstance();
+
+    if (hoppers.isEmpty()) {
+      String message =
+          otherPlayer
+              ? messages.getMessage("command.list-no-hoppers", "player", targetPlayerName)
+              : messages.getMessage("command.list-no-hoppers-user");
+
+      return () -> sender.sendMessage(message);
+    }
+
+    int pages = (hoppers.size() + pageSize - 1) / pageSize;
+
+    int current = Math.min(page, pages);
+
+    String header = messages.getMessage("command.list-header", "player", targetPlayerName);
+
+    String copyHint = messages.getMessageWithoutPrefix("command.click-to-copy");
+
+    TextComponent body = new TextComponent("");
+
+    int end = Math.min(hoppers.size(), current * pageSize);
+
+    for (DatabaseManager.HopperData data : hoppers.subList((current - 1) * pageSize, end)) {
+      TextComponent uuidComponent = new TextComponent(data.getId());
+      uuidComponent.setColor(net.md_5.bungee.api.ChatColor.WHITE);
+      uuidComponent.setClickEvent(new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, data.getId()));
+      uuidComponent.setHoverEvent(
+          new HoverEvent(
+              HoverEvent.Action.SHOW_TEXT,
+              new ComponentBuilder(copyHint).color(net.md_5.bungee.api.ChatColor.WHITE).create()));
+
+      String statusText;
+      if (data.isPlaced()) {
+        org.bukkit.Location location = data.getLocation();
+
+        String world = location.getWorld() != null ? location.getWorld().getName() : "?";
+
+        statusText =
+            messages.getMessageWithoutPrefix(
+                "command.list-entry-placed",
+                "world",
+                world,
+                "x",
+                location.getBlockX(),
+                "y",
+                location.getBlockY(),
+                "z",
+                location.getBlockZ());
+      } else {
+        statusText = messages.getMessageWithoutPrefix("command.list-entry-inventory");
+      }
+
+      body.addExtra(new TextComponent("\n- "));
+      body.addExtra(uuidComponent);
+      body.addExtra(new TextComponent("\n" + statusText));
+    }
+
+    TextComponent navigation = new TextComponent("");
+
+    if (current > 1) {
+      navigation.addExtra(listPageLink("command.list-previous", targetPlayerName, current - 1));
+      navigation.addExtra(" ");
+    }
+
+    navigation.addExtra(
+        new TextComponent(
+            messages.getMessageWithoutPrefix(
+                "command.list-page", "page", current, "pages", pages, "total", hoppers.size())));
+
+    if (current < pages) {
+      navigation.addExtra(" ");
+      navigation.addExtra(listPageLink("command.list-next", targetPlayerName, current + 1));
+    }
+
+    return () -> {
+      sender.sendMessage(header);
+      sender.spigot().sendMessage(body);
+      sender.spigot().sendMessage(navigation);
+    };
+  }
+
+  private TextComponent listPageLink(String key, String targetPlayerName, int page) {
+    MessageManager messages = MessageManager.getInstance();
+
+    TextComponent link = new TextComponent(messages.getMessageWithoutPrefix(key));
+    link.setClickEvent(
+        new ClickEvent(
+            ClickEvent.Action.RUN_COMMAND, "/hopper list " + targetPlayerName + " " + page));
+    link.setHoverEvent(
+        new HoverEvent(
+            HoverEvent.Action.SHOW_TEXT,
+            new ComponentBuilder(
+                    messages.getMessageWithoutPrefix("command.list-page-hover", "page", page))
+                .create()));
+
+    return link;
+  }
 }
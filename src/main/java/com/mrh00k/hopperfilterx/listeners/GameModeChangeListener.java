@@ -18,6 +18,7 @@
 package com.mrh00k.hopperfilterx.listeners;
 
 import com.mrh00k.hopperfilterx.Main;
+import com.mrh00k.hopperfilterx.managers.CreativeStashManager;
 import com.mrh00k.hopperfilterx.managers.DatabaseManager;
 import com.mrh00k.hopperfilterx.utils.HopperUtils;
 import com.mrh00k.hopperfilterx.utils.InventoryUtils;
@@ -25,22 +26,52 @@ import com.mrh00k.hopperfilterx.utils.Logger;
 import com.mrh00k.hopperfilterx.utils.ServerUtils;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerGameModeChangeEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.ItemStack;
 
 public class GameModeChangeListener implements Listener {
   private final NamespacedKey filteredHopperKey;
 
+  private final Main plugin;
+
+  private final CreativeStashManager creativeStash = CreativeStashManager.getInstance();
+
+  /** Latest restore started per player; a restore finishing after a newer one is dropped. */
+  private final Map<UUID, Object> pendingRestores = new HashMap<>();
+
   public GameModeChangeListener(Main plugin) {
+    this.plugin = plugin;
     this.filteredHopperKey = new NamespacedKey(plugin, "filtered_hopper");
+
+    // Players already online after a reload do not get a join event
+    for (Player player : Bukkit.getOnlinePlayers()) {
+      creativeStash.preload(player.getUniqueId());
+    }
+  }
+
+  @EventHandler
+  public void onPlayerJoin(PlayerJoinEvent event) {
+    creativeStash.preload(event.getPlayer().getUniqueId());
+  }
+
+  @EventHandler
+  public void onPlayerQuit(PlayerQuitEvent event) {
+    pendingRestores.remove(event.getPlayer().getUniqueId());
+
+    creativeStash.evict(event.getPlayer().getUniqueId());
   }
 
   @EventHandler
@@ -54,21 +85,21 @@ public class GameModeChangeListener implements Listener {
         || (!forceGamemode && oldMode != GameMode.CREATIVE && newMode == GameMode.CREATIVE)) {
       UUID playerId = player.getUniqueId();
       List<ItemStack> originalHoppers = new ArrayList<>();
+      List<Integer> slots = new ArrayList<>();
       for (int i = 0; i < player.getInventory().getSize(); i++) {
         ItemStack item = player.getInventory().getItem(i);
         if (HopperUtils.isFilteredHopper(item, filteredHopperKey)
             && HopperUtils.getUuidFromFilteredHopper(item, filteredHopperKey) != null) {
           originalHoppers.add(item.clone());
 
-          player.getInventory().setItem(i, null);
+          slots.add(i);
         }
       }
       if (!originalHoppers.isEmpty()) {
-        try {
-          DatabaseManager.saveCreativeHoppers(playerId, originalHoppers);
-        } catch (SQLException e) {
-          Logger.getInstance()
-              .error("Failed to save creative hoppers for " + playerId + ": " + e.getMessage());
+        creativeStash.addAll(playerId, originalHoppers);
+
+        for (int slot : slots) {
+          player.getInventory().setItem(slot, null);
         }
 
         ItemStack genericHopper = HopperUtils.createFilteredHopper(filteredHopperKey);
@@ -78,59 +109,94 @@ public class GameModeChangeListener implements Listener {
         InventoryUtils.giveItemToPlayer(player, genericHopper);
       }
     } else if (oldMode == GameMode.CREATIVE && newMode == GameMode.SURVIVAL) {
-      UUID playerId = player.getUniqueId();
+      restoreStash(player);
+    }
+  }
 
-      List<ItemStack> saved;
+  /**
+   * Gives a player leaving creative mode their stashed hoppers back. The stash is read, loading it
+   * if it is not resident, and which hoppers still exist is checked with one batched query, both
+   * off the main thread; the inventory is only changed once the result is back, and only if the
+   * player is still online and in survival.
+   */
+  private void restoreStash(Player player) {
+    UUID playerId = player.getUniqueId();
 
-      try {
-        saved = DatabaseManager.loadCreativeHoppers(playerId);
-      } catch (SQLException e) {
-        Logger.getInstance()
-            .error("Failed to load creative hoppers for " + playerId + ": " + e.getMessage());
-        saved = Collections.emptyList();
-      }
+    Object token = new Object();
 
-      if (saved != null && !saved.isEmpty()) {
-        List<ItemStack> toRestore = new ArrayList<>();
-        List<ItemStack> toDelete = new ArrayList<>();
-        for (ItemStack orig : saved) {
-          String uuid = HopperUtils.getUuidFromFilteredHopper(orig, filteredHopperKey);
-          if (uuid != null && DatabaseManager.filteredHopperExists(uuid)) {
-            toRestore.add(orig);
-          } else {
-            toDelete.add(orig);
-          }
-        }
+    pendingRestores.put(playerId, token);
 
-        for (int i = 0; i < player.getInventory().getSize(); i++) {
-          ItemStack item = player.getInventory().getItem(i);
-          if (HopperUtils.isFilteredHopper(item, filteredHopperKey)
-              && HopperUtils.getUuidFromFilteredHopper(item, filteredHopperKey) == null) {
-            player.getInventory().setItem(i, null);
-          }
-        }
+    Bukkit.getScheduler()
+        .runTaskAsynchronously(
+            plugin,
+            () -> {
+              List<ItemStack> saved;
 
-        for (ItemStack orig : toRestore) {
-          InventoryUtils.giveItemToPlayer(player, orig);
-        }
+              List<String> ids = new ArrayList<>();
 
-        if (!toDelete.isEmpty()) {
-          try {
-            List<ItemStack> newList = new ArrayList<>(toRestore);
-            DatabaseManager.saveCreativeHoppers(playerId, newList);
-          } catch (SQLException e) {
-            Logger.getInstance()
-                .error("Failed to update creative hoppers for " + playerId + ": " + e.getMessage());
-          }
-        } else {
-          try {
-            DatabaseManager.deleteCreativeHoppers(playerId);
-          } catch (SQLException e) {
-            Logger.getInstance()
-                .error("Failed to delete creative hoppers for " + playerId + ": " + e.getMessage());
-          }
-        }
+              Set<String> existing;
+
+              try {
+                saved = creativeStash.getItems(playerId);
+
+                for (ItemStack orig : saved) {
+                  ids.add(HopperUtils.getUuidFromFilteredHopper(orig, filteredHopperKey));
+                }
+
+                existing = saved.isEmpty() ? null : DatabaseManager.getExistingHopperIds(ids);
+              } catch (SQLException e) {
+                // The stash is kept and restored on the next switch to survival
+                Logger.getInstance()
+                    .error(
+                        "Failed to restore creative hoppers for "
+                            + playerId
+                            + ": "
+                            + e.getMessage());
+                saved = null;
+                existing = null;
+              }
+
+              List<ItemStack> items = saved;
+
+              Set<String> result = existing;
+
+              Bukkit.getScheduler()
+                  .runTask(
+                      plugin,
+                      () -> {
+                        // Nothing stashed, or the lookup failed
+                        if (!pendingRestores.remove(playerId, token) || result == null) {
+                          return;
+                        }
+
+                        if (!player.isOnline() || player.getGameMode() != GameMode.SURVIVAL) {
+                          return;
+                        }
+
+                        applyRestore(player, items, ids, result);
+                      });
+            });
+  }
+
+  private void applyRestore(
+      Player player, List<ItemStack> saved, List<String> ids, Set<String> existing) {
+    for (int i = 0; i < player.getInventory().getSize(); i++) {
+      ItemStack item = player.getInventory().getItem(i);
+      if (HopperUtils.isFilteredHopper(item, filteredHopperKey)
+          && HopperUtils.getUuidFromFilteredHopper(item, filteredHopperKey) == null) {
+        player.getInventory().setItem(i, null);
       }
     }
+
+    for (int i = 0; i < saved.size(); i++) {
+      String uuid = ids.get(i);
+
+      if (uuid != null && existing.contains(uuid)) {
+        InventoryUtils.giveItemToPlayer(player, saved.get(i));
+      }
+    }
+
+    // Restored hoppers are back in the inventory and missing ones are gone for good
+    creativeStash.clear(player.getUniqueId());
   }
 }
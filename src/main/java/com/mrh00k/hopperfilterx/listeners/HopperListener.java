@@ -21,14 +21,17 @@ import com.mrh00k.hopperfilterx.Main;
 import com.mrh00k.hopperfilterx.managers.ChunkHopperManager;
 import com.mrh00k.hopperfilterx.managers.DatabaseManager;
 import com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData;
+import com.mrh00k.hopperfilterx.managers.FilterCache;
 import com.mrh00k.hopperfilterx.managers.MessageManager;
+import com.mrh00k.hopperfilterx.managers.MetricsManager;
 import com.mrh00k.hopperfilterx.managers.SoundManager;
+import com.mrh00k.hopperfilterx.managers.TransferRetryQueue;
 import com.mrh00k.hopperfilterx.utils.HopperUtils;
 import com.mrh00k.hopperfilterx.utils.Logger;
 import java.security.SecureRandom;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
@@ -47,6 +50,8 @@ import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.entity.ItemDespawnEvent;
 import org.bukkit.event.inventory.InventoryMoveItemEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
@@ -58,7 +63,11 @@ public class HopperListener implements Listener {
 
   private final NamespacedKey filteredHopperKey;
 
-  private final ChunkHopperManager chunkHopperManager = new ChunkHopperManager();
+  private final ChunkHopperManager chunkHopperManager = ChunkHopperManager.getInstance();
+
+  private final FilterCache filterCache = FilterCache.getInstance();
+
+  private final TransferRetryQueue transferRetryQueue;
 
   private int operationCounter = 0;
 
@@ -66,33 +75,54 @@ public class HopperListener implements Listener {
 
   private static final SecureRandom SECURE_RANDOM = new SecureRandom();
 
+  private static final MetricsManager METRICS = MetricsManager.getInstance();
+
+  private static final MetricsManager.Timer MOVE_TIMER = METRICS.timer("hopper.move");
+
+  private static final MetricsManager.Counter MOVE_DENIED = METRICS.counter("hopper.move.denied");
+
+  private static final MetricsManager.Counter MOVE_DEFERRED =
+      METRICS.counter("hopper.move.deferred");
+
+  private static final MetricsManager.Timer FILTER_TIMER = METRICS.timer("filter.check");
+
+  private static final MetricsManager.Counter FILTER_ALLOWED = METRICS.counter("filter.allowed");
+
+  private static final MetricsManager.Counter FILTER_DENIED = METRICS.counter("filter.denied");
+
+  private static final MetricsManager.Counter MEMO_HITS = METRICS.counter("filter.memo.hit");
+
+  private static final MetricsManager.Timer CLICK_TIMER = METRICS.timer("hopper.click");
+
+  private static final MetricsManager.Timer EXPLOSION_TIMER = METRICS.timer("hopper.explosion");
+
   public HopperListener(Main plugin) {
     this.filteredHopperKey = new NamespacedKey(plugin, "filtered_hopper");
-    try {
-      List<HopperData> persisted = DatabaseManager.loadAllHopperData();
+    this.transferRetryQueue =
+        new TransferRetryQueue(
+            chunkHopperManager, plugin.getConfig().getInt("transfers.retry-budget-per-tick", 64));
+    int chunks = chunkHopperManager.loadLoadedChunks();
 
-      int loadedCount = 0;
+    logger.info("Loading filtered hoppers for " + chunks + " loaded chunks in the background");
+  }
 
-      for (HopperData data : persisted) {
-        if (data.isPlaced()) {
-          chunkHopperManager.addFilteredHopper(data);
+  @EventHandler
+  public void onChunkLoad(ChunkLoadEvent event) {
+    // Freshly generated chunks cannot contain filtered hoppers yet
+    if (event.isNewChunk()) {
+      return;
+    }
 
-          loadedCount++;
-        } else {
-          logger.debug(
-              "Skipping non-placed hopper UUID " + data.getId() + " owned by " + data.getOwner());
-        }
-      }
+    Chunk chunk = event.getChunk();
 
-      logger.info(
-          "Loaded "
-              + loadedCount
-              + " placed filtered hoppers from database ("
-              + (persisted.size() - loadedCount)
-              + " non-placed hoppers remain in database)");
-    } catch (SQLException e) {
-      logger.error("Failed to load filtered hoppers from database: " + e.getMessage());
-    }
+    chunkHopperManager.loadChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
+  }
+
+  @EventHandler
+  public void onChunkUnload(ChunkUnloadEvent event) {
+    Chunk chunk = event.getChunk();
+
+    chunkHopperManager.unloadChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
   }
 
   @EventHandler
@@ -137,12 +167,9 @@ public class HopperListener implements Listener {
           // Try to fetch the original owner from the database
           String dbOwner = null;
           try {
-            List<DatabaseManager.HopperData> all = DatabaseManager.loadAllHopperData();
-            for (DatabaseManager.HopperData d : all) {
-              if (existingUuid.equals(d.getId())) {
-                dbOwner = d.getOwner();
-                break;
-              }
+            DatabaseManager.HopperData stored = DatabaseManager.getHopperById(existingUuid);
+            if (stored != null) {
+              dbOwner = stored.getOwner();
             }
           } catch (Exception ex) {
             logger.error(
@@ -180,28 +207,15 @@ public class HopperListener implements Listener {
                     + " at "
                     + loc);
 
-            JavaPlugin.getPlugin(Main.class)
-                .getServer()
-                .getScheduler()
-                .runTaskAsynchronously(
-                    JavaPlugin.getPlugin(Main.class),
-                    () -> {
-                      String newId = DatabaseManager.insertFilteredHopper(loc, owner[0]);
-
-                      if (newId != null) {
-                        HopperData data = new HopperData(newId, loc, owner[0], true);
-
-                        JavaPlugin.getPlugin(Main.class)
-                            .getServer()
-                            .getScheduler()
-                            .runTask(
-                                JavaPlugin.getPlugin(Main.class),
-                                () -> {
-                                  chunkHopperManager.addFilteredHopper(data);
-                                  triggerOptimizationIfNeeded();
-                                });
-                      }
-                    });
+            String newId = DatabaseManager.insertFilteredHopper(loc, owner[0]);
+
+            if (newId != null) {
+              filterCache.update(newId, java.util.Collections.emptyList());
+
+              chunkHopperManager.addFilteredHopper(new HopperData(newId, loc, owner[0], true));
+
+              triggerOptimizationIfNeeded();
+            }
 
             event.getPlayer().sendMessage(MessageManager.getInstance().getMessage("hopper.placed"));
           } else {
@@ -213,29 +227,19 @@ public class HopperListener implements Listener {
                     + " at "
                     + loc);
 
-            JavaPlugin.getPlugin(Main.class)
-                .getServer()
-                .getScheduler()
-                .runTaskAsynchronously(
-                    JavaPlugin.getPlugin(Main.class),
-                    () -> {
-                      DatabaseManager.markHopperAsPlaced(existingUuid, loc);
+            DatabaseManager.markHopperAsPlaced(existingUuid, loc);
 
-                      JavaPlugin.getPlugin(Main.class)
-                          .getServer()
-                          .getScheduler()
-                          .runTask(
-                              JavaPlugin.getPlugin(Main.class),
-                              () -> {
-                                chunkHopperManager.removeFilteredHopper(loc);
+            // A hopper broken in survival keeps its compiled filter; otherwise compile it now,
+            // before it is indexed, so item moves never find it missing
+            if (!filterCache.contains(existingUuid)) {
+              filterCache.load(existingUuid);
+            }
 
-                                HopperData data = new HopperData(existingUuid, loc, owner[0], true);
+            chunkHopperManager.removeFilteredHopper(loc);
 
-                                chunkHopperManager.addFilteredHopper(data);
+            chunkHopperManager.addFilteredHopper(new HopperData(existingUuid, loc, owner[0], true));
 
-                                triggerOptimizationIfNeeded();
-                              });
-                    });
+            triggerOptimizationIfNeeded();
 
             event
                 .getPlayer()
@@ -244,29 +248,15 @@ public class HopperListener implements Listener {
         } else {
           logger.info("Placing new filtered hopper by " + owner[0] + " at " + loc);
 
-          JavaPlugin.getPlugin(Main.class)
-              .getServer()
-              .getScheduler()
-              .runTaskAsynchronously(
-                  JavaPlugin.getPlugin(Main.class),
-                  () -> {
-                    String id = DatabaseManager.insertFilteredHopper(loc, owner[0]);
-
-                    if (id != null) {
-                      HopperData data = new HopperData(id, loc, owner[0], true);
-
-                      JavaPlugin.getPlugin(Main.class)
-                          .getServer()
-                          .getScheduler()
-                          .runTask(
-                              JavaPlugin.getPlugin(Main.class),
-                              () -> {
-                                chunkHopperManager.addFilteredHopper(data);
-
-                                triggerOptimizationIfNeeded();
-                              });
-                    }
-                  });
+          String id = DatabaseManager.insertFilteredHopper(loc, owner[0]);
+
+          if (id != null) {
+            filterCache.update(id, java.util.Collections.emptyList());
+
+            chunkHopperManager.addFilteredHopper(new HopperData(id, loc, owner[0], true));
+
+            triggerOptimizationIfNeeded();
+          }
 
           event.getPlayer().sendMessage(MessageManager.getInstance().getMessage("hopper.placed"));
         }
@@ -319,15 +309,13 @@ public class HopperListener implements Listener {
         return;
       }
 
-      Location location = block.getLocation();
+      HopperData data = chunkHopperManager.getHopperData(block);
 
-      if (chunkHopperManager.hasFilteredHopper(location)) {
-        HopperData data = chunkHopperManager.getHopperData(location);
+      if (data != null) {
+        Location location = block.getLocation();
 
-        if (data == null
-            || !(event.getPlayer().getName().equals(data.getOwner())
-                || hasHopperPermission(
-                    data.getOwner(), event.getPlayer().getName(), data.getId()))) {
+        if (!(event.getPlayer().getName().equals(data.getOwner())
+            || hasHopperPermission(data.getOwner(), event.getPlayer().getName(), data.getId()))) {
           event.setCancelled(true);
           SoundManager.playErrorSound(event.getPlayer());
           event
@@ -364,24 +352,18 @@ public class HopperListener implements Listener {
         if (HopperUtils.isPlayerInSurvival(player)) {
           logger.info("Survival mode break detected - preserving hopper data for UUID " + hopperId);
 
-          JavaPlugin.getPlugin(Main.class)
-              .getServer()
-              .getScheduler()
-              .runTaskAsynchronously(
-                  JavaPlugin.getPlugin(Main.class),
-                  () -> DatabaseManager.markHopperAsNotPlaced(hopperId));
+          DatabaseManager.markHopperAsNotPlaced(hopperId);
 
           ItemStack filteredHopper = HopperUtils.createFilteredHopper(filteredHopperKey);
           filteredHopper =
               HopperUtils.addUuidToFilteredHopper(
-                  filteredHopper, hopperId, player.getName(), filteredHopperKey);
+                  filteredHopper, hopperId, data.getOwner(), filteredHopperKey);
 
           org.bukkit.World world = location.getWorld();
           if (world != null) {
             world.dropItemNaturally(location, filteredHopper);
 
-            logger.debug(
-                "Dropped filtered hopper with UUID " + hopperId + " for survival mode break");
+            logger.debug("Dropped filtered hopper with UUID {} for survival mode break", hopperId);
           }
 
           data.setPlaced(false);
@@ -397,12 +379,7 @@ public class HopperListener implements Listener {
 
           chunkHopperManager.removeFilteredHopper(location);
 
-          JavaPlugin.getPlugin(Main.class)
-              .getServer()
-              .getScheduler()
-              .runTaskAsynchronously(
-                  JavaPlugin.getPlugin(Main.class),
-                  () -> DatabaseManager.deleteFilteredHopper(hopperId));
+          DatabaseManager.deleteFilteredHopper(hopperId);
 
           logger.debug("No hopper drop for creative mode break - removed from database");
 
@@ -417,16 +394,11 @@ public class HopperListener implements Listener {
                   + ") - treating as survival mode for UUID "
                   + hopperId);
 
-          JavaPlugin.getPlugin(Main.class)
-              .getServer()
-              .getScheduler()
-              .runTaskAsynchronously(
-                  JavaPlugin.getPlugin(Main.class),
-                  () -> DatabaseManager.markHopperAsNotPlaced(hopperId));
+          DatabaseManager.markHopperAsNotPlaced(hopperId);
           ItemStack filteredHopper = HopperUtils.createFilteredHopper(filteredHopperKey);
           filteredHopper =
               HopperUtils.addUuidToFilteredHopper(
-                  filteredHopper, hopperId, player.getName(), filteredHopperKey);
+                  filteredHopper, hopperId, data.getOwner(), filteredHopperKey);
 
           org.bukkit.World world = location.getWorld();
           if (world != null) {
@@ -516,13 +488,9 @@ public class HopperListener implements Listener {
         }
       }
 
-      if (chunkHopperManager.hasFilteredHopper(block.getLocation())) {
+      HopperData data = chunkHopperManager.getHopperData(block);
+      if (data != null) {
         Player player = event.getPlayer();
-        HopperData data = chunkHopperManager.getHopperData(block.getLocation());
-        if (data == null) {
-          // No data, no acción
-          return;
-        }
         if (!(player.isOp()
             || player.getName().equals(data.getOwner())
             || hasHopperPermission(data.getOwner(), player.getName(), data.getId()))) {
@@ -557,11 +525,12 @@ public class HopperListener implements Listener {
             "filtered_hopper_uuid",
             new org.bukkit.metadata.FixedMetadataValue(
                 JavaPlugin.getPlugin(com.mrh00k.hopperfilterx.Main.class), data.getId()));
-        logger.debug(
-            "Filtered hopper GUI opened for player '"
-                + player.getName()
-                + "' at "
-                + block.getLocation());
+        if (logger.isDebugEnabled()) {
+          logger.debug(
+              "Filtered hopper GUI opened for player '{}' at {}",
+              player.getName(),
+              block.getLocation());
+        }
         logger.info(
             "Configuration GUI opened for filtered hopper id="
                 + data.getId()
@@ -598,98 +567,121 @@ public class HopperListener implements Listener {
 
   @EventHandler
   public void onInventoryMoveItem(InventoryMoveItemEvent event) {
+    long start = MOVE_TIMER.start();
+
     try {
       InventoryHolder sourceHolder = event.getSource().getHolder();
       if (sourceHolder instanceof org.bukkit.block.Hopper) {
         org.bukkit.block.Hopper hopper = (org.bukkit.block.Hopper) sourceHolder;
-        Location loc = hopper.getLocation();
-        if (chunkHopperManager.hasFilteredHopper(loc)) {
-          if (!isItemAllowedByFilter(loc, event.getItem())) {
-            event.setCancelled(true);
+        HopperData data =
+            chunkHopperManager.getHopperData(
+                hopper.getWorld(), hopper.getX(), hopper.getY(), hopper.getZ());
+        if (deferWhileLoading(event, data, hopper)) {
+          return;
+        }
+        if (data != null && !isItemAllowedByFilter(data, event.getItem(), event.getSource())) {
+          event.setCancelled(true);
+          MOVE_DENIED.increment();
+          if (logger.isDebugEnabled()) {
             logger.debug(
-                "Filtered hopper at "
-                    + loc
-                    + " blocked item from source: "
-                    + event.getItem().getType());
-            return;
+                "Filtered hopper at {} blocked item from source: {}",
+                hopper.getLocation(),
+                event.getItem().getType());
           }
+          return;
         }
       }
 
       InventoryHolder destHolder = event.getDestination().getHolder();
       if (destHolder instanceof org.bukkit.block.Hopper) {
         org.bukkit.block.Hopper hopper = (org.bukkit.block.Hopper) destHolder;
-        Location loc = hopper.getLocation();
-        if (chunkHopperManager.hasFilteredHopper(loc)) {
-          if (!isItemAllowedByFilter(loc, event.getItem())) {
-            event.setCancelled(true);
+        HopperData data =
+            chunkHopperManager.getHopperData(
+                hopper.getWorld(), hopper.getX(), hopper.getY(), hopper.getZ());
+        if (deferWhileLoading(event, data, hopper)) {
+          return;
+        }
+        if (data != null && !isItemAllowedByFilter(data, event.getItem(), event.getSource())) {
+          event.setCancelled(true);
+          MOVE_DENIED.increment();
+          if (logger.isDebugEnabled()) {
             logger.debug(
-                "Filtered hopper at "
-                    + loc
-                    + " blocked item from destination: "
-                    + event.getItem().getType());
-            // Cache sourceInv and destInv to avoid possible null dereference in async task
-            final org.bukkit.inventory.Inventory sourceInv = event.getSource();
-            final org.bukkit.inventory.Inventory destInv = event.getDestination();
-            if (sourceInv == null || destInv == null) {
-              return;
-            }
-            new BukkitRunnable() {
-              @Override
-              public void run() {
-                if (loc == null || !chunkHopperManager.hasFilteredHopper(loc)) {
-                  return;
-                }
-                org.bukkit.inventory.Inventory src = sourceInv;
-                org.bukkit.inventory.Inventory dst = destInv;
-                if (src == null || dst == null) {
-                  return;
-                }
-                org.bukkit.inventory.ItemStack[] contents = src.getContents();
-                if (contents != null) {
-                  for (org.bukkit.inventory.ItemStack s : contents) {
-                    if (s != null && s.getType() != Material.AIR && isItemAllowedByFilter(loc, s)) {
-                      org.bukkit.inventory.ItemStack toMove = s.clone();
-                      toMove.setAmount(1);
-                      src.removeItem(toMove);
-                      dst.addItem(toMove);
-                      break;
-                    }
-                  }
-                }
-              }
-            }.runTaskLater(JavaPlugin.getPlugin(Main.class), 1L);
-            return;
+                "Filtered hopper at {} blocked item from destination: {}",
+                hopper.getLocation(),
+                event.getItem().getType());
           }
+          transferRetryQueue.enqueue(
+              event.getSource(),
+              event.getDestination(),
+              hopper.getWorld(),
+              hopper.getX(),
+              hopper.getY(),
+              hopper.getZ());
+          return;
         }
       }
     } catch (Exception e) {
       logger.error("Error in filtered hopper item move filter: " + e.getMessage());
+    } finally {
+      MOVE_TIMER.stop(start);
     }
   }
 
-  private boolean isItemAllowedByFilter(Location loc, ItemStack moving) {
-    DatabaseManager.HopperData data = chunkHopperManager.getHopperData(loc);
+  /**
+   * Holds back a move through a hopper whose chunk is still being fetched, since it may be a
+   * filtered hopper that is not indexed yet. Vanilla retries the move once the hopper cools down.
+   */
+  private boolean deferWhileLoading(
+      InventoryMoveItemEvent event, HopperData data, org.bukkit.block.Hopper hopper) {
+    if (data != null
+        || !chunkHopperManager.isChunkLoading(hopper.getWorld(), hopper.getX(), hopper.getZ())) {
+      return false;
+    }
+    event.setCancelled(true);
+    MOVE_DEFERRED.increment();
+    return true;
+  }
+
+  private boolean isItemAllowedByFilter(HopperData data, ItemStack moving) {
     if (data == null) return true;
     String uuid = data.getId();
     if (uuid == null) return true;
-    java.util.List<ItemStack> filterItems;
-    try {
-      filterItems = DatabaseManager.loadFilteredHopperItems(uuid);
-    } catch (Exception e) {
-      logger.error("Failed to load filter items for hopper UUID " + uuid + ": " + e.getMessage());
-      return true;
-    }
-    if (filterItems == null || filterItems.isEmpty()) {
-      return true;
-    }
-    for (ItemStack filter : filterItems) {
-      if (filter == null || filter.getType() == Material.AIR) continue;
-      if (filter.isSimilar(moving)) {
-        return true;
+    long start = FILTER_TIMER.start();
+    FilterCache.CompiledFilter filter = filterCache.get(uuid);
+    // Not compiled yet: deny until it is, see FilterCache#get
+    boolean allowed = filter != null && filter.allows(moving);
+    (allowed ? FILTER_ALLOWED : FILTER_DENIED).increment();
+    FILTER_TIMER.stop(start);
+    return allowed;
+  }
+
+  /**
+   * Variant for hopper moves. Vanilla keeps retrying a rejected head item, so the last rejection is
+   * memoized on the hopper and identical retries are answered without evaluating the filter.
+   */
+  private boolean isItemAllowedByFilter(
+      HopperData data, ItemStack moving, org.bukkit.inventory.Inventory source) {
+    if (data == null) return true;
+    String uuid = data.getId();
+    if (uuid == null) return true;
+    long start = FILTER_TIMER.start();
+    FilterCache.CompiledFilter filter = filterCache.get(uuid);
+    boolean allowed;
+    FilterCache.RejectionMemo memo = filter == null ? null : data.getLastRejection();
+    if (filter == null) {
+      allowed = false;
+    } else if (memo != null && memo.matches(filter, source, moving)) {
+      MEMO_HITS.increment();
+      allowed = false;
+    } else {
+      allowed = filter.allows(moving);
+      if (!allowed) {
+        data.setLastRejection(FilterCache.RejectionMemo.of(filter, source, moving));
       }
     }
-    return false;
+    (allowed ? FILTER_ALLOWED : FILTER_DENIED).increment();
+    FILTER_TIMER.stop(start);
+    return allowed;
   }
 
   private void triggerOptimizationIfNeeded() {
@@ -706,140 +698,116 @@ public class HopperListener implements Listener {
 
   @EventHandler
   void onBlockExplode(BlockExplodeEvent event) {
-    for (Block block : new ArrayList<>(event.blockList())) {
-      if (block.getType() == Material.HOPPER
-          && chunkHopperManager.hasFilteredHopper(block.getLocation())) {
-        DatabaseManager.HopperData data = chunkHopperManager.getHopperData(block.getLocation());
+    long start = EXPLOSION_TIMER.start();
 
-        if (data != null) {
-          event.blockList().remove(block);
+    try {
+      handleExplosion(event.blockList(), 0.25, "explosion");
+    } finally {
+      EXPLOSION_TIMER.stop(start);
+    }
+  }
 
-          double dropChance = 0.25;
+  @EventHandler
+  void onEntityExplode(EntityExplodeEvent event) {
+    long start = EXPLOSION_TIMER.start();
 
-          boolean isDestroyed = false;
+    try {
+      handleExplosion(
+          event.blockList(), getExplosionDropChance(event.getEntity()), "entity explosion");
+    } finally {
+      EXPLOSION_TIMER.stop(start);
+    }
+  }
 
-          if (SECURE_RANDOM.nextDouble() < dropChance) {
-            ItemStack filteredHopper = HopperUtils.createFilteredHopper(filteredHopperKey);
+  private static double getExplosionDropChance(org.bukkit.entity.Entity entity) {
+    if (entity instanceof org.bukkit.entity.Creeper) {
+      return 0.15; // 15% for Creepers
+    } else if (entity instanceof org.bukkit.entity.Fireball) {
+      return 0.20; // 20% for Fireballs (Ghast, Blaze)
+    } else if (entity instanceof org.bukkit.entity.TNTPrimed) {
+      return 0.30; // 30% for TNT
+    } else if (entity instanceof org.bukkit.entity.EnderDragon) {
+      return 0.10; // 10% for Ender Dragon
+    } else if (entity instanceof org.bukkit.entity.Wither) {
+      return 0.05; // 5% for Wither
+    } else if (entity instanceof org.bukkit.entity.Minecart) {
+      return 0.18; // 18% for Exploding Minecarts
+    } else if (entity instanceof org.bukkit.entity.LightningStrike) {
+      return 0.12; // 12% for Lightning (rare, but possible)
+    }
 
-            filteredHopper =
-                HopperUtils.addUuidToFilteredHopper(
-                    filteredHopper, data.getId(), data.getOwner(), filteredHopperKey);
+    return 0.25;
+  }
 
-            if (block.getWorld() != null) {
-              block.getWorld().dropItemNaturally(block.getLocation(), filteredHopper);
-            }
+  /**
+   * Takes every filtered hopper out of an explosion's block list in a single pass, then drops or
+   * destroys each of them and queues all resulting database writes as one batch.
+   */
+  private void handleExplosion(List<Block> blocks, double dropChance, String cause) {
+    List<Block> hopperBlocks = new ArrayList<>();
 
-            logger.info(
-                "Filtered hopper at "
-                    + block.getLocation()
-                    + " dropped with metadata after explosion (lucky!)");
-          } else {
-            isDestroyed = true;
-            logger.info(
-                "Filtered hopper at "
-                    + block.getLocation()
-                    + " was destroyed by explosion (no drop)");
+    List<DatabaseManager.HopperData> hoppers = new ArrayList<>();
+
+    blocks.removeIf(
+        block -> {
+          DatabaseManager.HopperData data = chunkHopperManager.getHopperData(block);
+
+          if (data == null || block.getType() != Material.HOPPER) {
+            return false;
           }
 
-          block.setType(Material.AIR);
+          hopperBlocks.add(block);
+          hoppers.add(data);
 
-          chunkHopperManager.removeFilteredHopper(block.getLocation());
+          return true;
+        });
 
-          if (!isDestroyed) {
-            JavaPlugin.getPlugin(Main.class)
-                .getServer()
-                .getScheduler()
-                .runTaskAsynchronously(
-                    JavaPlugin.getPlugin(Main.class),
-                    () -> DatabaseManager.markHopperAsNotPlaced(data.getId()));
-          } else {
-            JavaPlugin.getPlugin(Main.class)
-                .getServer()
-                .getScheduler()
-                .runTaskAsynchronously(
-                    JavaPlugin.getPlugin(Main.class),
-                    () -> DatabaseManager.deleteFilteredHopper(data.getId()));
-          }
-        }
-      }
+    if (hoppers.isEmpty()) {
+      return;
     }
-  }
 
-  @EventHandler
-  void onEntityExplode(EntityExplodeEvent event) {
-    for (Block block : new ArrayList<>(event.blockList())) {
-      if (block.getType() == Material.HOPPER
-          && chunkHopperManager.hasFilteredHopper(block.getLocation())) {
-        DatabaseManager.HopperData data = chunkHopperManager.getHopperData(block.getLocation());
-
-        if (data != null) {
-          event.blockList().remove(block);
-
-          double dropChance = 0.25;
-
-          boolean isDestroyed = false;
-
-          if (event.getEntity() instanceof org.bukkit.entity.Creeper) {
-            dropChance = 0.15; // 15% for Creepers
-          } else if (event.getEntity() instanceof org.bukkit.entity.Fireball) {
-            dropChance = 0.20; // 20% for Fireballs (Ghast, Blaze)
-          } else if (event.getEntity() instanceof org.bukkit.entity.TNTPrimed) {
-            dropChance = 0.30; // 30% for TNT
-          } else if (event.getEntity() instanceof org.bukkit.entity.EnderDragon) {
-            dropChance = 0.10; // 10% for Ender Dragon
-          } else if (event.getEntity() instanceof org.bukkit.entity.Wither) {
-            dropChance = 0.05; // 5% for Wither
-          } else if (event.getEntity() instanceof org.bukkit.entity.Minecart) {
-            dropChance = 0.18; // 18% for Exploding Minecarts
-          } else if (event.getEntity() instanceof org.bukkit.entity.LightningStrike) {
-            dropChance = 0.12; // 12% for Lightning (rare, but possible)
-          }
+    List<String> dropped = new ArrayList<>();
 
-          if (SECURE_RANDOM.nextDouble() < dropChance) {
-            ItemStack filteredHopper = HopperUtils.createFilteredHopper(filteredHopperKey);
+    List<String> destroyed = new ArrayList<>();
 
-            filteredHopper =
-                HopperUtils.addUuidToFilteredHopper(
-                    filteredHopper, data.getId(), data.getOwner(), filteredHopperKey);
+    for (int i = 0; i < hoppers.size(); i++) {
+      Block block = hopperBlocks.get(i);
 
-            if (block.getWorld() != null) {
-              block.getWorld().dropItemNaturally(block.getLocation(), filteredHopper);
-            }
+      DatabaseManager.HopperData data = hoppers.get(i);
 
-            logger.info(
-                "Filtered hopper at "
-                    + block.getLocation()
-                    + " dropped with metadata after entity explosion (lucky!)");
-          } else {
-            isDestroyed = true;
-            logger.info(
-                "Filtered hopper at "
-                    + block.getLocation()
-                    + " was destroyed by entity explosion (no drop)");
-          }
+      Location location = block.getLocation();
 
-          block.setType(Material.AIR);
+      if (SECURE_RANDOM.nextDouble() < dropChance) {
+        ItemStack filteredHopper = HopperUtils.createFilteredHopper(filteredHopperKey);
 
-          chunkHopperManager.removeFilteredHopper(block.getLocation());
+        filteredHopper =
+            HopperUtils.addUuidToFilteredHopper(
+                filteredHopper, data.getId(), data.getOwner(), filteredHopperKey);
 
-          if (!isDestroyed) {
-            JavaPlugin.getPlugin(Main.class)
-                .getServer()
-                .getScheduler()
-                .runTaskAsynchronously(
-                    JavaPlugin.getPlugin(Main.class),
-                    () -> DatabaseManager.markHopperAsNotPlaced(data.getId()));
-          } else {
-            JavaPlugin.getPlugin(Main.class)
-                .getServer()
-                .getScheduler()
-                .runTaskAsynchronously(
-                    JavaPlugin.getPlugin(Main.class),
-                    () -> DatabaseManager.deleteFilteredHopper(data.getId()));
-          }
+        if (block.getWorld() != null) {
+          block.getWorld().dropItemNaturally(location, filteredHopper);
         }
+
+        logger.info(
+            "Filtered hopper at "
+                + location
+                + " dropped with metadata after "
+                + cause
+                + " (lucky!)");
+
+        dropped.add(data.getId());
+      } else {
+        logger.info("Filtered hopper at " + location + " was destroyed by " + cause + " (no drop)");
+
+        destroyed.add(data.getId());
       }
+
+      block.setType(Material.AIR);
+
+      chunkHopperManager.removeFilteredHopper(location);
     }
+
+    DatabaseManager.removeExplodedHoppers(dropped, destroyed);
   }
 
   @EventHandler
@@ -860,12 +828,7 @@ public class HopperListener implements Listener {
       @Override
       public void run() {
         if (itemEntity.isDead() || !itemEntity.isValid()) {
-          JavaPlugin.getPlugin(Main.class)
-              .getServer()
-              .getScheduler()
-              .runTaskAsynchronously(
-                  JavaPlugin.getPlugin(Main.class),
-                  () -> DatabaseManager.deleteFilteredHopper(uuid));
+          DatabaseManager.deleteFilteredHopper(uuid);
 
           logger.info(
               "Filtered hopper item destroyed by damage ("
@@ -896,12 +859,7 @@ public class HopperListener implements Listener {
       @Override
       public void run() {
         if (itemEntity.isDead() || !itemEntity.isValid()) {
-          JavaPlugin.getPlugin(Main.class)
-              .getServer()
-              .getScheduler()
-              .runTaskAsynchronously(
-                  JavaPlugin.getPlugin(Main.class),
-                  () -> DatabaseManager.deleteFilteredHopper(uuid));
+          DatabaseManager.deleteFilteredHopper(uuid);
 
           logger.info(
               "Filtered hopper item destroyed by combustion, removed UUID "
@@ -924,11 +882,7 @@ public class HopperListener implements Listener {
 
     if (uuid == null) return;
 
-    JavaPlugin.getPlugin(Main.class)
-        .getServer()
-        .getScheduler()
-        .runTaskAsynchronously(
-            JavaPlugin.getPlugin(Main.class), () -> DatabaseManager.deleteFilteredHopper(uuid));
+    DatabaseManager.deleteFilteredHopper(uuid);
 
     logger.info(
         "Filtered hopper item destroyed by despawn, removed UUID " + uuid + " from database");
@@ -936,14 +890,18 @@ public class HopperListener implements Listener {
 
   @EventHandler
   public void onInventoryClickFilteredHopper(org.bukkit.event.inventory.InventoryClickEvent event) {
+    long start = CLICK_TIMER.start();
+
     try {
       org.bukkit.inventory.InventoryView view = event.getView();
       org.bukkit.inventory.Inventory topInv = view.getTopInventory();
       org.bukkit.inventory.InventoryHolder topHolder = topInv.getHolder();
       if (!(topHolder instanceof org.bukkit.block.Hopper)) return;
       org.bukkit.block.Hopper hopperBlock = (org.bukkit.block.Hopper) topHolder;
-      org.bukkit.Location loc = hopperBlock.getLocation();
-      if (!chunkHopperManager.hasFilteredHopper(loc)) return;
+      HopperData data =
+          chunkHopperManager.getHopperData(
+              hopperBlock.getWorld(), hopperBlock.getX(), hopperBlock.getY(), hopperBlock.getZ());
+      if (data == null) return;
       org.bukkit.inventory.ItemStack moving = null;
       if (event.isShiftClick()) {
         moving = event.getCurrentItem();
@@ -958,7 +916,7 @@ public class HopperListener implements Listener {
       }
       if (moving != null
           && moving.getType() != org.bukkit.Material.AIR
-          && !isItemAllowedByFilter(loc, moving)) {
+          && !isItemAllowedByFilter(data, moving)) {
         event.setCancelled(true);
         if (event.getWhoClicked() instanceof org.bukkit.entity.Player) {
           org.bukkit.entity.Player player = (org.bukkit.entity.Player) event.getWhoClicked();
@@ -968,6 +926,8 @@ public class HopperListener implements Listener {
       }
     } catch (Exception e) {
       logger.error("Error handling hopper inventory click filter: " + e.getMessage());
+    } finally {
+      CLICK_TIMER.stop(start);
     }
   }
 
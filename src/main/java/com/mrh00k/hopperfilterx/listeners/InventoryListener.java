@@ -18,14 +18,10 @@
 package com.mrh00k.hopperfilterx.listeners;
 
 import com.mrh00k.hopperfilterx.Main;
-import com.mrh00k.hopperfilterx.managers.DatabaseManager;
+import com.mrh00k.hopperfilterx.managers.CreativeStashManager;
+import com.mrh00k.hopperfilterx.managers.FilterCache;
 import com.mrh00k.hopperfilterx.utils.HopperUtils;
 import com.mrh00k.hopperfilterx.utils.Logger;
-import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
-import org.bukkit.ChatColor;
 import org.bukkit.NamespacedKey;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
@@ -35,7 +31,6 @@ import org.bukkit.event.entity.EntityPickupItemEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 
 public class InventoryListener implements Listener {
   private final Logger logger = Logger.getInstance();
@@ -56,10 +51,7 @@ public class InventoryListener implements Listener {
 
         if (uuid != null) {
           logger.debug(
-              "Player "
-                  + event.getPlayer().getName()
-                  + " dropped filtered hopper with UUID "
-                  + uuid);
+              "Player {} dropped filtered hopper with UUID {}", event.getPlayer().getName(), uuid);
         }
       }
     } catch (Exception e) {
@@ -72,8 +64,11 @@ public class InventoryListener implements Listener {
     try {
       ItemStack currentItem = event.getCurrentItem();
 
-      if (currentItem != null && HopperUtils.isFilteredHopper(currentItem, filteredHopperKey)) {
-        String uuid = HopperUtils.getUuidFromFilteredHopper(currentItem, filteredHopperKey);
+      HopperUtils.FilteredHopperInfo info =
+          HopperUtils.getFilteredHopperInfo(currentItem, filteredHopperKey);
+
+      if (info != null) {
+        String uuid = info.getHopperId();
 
         if (uuid != null) {
           HumanEntity human = event.getWhoClicked();
@@ -81,25 +76,15 @@ public class InventoryListener implements Listener {
           if (human instanceof Player) {
             Player player = (Player) human;
 
-            ItemMeta meta = currentItem.getItemMeta();
-            String owner = null;
-            if (meta != null && meta.getLore() != null) {
-              List<String> lore = meta.getLore();
-
-              if (lore != null) {
-                for (String line : lore) {
-                  if (line != null) {
-                    String plain = ChatColor.stripColor(line);
-                    if (plain != null && plain.startsWith("Owner: ")) {
-                      owner = plain.substring("Owner: ".length()).trim();
-                      break;
-                    }
-                  }
-                }
-              }
+            String owner = info.getOwnerName();
+
+            if (HopperUtils.migrateOwner(currentItem, info, player, filteredHopperKey)) {
+              event.setCurrentItem(currentItem);
+
+              logger.debug("Migrated owner of filtered hopper UUID {} to item data", uuid);
             }
 
-            if (owner != null && !owner.equals(player.getName())) {
+            if (owner != null && !info.isOwnedBy(player)) {
               boolean hasPerm = false;
               try {
                 hasPerm =
@@ -115,37 +100,18 @@ public class InventoryListener implements Listener {
                     com.mrh00k.hopperfilterx.managers.MessageManager.getInstance()
                         .getMessage("hopper.not-owner"));
                 logger.debug(
-                    "Player "
-                        + player.getName()
-                        + " tried to take filtered hopper UUID "
-                        + uuid
-                        + " owned by "
-                        + owner
-                        + " - denied");
+                    "Player {} tried to take filtered hopper UUID {} owned by {} - denied",
+                    player.getName(),
+                    uuid,
+                    owner);
                 return;
               }
             }
 
-            if (owner != null
-                && owner.equals(player.getName())
-                && HopperUtils.isPlayerInCreative(player)) {
+            if (owner != null && info.isOwnedBy(player) && HopperUtils.isPlayerInCreative(player)) {
               event.setCancelled(true);
-              try {
-                UUID playerId = player.getUniqueId();
-                List<ItemStack> creativeHoppers = DatabaseManager.loadCreativeHoppers(playerId);
-                if (creativeHoppers == null) creativeHoppers = new ArrayList<>();
-                creativeHoppers = new ArrayList<>(creativeHoppers);
-                creativeHoppers.add(currentItem.clone());
-                DatabaseManager.saveCreativeHoppers(playerId, creativeHoppers);
-                logger.debug(
-                    "Saved creative hopper UUID " + uuid + " for player " + player.getName());
-              } catch (SQLException e) {
-                logger.error(
-                    "Failed to save creative hopper for player "
-                        + player.getName()
-                        + ": "
-                        + e.getMessage());
-              }
+              CreativeStashManager.getInstance().add(player.getUniqueId(), currentItem);
+              logger.debug("Saved creative hopper UUID {} for player {}", uuid, player.getName());
               ItemStack defaultHopper = HopperUtils.createFilteredHopper(filteredHopperKey);
               player.getInventory().addItem(defaultHopper);
 
@@ -158,10 +124,9 @@ public class InventoryListener implements Listener {
           }
 
           logger.debug(
-              "Inventory interaction with filtered hopper UUID "
-                  + uuid
-                  + " by player "
-                  + event.getWhoClicked().getName());
+              "Inventory interaction with filtered hopper UUID {} by player {}",
+              uuid,
+              event.getWhoClicked().getName());
         }
       }
     } catch (Exception e) {
@@ -177,31 +142,24 @@ public class InventoryListener implements Listener {
 
     ItemStack stack = event.getItem().getItemStack();
 
-    if (!HopperUtils.isFilteredHopper(stack, filteredHopperKey)) return;
+    HopperUtils.FilteredHopperInfo info =
+        HopperUtils.getFilteredHopperInfo(stack, filteredHopperKey);
 
-    String uuid = HopperUtils.getUuidFromFilteredHopper(stack, filteredHopperKey);
+    if (info == null) return;
 
-    if (uuid == null) return;
+    String uuid = info.getHopperId();
 
-    String owner = null;
-
-    ItemMeta meta = stack.getItemMeta();
+    if (uuid == null) return;
 
-    if (meta != null && meta.getLore() != null) {
-      for (String line : meta.getLore()) {
-        if (line != null) {
-          String plain = ChatColor.stripColor(line);
+    String owner = info.getOwnerName();
 
-          if (plain != null && plain.startsWith("Owner: ")) {
-            owner = plain.substring("Owner: ".length()).trim();
+    if (HopperUtils.migrateOwner(stack, info, player, filteredHopperKey)) {
+      event.getItem().setItemStack(stack);
 
-            break;
-          }
-        }
-      }
+      logger.debug("Migrated owner of filtered hopper UUID {} to item data", uuid);
     }
 
-    if (owner != null && !owner.equals(player.getName())) {
+    if (owner != null && !info.isOwnedBy(player)) {
       boolean hasPerm = false;
       try {
         hasPerm =
@@ -214,39 +172,21 @@ public class InventoryListener implements Listener {
         event.setCancelled(true);
 
         logger.debug(
-            "Player "
-                + player.getName()
-                + " tried to pick up filtered hopper UUID "
-                + uuid
-                + " owned by "
-                + owner
-                + " - denied");
+            "Player {} tried to pick up filtered hopper UUID {} owned by {} - denied",
+            player.getName(),
+            uuid,
+            owner);
 
         return;
       }
     }
 
-    if (owner != null && owner.equals(player.getName()) && HopperUtils.isPlayerInCreative(player)) {
+    if (owner != null && info.isOwnedBy(player) && HopperUtils.isPlayerInCreative(player)) {
       event.setCancelled(true);
 
-      try {
-        UUID playerId = player.getUniqueId();
-
-        List<ItemStack> creativeHoppers =
-            new ArrayList<>(DatabaseManager.loadCreativeHoppers(playerId));
+      CreativeStashManager.getInstance().add(player.getUniqueId(), stack);
 
-        creativeHoppers.add(stack.clone());
-
-        DatabaseManager.saveCreativeHoppers(playerId, creativeHoppers);
-
-        logger.debug("Saved creative hopper UUID " + uuid + " for player " + player.getName());
-      } catch (SQLException e) {
-        logger.error(
-            "Failed to save creative hopper for player "
-                + player.getName()
-                + ": "
-                + e.getMessage());
-      }
+      logger.debug("Saved creative hopper UUID {} for player {}", uuid, player.getName());
 
       ItemStack defaultHopper = HopperUtils.createFilteredHopper(filteredHopperKey);
 
@@ -264,7 +204,7 @@ public class InventoryListener implements Listener {
       Player player = (Player) event.getPlayer();
       String title = event.getView().getTitle();
       if (title.contains("Filtered Hopper Chest")) {
-        logger.debug("Filtered hopper GUI closed by player '" + player.getName() + "'");
+        logger.debug("Filtered hopper GUI closed by player '{}'", player.getName());
 
         if (player.hasMetadata("filtered_hopper_uuid")) {
           String hopperId = null;
@@ -277,22 +217,11 @@ public class InventoryListener implements Listener {
             org.bukkit.inventory.Inventory inv = event.getInventory();
             java.util.List<org.bukkit.inventory.ItemStack> contents =
                 com.mrh00k.hopperfilterx.gui.HopperChestGUI.getContents(inv);
-            try {
-              com.mrh00k.hopperfilterx.managers.DatabaseManager.saveFilteredHopperItems(
-                  hopperId, contents);
-              logger.debug(
-                  "Saved filtered hopper items for UUID "
-                      + hopperId
-                      + " ("
-                      + player.getName()
-                      + ")");
-            } catch (java.sql.SQLException e) {
-              logger.error(
-                  "Failed to save filtered hopper items for UUID "
-                      + hopperId
-                      + ": "
-                      + e.getMessage());
-            }
+            com.mrh00k.hopperfilterx.managers.DatabaseManager.saveFilteredHopperItems(
+                hopperId, contents);
+            FilterCache.getInstance().update(hopperId, contents);
+            logger.debug(
+                "Queued filtered hopper items for UUID {} ({})", hopperId, player.getName());
           }
 
           com.mrh00k.hopperfilterx.managers.SoundManager.playChestCloseSound(
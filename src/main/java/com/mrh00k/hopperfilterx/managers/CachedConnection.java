@@ -0,0 +1,86 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.managers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A JDBC connection together with the prepared statements compiled on it. The plugin only runs a
+ * fixed set of queries, so each one is prepared once per connection and reused afterwards.
+ * Instances are not thread-safe and must only be used by one thread at a time.
+ */
+class CachedConnection implements AutoCloseable {
+  /** Unit of work executed against a cached connection. */
+  @FunctionalInterface
+  interface Work<T> {
+    T apply(CachedConnection connection) throws SQLException;
+  }
+
+  private final Connection connection;
+
+  private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+  CachedConnection(Connection connection) {
+    this.connection = connection;
+  }
+
+  Connection getConnection() {
+    return connection;
+  }
+
+  /**
+   * Returns the cached statement for {@code sql} with its parameters cleared, preparing it on first
+   * use. Callers must close the result sets they open but never the statement itself.
+   */
+  PreparedStatement prepare(String sql) throws SQLException {
+    PreparedStatement ps = statements.get(sql);
+
+    if (ps == null || ps.isClosed()) {
+      ps = connection.prepareStatement(sql);
+
+      statements.put(sql, ps);
+    } else {
+      ps.clearParameters();
+    }
+
+    return ps;
+  }
+
+  boolean isClosed() throws SQLException {
+    return connection.isClosed();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    for (PreparedStatement ps : statements.values()) {
+      try {
+        ps.close();
+      } catch (SQLException e) {
+        // The connection is closed right after, which releases the statement anyway
+      }
+    }
+
+    statements.clear();
+
+    connection.close();
+  }
+}
@@ -17,52 +17,129 @@
  */
 package com.mrh00k.hopperfilterx.managers;
 
+import com.mrh00k.hopperfilterx.Main;
 import com.mrh00k.hopperfilterx.utils.Logger;
+import com.mrh00k.hopperfilterx.utils.LongObjectMap;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
-
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Index of placed filtered hoppers. Lookups are keyed by a packed block position in a primitive
+ * long map per world, so checking a block does not allocate. Only hoppers in loaded chunks are
+ * resident: chunks are fetched from the database when they load and evicted when they unload.
+ * Resident hoppers are also indexed by owner. Mutations are expected to happen on the main server
+ * thread.
+ */
 public class ChunkHopperManager {
 
   private final Map<Long, Set<DatabaseManager.HopperData>> chunkHoppers = new ConcurrentHashMap<>();
 
-  private final Map<String, Integer> worldHashCache = new ConcurrentHashMap<>();
+  private final Map<String, Set<DatabaseManager.HopperData>> ownerHoppers =
+      new ConcurrentHashMap<>();
 
-  private final Map<Location, DatabaseManager.HopperData> hopperLookup = new ConcurrentHashMap<>();
+  private final Map<String, Integer> worldHashCache = new ConcurrentHashMap<>();
 
-  private final Map<Location, Long> chunkKeyCache = new ConcurrentHashMap<>();
+  @SuppressWarnings("unchecked")
+  private volatile LongObjectMap<DatabaseManager.HopperData>[] blockIndex = new LongObjectMap[0];
 
   private final AtomicInteger worldHashCounter = new AtomicInteger(0);
 
+  private final Map<Long, ChunkLoad> loadingChunks = new ConcurrentHashMap<>();
+
+  private final FilterCache filterCache = FilterCache.getInstance();
+
   private final Logger logger = Logger.getInstance();
 
+  private static class ChunkHopperManagerHolder {
+    private static final ChunkHopperManager INSTANCE = new ChunkHopperManager();
+  }
+
+  /** Returns the index shared by the listeners and commands. */
+  public static ChunkHopperManager getInstance() {
+    return ChunkHopperManagerHolder.INSTANCE;
+  }
+
+  /**
+   * One fetch of a chunk's hoppers. A chunk that is unloaded and loaded again while a fetch is in
+   * flight starts a new one, and only the newest may index the chunk.
+   */
+  static final class ChunkLoad {
+    private final World world;
+
+    private final int chunkX;
+
+    private final int chunkZ;
+
+    private final long chunkKey;
+
+    private ChunkLoad(World world, int chunkX, int chunkZ, long chunkKey) {
+      this.world = world;
+      this.chunkX = chunkX;
+      this.chunkZ = chunkZ;
+      this.chunkKey = chunkKey;
+    }
+  }
+
   public void addFilteredHopper(DatabaseManager.HopperData data) {
     Location location = data.getLocation();
 
-    if (location == null || location.getWorld() == null) {
+    World world = location == null ? null : location.getWorld();
+
+    if (world == null) {
       logger.warning("Attempted to add filtered hopper with null location or world");
 
       return;
     }
 
-    long chunkKey = getOptimizedChunkKey(location);
+    int worldId = getWorldId(world.getName());
+
+    long chunkKey =
+        getOptimizedChunkKey(worldId, location.getBlockX() >> 4, location.getBlockZ() >> 4);
 
     chunkHoppers.computeIfAbsent(chunkKey, k -> new HashSet<>()).add(data);
 
-    hopperLookup.put(location.clone(), data);
+    indexOwner(data);
 
-    logger.debug(
-        "Added filtered hopper id="
-            + data.getId()
-            + " owner="
-            + data.getOwner()
-            + " at "
-            + location
-            + " to optimized chunk "
-            + formatChunkKey(chunkKey));
+    DatabaseManager.HopperData previous =
+        getOrCreateWorldIndex(worldId)
+            .put(
+                blockKey(location.getBlockX(), location.getBlockY(), location.getBlockZ()), data);
+
+    if (previous != null && previous != data) {
+      Set<DatabaseManager.HopperData> chunkSet = chunkHoppers.get(chunkKey);
+
+      if (chunkSet != null) {
+        chunkSet.remove(previous);
+      }
+
+      unindexOwner(previous);
+    }
+
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          "Added filtered hopper id={} owner={} at {} to optimized chunk {}",
+          data.getId(),
+          data.getOwner(),
+          location,
+          formatChunkKey(chunkKey));
+    }
   }
 
   public boolean removeFilteredHopper(Location location) {
@@ -72,9 +149,22 @@ public class ChunkHopperManager {
       return false;
     }
 
-    DatabaseManager.HopperData data = hopperLookup.remove(location);
+    Integer worldId = worldHashCache.get(location.getWorld().getName());
+
+    if (worldId == null) {
+      return false;
+    }
 
-    long chunkKey = getOptimizedChunkKey(location);
+    LongObjectMap<DatabaseManager.HopperData> index = getWorldIndex(worldId);
+
+    DatabaseManager.HopperData data =
+        index == null
+            ? null
+            : index.remove(
+                blockKey(location.getBlockX(), location.getBlockY(), location.getBlockZ()));
+
+    long chunkKey =
+        getOptimizedChunkKey(worldId, location.getBlockX() >> 4, location.getBlockZ() >> 4);
 
     Set<DatabaseManager.HopperData> chunkSet = chunkHoppers.get(chunkKey);
 
@@ -84,22 +174,24 @@ public class ChunkHopperManager {
       if (chunkSet.isEmpty()) {
         chunkHoppers.remove(chunkKey);
 
-        logger.info("Removed empty chunk entry for optimized chunk " + formatChunkKey(chunkKey));
+        if (logger.isDebugEnabled()) {
+          logger.debug(
+              "Removed empty chunk entry for optimized chunk {}", formatChunkKey(chunkKey));
+        }
       }
     }
 
-    chunkKeyCache.remove(location);
-
     if (data != null) {
-      logger.success(
-          "Filtered hopper removed id="
-              + data.getId()
-              + " owner="
-              + data.getOwner()
-              + " at "
-              + location
-              + " from optimized chunk "
-              + formatChunkKey(chunkKey));
+      unindexOwner(data);
+
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            "Filtered hopper removed id={} owner={} at {} from optimized chunk {}",
+            data.getId(),
+            data.getOwner(),
+            location,
+            formatChunkKey(chunkKey));
+      }
 
       return true;
     }
@@ -107,49 +199,355 @@ public class ChunkHopperManager {
     return false;
   }
 
+  /** Starts loading the hoppers of every chunk that is already loaded, e.g. right after enable. */
+  public int loadLoadedChunks() {
+    int chunks = 0;
+
+    for (World world : Bukkit.getWorlds()) {
+      for (Chunk chunk : world.getLoadedChunks()) {
+        loadChunk(world, chunk.getX(), chunk.getZ());
+
+        chunks++;
+      }
+    }
+
+    return chunks;
+  }
+
+  /**
+   * Fetches the hoppers stored for a chunk and their filter items on an async thread, then indexes
+   * them and compiles their filters on the main thread if the chunk is still loaded by then. Until
+   * that happens {@link #isChunkLoading} reports the chunk, so moves through its hoppers can be
+   * held back instead of being treated as vanilla.
+   */
+  public void loadChunk(World world, int chunkX, int chunkZ) {
+    ChunkLoad load = beginLoad(world, chunkX, chunkZ);
+
+    if (load == null) {
+      return;
+    }
+
+    String worldName = world.getName();
+
+    Main plugin = JavaPlugin.getPlugin(Main.class);
+
+    Bukkit.getScheduler()
+        .runTaskAsynchronously(
+            plugin,
+            () -> {
+              List<DatabaseManager.HopperData> hoppers;
+
+              try {
+                hoppers = DatabaseManager.getHoppersInChunk(worldName, chunkX, chunkZ);
+              } catch (SQLException e) {
+                loadingChunks.remove(load.chunkKey, load);
+
+                logger.error(
+                    "Failed to load filtered hoppers for chunk "
+                        + formatChunkKey(load.chunkKey)
+                        + ": "
+                        + e.getMessage());
+
+                return;
+              }
+
+              if (hoppers.isEmpty()) {
+                loadingChunks.remove(load.chunkKey, load);
+
+                return;
+              }
+
+              Map<String, List<ItemStack>> filters = new HashMap<>();
+
+              for (DatabaseManager.HopperData data : hoppers) {
+                if (data.isPlaced()) {
+                  filters.put(data.getId(), filterCache.readItems(data.getId()));
+                }
+              }
+
+              Bukkit.getScheduler().runTask(plugin, () -> indexChunk(load, hoppers, filters));
+            });
+  }
+
+  /** Marks a chunk as loading. Returns null if a fetch for it is already in flight. */
+  ChunkLoad beginLoad(World world, int chunkX, int chunkZ) {
+    long chunkKey = getOptimizedChunkKey(getWorldId(world.getName()), chunkX, chunkZ);
+
+    ChunkLoad load = new ChunkLoad(world, chunkX, chunkZ, chunkKey);
+
+    return loadingChunks.putIfAbsent(chunkKey, load) == null ? load : null;
+  }
+
+  /**
+   * Indexes the hoppers a fetch found and compiles the filters of those that are indexed. Hoppers
+   * that are skipped never get a compiled filter, so nothing outlives the chunk.
+   */
+  void indexChunk(
+      ChunkLoad load,
+      List<DatabaseManager.HopperData> hoppers,
+      Map<String, List<ItemStack>> filters) {
+    // The chunk was unloaded, or reloaded by a newer fetch, while its hoppers were being fetched
+    if (!loadingChunks.remove(load.chunkKey, load)
+        || !load.world.isChunkLoaded(load.chunkX, load.chunkZ)) {
+      return;
+    }
+
+    World world = load.world;
+
+    int added = 0;
+
+    for (DatabaseManager.HopperData data : hoppers) {
+      if (!data.isPlaced()) {
+        continue;
+      }
+
+      Location location = data.getLocation();
+
+      int x = location.getBlockX();
+
+      int y = location.getBlockY();
+
+      int z = location.getBlockZ();
+
+      // Placed or broken while the fetch was in flight; the live block wins
+      if (getHopperData(world, x, y, z) != null
+          || world.getBlockAt(x, y, z).getType() != Material.HOPPER) {
+        continue;
+      }
+
+      List<ItemStack> items = filters.get(data.getId());
+
+      // A filter saved from the GUI since the fetch read the stored one is newer; keep it
+      if (items != null) {
+        filterCache.compileIfAbsent(data.getId(), items);
+      }
+
+      addFilteredHopper(data);
+
+      added++;
+    }
+
+    if (logger.isDebugEnabled()) {
+      logger.debug("Loaded {} filtered hoppers for chunk {}", added, formatChunkKey(load.chunkKey));
+    }
+  }
+
+  /**
+   * Returns whether the hoppers of the chunk holding block {@code x}/{@code z} are still being
+   * fetched. Until they are indexed, {@link #getHopperData} cannot tell a filtered hopper there
+   * from a vanilla one.
+   */
+  public boolean isChunkLoading(World world, int x, int z) {
+    if (world == null || loadingChunks.isEmpty()) {
+      return false;
+    }
+
+    Integer worldId = worldHashCache.get(world.getName());
+
+    return worldId != null
+        && loadingChunks.containsKey(getOptimizedChunkKey(worldId, x >> 4, z >> 4));
+  }
+
+  /** Drops the hoppers of an unloading chunk from the index and their compiled filters. */
+  public void unloadChunk(World world, int chunkX, int chunkZ) {
+    Integer worldId = worldHashCache.get(world.getName());
+
+    if (worldId == null) {
+      return;
+    }
+
+    long chunkKey = getOptimizedChunkKey(worldId, chunkX, chunkZ);
+
+    loadingChunks.remove(chunkKey);
+
+    Set<DatabaseManager.HopperData> chunkSet = chunkHoppers.remove(chunkKey);
+
+    if (chunkSet == null) {
+      return;
+    }
+
+    LongObjectMap<DatabaseManager.HopperData> index = getWorldIndex(worldId);
+
+    for (DatabaseManager.HopperData data : chunkSet) {
+      Location location = data.getLocation();
+
+      if (index != null) {
+        index.remove(blockKey(location.getBlockX(), location.getBlockY(), location.getBlockZ()));
+      }
+
+      unindexOwner(data);
+
+      filterCache.invalidate(data.getId());
+    }
+
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          "Evicted {} filtered hoppers for chunk {}", chunkSet.size(), formatChunkKey(chunkKey));
+    }
+  }
+
   public boolean hasFilteredHopper(Location location) {
-    return location != null && hopperLookup.containsKey(location);
+    return getHopperData(location) != null;
+  }
+
+  public boolean hasFilteredHopper(Block block) {
+    return getHopperData(block) != null;
+  }
+
+  public boolean hasFilteredHopper(World world, int x, int y, int z) {
+    return getHopperData(world, x, y, z) != null;
   }
 
   public DatabaseManager.HopperData getHopperData(Location location) {
-    return hopperLookup.get(location);
+    if (location == null) {
+      return null;
+    }
+
+    return getHopperData(
+        location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+  }
+
+  public DatabaseManager.HopperData getHopperData(Block block) {
+    if (block == null) {
+      return null;
+    }
+
+    return getHopperData(block.getWorld(), block.getX(), block.getY(), block.getZ());
+  }
+
+  public DatabaseManager.HopperData getHopperData(World world, int x, int y, int z) {
+    if (world == null) {
+      return null;
+    }
+
+    Integer worldId = worldHashCache.get(world.getName());
+
+    if (worldId == null) {
+      return null;
+    }
+
+    LongObjectMap<DatabaseManager.HopperData> index = getWorldIndex(worldId);
+
+    return index == null ? null : index.get(blockKey(x, y, z));
+  }
+
+  /**
+   * Returns the resident hoppers owned by {@code owner}. Hoppers that are not placed or whose chunk
+   * is not loaded are only known to the database, see {@link #getAllHoppersByOwner(String)}.
+   */
+  public List<DatabaseManager.HopperData> getHoppersByOwner(String owner) {
+    Set<DatabaseManager.HopperData> hoppers = owner == null ? null : ownerHoppers.get(owner);
+
+    return hoppers == null ? Collections.emptyList() : new ArrayList<>(hoppers);
+  }
+
+  /**
+   * Returns every hopper owned by {@code owner}. Resident hoppers come from the owner index; the
+   * database is only asked for the rest, which are not placed or in a chunk that is not loaded.
+   * That query makes this a call for async threads, such as the command lookups. The result is in
+   * {@link DatabaseManager#BY_ID} order, so it can be paged even while chunks load and unload.
+   */
+  public List<DatabaseManager.HopperData> getAllHoppersByOwner(String owner) throws SQLException {
+    List<DatabaseManager.HopperData> hoppers = new ArrayList<>(getHoppersByOwner(owner));
+
+    Set<String> resident = new HashSet<>();
+
+    for (DatabaseManager.HopperData data : hoppers) {
+      resident.add(data.getId());
+    }
+
+    hoppers.addAll(DatabaseManager.getHoppersByOwner(owner, resident));
+
+    hoppers.sort(DatabaseManager.BY_ID);
+
+    return hoppers;
+  }
+
+  public int size() {
+    int total = 0;
+
+    for (LongObjectMap<DatabaseManager.HopperData> index : blockIndex) {
+      if (index != null) {
+        total += index.size();
+      }
+    }
+
+    return total;
   }
 
   public void optimize() {
-    chunkKeyCache.entrySet().removeIf(entry -> !hopperLookup.containsKey(entry.getKey()));
+    int capacity = 0;
 
-    if (chunkKeyCache.size() > 500) {
-      chunkKeyCache.clear();
-      logger.debug("Cleared oversized chunk key cache");
+    for (LongObjectMap<DatabaseManager.HopperData> index : blockIndex) {
+      if (index != null) {
+        index.trim();
+
+        capacity += index.capacity();
+      }
     }
 
-    logger.debug("Optimized ChunkHopperManager - Cache size: " + chunkKeyCache.size());
+    logger.debug(
+        "Optimized ChunkHopperManager - Indexed hoppers: {}, table slots: {}", size(), capacity);
   }
 
-  private long getOptimizedChunkKey(Location location) {
-    Long cachedKey = chunkKeyCache.get(location);
+  /**
+   * Packs block coordinates into a single long using 26 bits for x and z and 12 bits for y, which
+   * covers the whole world border and build height. The world is resolved separately, each world
+   * has its own table.
+   */
+  public static long blockKey(int x, int y, int z) {
+    return (((long) x & 0x3FFFFFFL) << 38) | (((long) z & 0x3FFFFFFL) << 12) | ((long) y & 0xFFFL);
+  }
 
-    if (cachedKey != null) {
-      return cachedKey;
+  private void indexOwner(DatabaseManager.HopperData data) {
+    if (data.getOwner() != null) {
+      ownerHoppers.computeIfAbsent(data.getOwner(), k -> ConcurrentHashMap.newKeySet()).add(data);
     }
-    org.bukkit.World world = location.getWorld();
-    if (world == null) {
-      logger.warning("getOptimizedChunkKey called with null world; returning default key");
-      return 0L; // Return default value if world is null
+  }
+
+  private void unindexOwner(DatabaseManager.HopperData data) {
+    Set<DatabaseManager.HopperData> hoppers =
+        data.getOwner() == null ? null : ownerHoppers.get(data.getOwner());
+
+    if (hoppers != null && hoppers.remove(data) && hoppers.isEmpty()) {
+      ownerHoppers.remove(data.getOwner(), hoppers);
+    }
+  }
+
+  private int getWorldId(String worldName) {
+    Integer cached = worldHashCache.get(worldName);
+
+    if (cached != null) {
+      return cached;
     }
 
-    long key =
-        getOptimizedChunkKey(world.getName(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    return worldHashCache.computeIfAbsent(worldName, name -> worldHashCounter.getAndIncrement());
+  }
 
-    chunkKeyCache.put(location.clone(), key);
+  private LongObjectMap<DatabaseManager.HopperData> getWorldIndex(int worldId) {
+    LongObjectMap<DatabaseManager.HopperData>[] indexes = blockIndex;
 
-    return key;
+    return worldId < indexes.length ? indexes[worldId] : null;
   }
 
-  private long getOptimizedChunkKey(String worldName, int chunkX, int chunkZ) {
-    int worldHash =
-        worldHashCache.computeIfAbsent(worldName, name -> worldHashCounter.getAndIncrement());
+  private synchronized LongObjectMap<DatabaseManager.HopperData> getOrCreateWorldIndex(
+      int worldId) {
+    LongObjectMap<DatabaseManager.HopperData>[] indexes = blockIndex;
+
+    if (worldId >= indexes.length) {
+      indexes = Arrays.copyOf(indexes, worldId + 1);
+    }
+
+    if (indexes[worldId] == null) {
+      indexes[worldId] = new LongObjectMap<>();
+    }
+
+    blockIndex = indexes;
+
+    return indexes[worldId];
+  }
 
+  private long getOptimizedChunkKey(int worldHash, int chunkX, int chunkZ) {
     return ((long) worldHash << 48)
         | (((long) chunkX & 0xFFFFFF) << 24)
         | ((long) chunkZ & 0xFFFFFF);
@@ -0,0 +1,355 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.managers;
+
+import com.mrh00k.hopperfilterx.Main;
+import com.mrh00k.hopperfilterx.utils.HopperUtils;
+import com.mrh00k.hopperfilterx.utils.Logger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Per-player stash of the filtered hoppers taken from players in creative mode. A stash is loaded
+ * on an async thread when its player joins and changed in memory; changes are written back in
+ * batches by an async task, and the stash is dropped from memory once its player has quit and
+ * nothing is left to write. Changes made before the stash is resident are queued and applied when
+ * it loads, so the main thread never reads the database.
+ */
+public class CreativeStashManager {
+  private static final long FLUSH_DELAY_TICKS = 5;
+
+  private static final long RETRY_DELAY_TICKS = 100;
+
+  private final Map<UUID, List<ItemStack>> stashes = new ConcurrentHashMap<>();
+
+  private final Set<UUID> quit = ConcurrentHashMap.newKeySet();
+
+  private final Object lock = new Object();
+
+  private final Object flushLock = new Object();
+
+  private final Logger logger = Logger.getInstance();
+
+  private Map<UUID, PendingStash> pending = new LinkedHashMap<>();
+
+  private Map<UUID, PendingStash> inFlight = Collections.emptyMap();
+
+  private boolean flushScheduled = false;
+
+  private static class CreativeStashManagerHolder {
+    private static final CreativeStashManager INSTANCE = new CreativeStashManager();
+  }
+
+  public static CreativeStashManager getInstance() {
+    return CreativeStashManagerHolder.INSTANCE;
+  }
+
+  private CreativeStashManager() {}
+
+  /** Changes to one player's stash since the last flush. */
+  static class PendingStash {
+    /** Whether the stored rows are dropped before {@link #items} are written. */
+    boolean replace;
+
+    final List<ItemStack> items = new ArrayList<>();
+  }
+
+  /** Loads a joining player's stash on an async thread, unless it is still resident. */
+  public void preload(UUID playerId) {
+    quit.remove(playerId);
+
+    if (stashes.containsKey(playerId)) {
+      return;
+    }
+
+    Bukkit.getScheduler()
+        .runTaskAsynchronously(
+            JavaPlugin.getPlugin(Main.class),
+            () -> {
+              try {
+                load(playerId);
+              } catch (SQLException e) {
+                logger.error(
+                    "Failed to load creative hoppers for " + playerId + ": " + e.getMessage());
+              }
+            });
+  }
+
+  /** Drops the stash of a player who quit, or marks it to be dropped after the next flush. */
+  public void evict(UUID playerId) {
+    synchronized (lock) {
+      if (pending.containsKey(playerId) || inFlight.containsKey(playerId)) {
+        quit.add(playerId);
+
+        return;
+      }
+    }
+
+    stashes.remove(playerId);
+  }
+
+  /**
+   * Returns copies of the stashed items. Reads the database if the stash is not resident yet, so
+   * call it off the main thread.
+   */
+  public List<ItemStack> getItems(UUID playerId) throws SQLException {
+    List<ItemStack> stash = stash(playerId);
+
+    synchronized (lock) {
+      List<ItemStack> items = new ArrayList<>(stash.size());
+
+      for (ItemStack item : stash) {
+        items.add(item.clone());
+      }
+
+      return items;
+    }
+  }
+
+  /** Appends one item; it is stored as a single new row. */
+  public void add(UUID playerId, ItemStack item) {
+    addAll(playerId, Collections.singletonList(item));
+  }
+
+  /**
+   * Appends items; each one is stored as a new row. A stash that is not resident yet is not
+   * loaded, the items are only queued.
+   */
+  public void addAll(UUID playerId, List<ItemStack> items) {
+    synchronized (lock) {
+      List<ItemStack> stash = stashes.get(playerId);
+
+      PendingStash write = pending.computeIfAbsent(playerId, k -> new PendingStash());
+
+      for (ItemStack item : items) {
+        if (stash != null) {
+          stash.add(item.clone());
+        }
+
+        write.items.add(item.clone());
+      }
+
+      scheduleFlush(FLUSH_DELAY_TICKS);
+    }
+  }
+
+  /** Replaces the whole stash; the player's stored rows are rewritten. */
+  public void setItems(UUID playerId, List<ItemStack> items) {
+    List<ItemStack> stash = new ArrayList<>(items.size());
+
+    PendingStash write = new PendingStash();
+
+    write.replace = true;
+
+    for (ItemStack item : items) {
+      if (item != null) {
+        stash.add(item.clone());
+
+        write.items.add(item.clone());
+      }
+    }
+
+    synchronized (lock) {
+      stashes.put(playerId, stash);
+
+      pending.put(playerId, write);
+
+      scheduleFlush(FLUSH_DELAY_TICKS);
+    }
+  }
+
+  public void clear(UUID playerId) {
+    setItems(playerId, Collections.emptyList());
+  }
+
+  /**
+   * Removes every stashed copy of the given filtered hopper. Returns whether any was found. Reads
+   * the database if the stash is not resident yet, so call it off the main thread.
+   */
+  public boolean removeHopper(UUID playerId, String hopperId, NamespacedKey filteredHopperKey)
+      throws SQLException {
+    List<ItemStack> stash = stash(playerId);
+
+    synchronized (lock) {
+      List<ItemStack> kept = new ArrayList<>(stash.size());
+
+      for (ItemStack item : stash) {
+        if (!hopperId.equals(HopperUtils.getUuidFromFilteredHopper(item, filteredHopperKey))) {
+          kept.add(item);
+        }
+      }
+
+      if (kept.size() == stash.size()) {
+        return false;
+      }
+
+      setItems(playerId, kept);
+
+      return true;
+    }
+  }
+
+  /**
+   * Writes every queued change in one transaction. Runs on an async task shortly after the first
+   * change, and inline on shutdown.
+   */
+  public void flush() {
+    synchronized (flushLock) {
+      Map<UUID, PendingStash> batch;
+
+      synchronized (lock) {
+        batch = pending;
+
+        pending = new LinkedHashMap<>();
+
+        inFlight = batch;
+
+        flushScheduled = false;
+      }
+
+      boolean saved = true;
+
+      if (!batch.isEmpty()) {
+        try {
+          DatabaseManager.saveCreativeStashes(batch);
+
+          logger.debug("Saved creative hopper stashes of {} players", batch.size());
+        } catch (SQLException e) {
+          saved = false;
+
+          logger.error(
+              "Failed to save creative hoppers of "
+                  + batch.size()
+                  + " players, will retry: "
+                  + e.getMessage());
+        }
+      }
+
+      synchronized (lock) {
+        inFlight = Collections.emptyMap();
+
+        if (!saved) {
+          requeue(batch);
+
+          return;
+        }
+
+        for (UUID playerId : batch.keySet()) {
+          if (!pending.containsKey(playerId) && quit.remove(playerId)) {
+            stashes.remove(playerId);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Puts a batch that failed to save back in front of the changes queued since. A newer replace
+   * supersedes it; newer appends follow its items. Stashes stay resident until a retry succeeds.
+   */
+  private void requeue(Map<UUID, PendingStash> batch) {
+    Map<UUID, PendingStash> merged = new LinkedHashMap<>(batch);
+
+    for (Map.Entry<UUID, PendingStash> entry : pending.entrySet()) {
+      PendingStash older = merged.get(entry.getKey());
+
+      if (older == null || entry.getValue().replace) {
+        merged.put(entry.getKey(), entry.getValue());
+      } else {
+        older.items.addAll(entry.getValue().items);
+      }
+    }
+
+    pending = merged;
+
+    if (JavaPlugin.getPlugin(Main.class).isEnabled()) {
+      scheduleFlush(RETRY_DELAY_TICKS);
+    } else {
+      logger.error("Creative hopper stashes of " + merged.size() + " players were not saved");
+    }
+  }
+
+  private List<ItemStack> stash(UUID playerId) throws SQLException {
+    List<ItemStack> stash = stashes.get(playerId);
+
+    return stash != null ? stash : load(playerId);
+  }
+
+  /**
+   * Reads a stash that is not resident and makes it resident, with the changes queued meanwhile
+   * applied on top of the stored rows. Holding the flush lock keeps a batch from being committed
+   * while the rows are read.
+   */
+  private List<ItemStack> load(UUID playerId) throws SQLException {
+    synchronized (flushLock) {
+      List<ItemStack> stash = stashes.get(playerId);
+
+      if (stash != null) {
+        return stash;
+      }
+
+      List<ItemStack> stored = DatabaseManager.loadCreativeHoppers(playerId);
+
+      synchronized (lock) {
+        stash = stashes.get(playerId);
+
+        if (stash != null) {
+          return stash;
+        }
+
+        PendingStash write = pending.get(playerId);
+
+        stash = new ArrayList<>();
+
+        if (write == null || !write.replace) {
+          stash.addAll(stored);
+        }
+
+        if (write != null) {
+          for (ItemStack item : write.items) {
+            stash.add(item.clone());
+          }
+        }
+
+        stashes.put(playerId, stash);
+
+        return stash;
+      }
+    }
+  }
+
+  private void scheduleFlush(long delayTicks) {
+    if (!flushScheduled) {
+      flushScheduled = true;
+
+      Bukkit.getScheduler()
+          .runTaskLaterAsynchronously(JavaPlugin.getPlugin(Main.class), this::flush, delayTicks);
+    }
+  }
+}
@@ -17,8 +17,10 @@
  */
 package com.mrh00k.hopperfilterx.managers;
 
+import com.mrh00k.hopperfilterx.utils.ItemCodec;
 import com.mrh00k.hopperfilterx.utils.Logger;
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -26,9 +28,16 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.configuration.InvalidConfigurationException;
@@ -37,8 +46,116 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 
 public class DatabaseManager {
-  private static Connection connection;
-  private static final int CURRENT_DB_VERSION = 1;
+  private static CachedConnection writerConnection;
+  private static ReadConnectionPool readPool;
+  private static PersistenceQueue writeQueue;
+  private static final int CURRENT_DB_VERSION = 4;
+  private static DurabilityProfile durabilityProfile = DurabilityProfile.BALANCED;
+
+  private static final int LEGACY_ITEMS_BATCH_SIZE = 200;
+
+  /** Ids bound per existence query; shorter lists repeat their first id to fill the slots. */
+  private static final int EXISTS_BATCH_SIZE = 64;
+
+  private static final String EXISTING_HOPPER_IDS_SQL =
+      "SELECT id FROM filtered_hoppers WHERE id IN ("
+          + String.join(", ", Collections.nCopies(EXISTS_BATCH_SIZE, "?"))
+          + ")";
+
+  private static final String HOPPER_COLUMNS =
+      "id, world, x, y, z, owner, COALESCE(is_placed, 1) as is_placed";
+
+  /** Stable order of hopper listings, so that paging through them neither repeats nor skips. */
+  public static final Comparator<HopperData> BY_ID = Comparator.comparing(HopperData::getId);
+
+  private static final String HOPPERS_BY_IDS_SQL =
+      "SELECT "
+          + HOPPER_COLUMNS
+          + " FROM filtered_hoppers WHERE id IN ("
+          + String.join(", ", Collections.nCopies(EXISTS_BATCH_SIZE, "?"))
+          + ")";
+
+  private static final String INSERT_HOPPER_SQL =
+      "INSERT INTO filtered_hoppers(id, world, chunk_x, chunk_z, x, y, z, owner, is_placed, item_data) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String INSERT_CREATIVE_ITEM_SQL =
+      "INSERT INTO creative_hopper_items(player_uuid, item_data) VALUES(?, ?)";
+
+  private static final String UPDATE_PLACED_POSITION_SQL =
+      "UPDATE filtered_hoppers SET is_placed = 1, world = ?, chunk_x = ?, chunk_z = ?, x = ?, y = ?, z = ? WHERE id = ?";
+
+  /**
+   * SQLite tuning presets selectable through {@code storage.durability} in config.yml. All of them
+   * run in WAL mode, so readers never wait for the writer; they differ in how often data is
+   * fsynced and how much memory SQLite may use.
+   */
+  public enum DurabilityProfile {
+    SAFE("FULL", -8000, 0L, "DEFAULT", 10000, 30),
+    BALANCED("NORMAL", -16000, 67108864L, "MEMORY", 5000, 60),
+    FAST("OFF", -32000, 268435456L, "MEMORY", 5000, 120);
+
+    private final String synchronous;
+    private final int cacheSize;
+    private final long mmapSize;
+    private final String tempStore;
+    private final int busyTimeoutMs;
+    private final int checkpointIntervalSeconds;
+
+    DurabilityProfile(
+        String synchronous,
+        int cacheSize,
+        long mmapSize,
+        String tempStore,
+        int busyTimeoutMs,
+        int checkpointIntervalSeconds) {
+      this.synchronous = synchronous;
+      this.cacheSize = cacheSize;
+      this.mmapSize = mmapSize;
+      this.tempStore = tempStore;
+      this.busyTimeoutMs = busyTimeoutMs;
+      this.checkpointIntervalSeconds = checkpointIntervalSeconds;
+    }
+
+    public int getCheckpointIntervalSeconds() {
+      return checkpointIntervalSeconds;
+    }
+
+    public static DurabilityProfile fromConfig(String value) {
+      if (value != null) {
+        for (DurabilityProfile profile : values()) {
+          if (profile.name().equalsIgnoreCase(value.trim())) {
+            return profile;
+          }
+        }
+
+        Logger.getInstance()
+            .warning("Unknown storage.durability '" + value + "', falling back to 'balanced'");
+      }
+
+      return BALANCED;
+    }
+
+    private void apply(Connection conn) throws SQLException {
+      try (Statement stmt = conn.createStatement()) {
+        stmt.execute("PRAGMA journal_mode = WAL");
+        stmt.execute("PRAGMA synchronous = " + synchronous);
+        stmt.execute("PRAGMA cache_size = " + cacheSize);
+        stmt.execute("PRAGMA mmap_size = " + mmapSize);
+        stmt.execute("PRAGMA temp_store = " + tempStore);
+        stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+      }
+    }
+
+    private void applyReadOnly(Connection conn) throws SQLException {
+      try (Statement stmt = conn.createStatement()) {
+        stmt.execute("PRAGMA cache_size = " + cacheSize);
+        stmt.execute("PRAGMA mmap_size = " + mmapSize);
+        stmt.execute("PRAGMA temp_store = " + tempStore);
+        stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+        stmt.execute("PRAGMA query_only = ON");
+      }
+    }
+  }
 
   public static void initialize(Plugin plugin) throws SQLException {
     File dataFolder = plugin.getDataFolder();
@@ -54,22 +171,29 @@ public class DatabaseManager {
 
     File dbFile = new File(dataFolder, "data.db");
 
-    connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath());
+    durabilityProfile =
+        DurabilityProfile.fromConfig(
+            plugin.getConfig().getString("storage.durability", "balanced"));
+
+    String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
+
+    // All writes go through a single connection; reads are served by a small read-only pool
+    Connection connection = DriverManager.getConnection(url);
 
     // Disable auto-commit for transactional migrations
     connection.setAutoCommit(false);
 
     // Apply schema migrations if needed
-    applyMigrations();
+    applyMigrations(connection);
 
     // Restore auto-commit mode
     connection.setAutoCommit(true);
 
-    // Set PRAGMA synchronous only after auto-commit is restored (outside transaction)
+    // Journal mode and synchronous can only be changed outside a transaction
+    durabilityProfile.apply(connection);
+
     Statement stmt = connection.createStatement();
     try {
-      stmt.execute("PRAGMA synchronous = FULL");
-
       stmt.executeUpdate(
           "CREATE TABLE IF NOT EXISTS filtered_hoppers ("
               + "id TEXT PRIMARY KEY, "
@@ -81,14 +205,11 @@ public class DatabaseManager {
               + "z INTEGER NOT NULL, "
               + "owner TEXT NOT NULL, "
               + "is_placed INTEGER DEFAULT 1 NOT NULL, "
-              + "items TEXT"
+              + "items TEXT, "
+              + "item_data BLOB"
               + ")");
 
-      stmt.executeUpdate(
-          "CREATE TABLE IF NOT EXISTS creative_hoppers ("
-              + "player_uuid TEXT PRIMARY KEY, "
-              + "items TEXT NOT NULL"
-              + ")");
+      createCreativeHopperItems(stmt);
 
       stmt.executeUpdate(
           "CREATE TABLE IF NOT EXISTS hopper_permissions ("
@@ -102,10 +223,65 @@ public class DatabaseManager {
         stmt.close();
       }
     }
+
+    // Filtered hopper writes are queued and committed in batches by a dedicated writer
+    writerConnection = new CachedConnection(connection);
+
+    writeQueue = new PersistenceQueue(writerConnection);
+
+    writeQueue.scheduleCheckpoints(durabilityProfile.getCheckpointIntervalSeconds());
+
+    int readConnections = Math.max(1, plugin.getConfig().getInt("storage.read-connections", 2));
+
+    List<CachedConnection> readers = new ArrayList<>(readConnections);
+
+    for (int i = 0; i < readConnections; i++) {
+      Connection reader = DriverManager.getConnection(url);
+
+      durabilityProfile.applyReadOnly(reader);
+
+      readers.add(new CachedConnection(reader));
+    }
+
+    readPool = new ReadConnectionPool(readers);
+
+    loadPermissions();
+
+    Bukkit.getScheduler().runTaskAsynchronously(plugin, DatabaseManager::migrateLegacyItems);
+
+    Logger.getInstance()
+        .info(
+            "SQLite running in WAL mode with durability profile '"
+                + durabilityProfile.name().toLowerCase()
+                + "' and "
+                + readConnections
+                + " read connection(s)");
+  }
+
+  private static void loadPermissions() throws SQLException {
+    PermissionCache cache = PermissionCache.getInstance();
+
+    cache.clear();
+
+    read(
+        Operation.LOAD_PERMISSIONS,
+        conn -> {
+          String sql = "SELECT owner, permitted, hopper_uuid FROM hopper_permissions";
+
+          try (ResultSet rs = conn.prepare(sql).executeQuery()) {
+            while (rs.next()) {
+              cache.grant(rs.getString(1), rs.getString(2), rs.getString(3));
+            }
+          }
+
+          return null;
+        });
+
+    Logger.getInstance().debug("Loaded " + cache.size() + " hopper permissions into memory");
   }
 
-  private static void applyMigrations() throws SQLException {
-    int version = getUserVersion();
+  private static void applyMigrations(Connection connection) throws SQLException {
+    int version = getUserVersion(connection);
     if (version < CURRENT_DB_VERSION) {
       // Temporarily enable auto-commit to allow PRAGMA changes
       boolean prevAutoCommit = connection.getAutoCommit();
@@ -122,31 +298,32 @@ public class DatabaseManager {
       // Now run migrations inside the transaction
       Statement migrationStmt = connection.createStatement();
       try {
-        migrationStmt.executeUpdate(
-            "CREATE TABLE IF NOT EXISTS filtered_hoppers ("
-                + "id TEXT PRIMARY KEY, "
-                + "world TEXT NOT NULL, "
-                + "chunk_x INTEGER NOT NULL, "
-                + "chunk_z INTEGER NOT NULL, "
-                + "x INTEGER NOT NULL, "
-                + "y INTEGER NOT NULL, "
-                + "z INTEGER NOT NULL, "
-                + "owner TEXT NOT NULL, "
-                + "is_placed INTEGER DEFAULT 1 NOT NULL, "
-                + "items TEXT"
-                + ")");
-        migrationStmt.executeUpdate(
-            "CREATE TABLE IF NOT EXISTS creative_hoppers ("
-                + "player_uuid TEXT PRIMARY KEY, "
-                + "items TEXT NOT NULL"
-                + ")");
-        migrationStmt.executeUpdate(
-            "CREATE TABLE IF NOT EXISTS hopper_permissions ("
-                + "owner TEXT NOT NULL, "
-                + "permitted TEXT NOT NULL, "
-                + "hopper_uuid TEXT, "
-                + "PRIMARY KEY (owner, permitted, hopper_uuid)"
-                + ")");
+        if (version < 1) {
+          createInitialSchema(migrationStmt);
+        }
+        if (version < 2) {
+          // Item lists move from YAML text to the binary ItemCodec format. Existing rows keep
+          // their YAML until migrateLegacyItems() converts them in the background.
+          migrationStmt.executeUpdate("ALTER TABLE filtered_hoppers ADD COLUMN item_data BLOB");
+          migrationStmt.executeUpdate(
+              "CREATE TABLE creative_hoppers_new ("
+                  + "player_uuid TEXT PRIMARY KEY, "
+                  + "items TEXT, "
+                  + "item_data BLOB"
+                  + ")");
+          migrationStmt.executeUpdate(
+              "INSERT INTO creative_hoppers_new(player_uuid, items) "
+                  + "SELECT player_uuid, items FROM creative_hoppers");
+          migrationStmt.executeUpdate("DROP TABLE creative_hoppers");
+          migrationStmt.executeUpdate(
+              "ALTER TABLE creative_hoppers_new RENAME TO creative_hoppers");
+        }
+        if (version < 3) {
+          createIndexes(migrationStmt);
+        }
+        if (version < 4) {
+          migrateCreativeHoppers(connection, migrationStmt);
+        }
         migrationStmt.execute("PRAGMA user_version = " + CURRENT_DB_VERSION);
       } finally {
         if (migrationStmt != null) {
@@ -157,7 +334,100 @@ public class DatabaseManager {
     }
   }
 
-  private static int getUserVersion() throws SQLException {
+  private static void createInitialSchema(Statement migrationStmt) throws SQLException {
+    migrationStmt.executeUpdate(
+        "CREATE TABLE IF NOT EXISTS filtered_hoppers ("
+            + "id TEXT PRIMARY KEY, "
+            + "world TEXT NOT NULL, "
+            + "chunk_x INTEGER NOT NULL, "
+            + "chunk_z INTEGER NOT NULL, "
+            + "x INTEGER NOT NULL, "
+            + "y INTEGER NOT NULL, "
+            + "z INTEGER NOT NULL, "
+            + "owner TEXT NOT NULL, "
+            + "is_placed INTEGER DEFAULT 1 NOT NULL, "
+            + "items TEXT"
+            + ")");
+    migrationStmt.executeUpdate(
+        "CREATE TABLE IF NOT EXISTS creative_hoppers ("
+            + "player_uuid TEXT PRIMARY KEY, "
+            + "items TEXT NOT NULL"
+            + ")");
+    migrationStmt.executeUpdate(
+        "CREATE TABLE IF NOT EXISTS hopper_permissions ("
+            + "owner TEXT NOT NULL, "
+            + "permitted TEXT NOT NULL, "
+            + "hopper_uuid TEXT, "
+            + "PRIMARY KEY (owner, permitted, hopper_uuid)"
+            + ")");
+  }
+
+  /**
+   * Secondary indexes for the owner and chunk lookups. Permission checks by (owner, permitted) are
+   * already served by the primary key; the extra index covers cleanup by hopper UUID.
+   */
+  private static void createIndexes(Statement migrationStmt) throws SQLException {
+    migrationStmt.executeUpdate(
+        "CREATE INDEX IF NOT EXISTS idx_filtered_hoppers_owner ON filtered_hoppers(owner)");
+    migrationStmt.executeUpdate(
+        "CREATE INDEX IF NOT EXISTS idx_filtered_hoppers_chunk "
+            + "ON filtered_hoppers(world, chunk_x, chunk_z)");
+    migrationStmt.executeUpdate(
+        "CREATE INDEX IF NOT EXISTS idx_hopper_permissions_hopper "
+            + "ON hopper_permissions(hopper_uuid)");
+  }
+
+  /**
+   * Creative stashes are stored one row per item, so stashing a hopper is a single insert instead
+   * of rewriting the player's whole list.
+   */
+  private static void createCreativeHopperItems(Statement stmt) throws SQLException {
+    stmt.executeUpdate(
+        "CREATE TABLE IF NOT EXISTS creative_hopper_items ("
+            + "id INTEGER PRIMARY KEY, "
+            + "player_uuid TEXT NOT NULL, "
+            + "item_data BLOB NOT NULL"
+            + ")");
+    stmt.executeUpdate(
+        "CREATE INDEX IF NOT EXISTS idx_creative_hopper_items_player "
+            + "ON creative_hopper_items(player_uuid)");
+  }
+
+  /** Splits the per-player item lists of the old creative_hoppers table into one row per item. */
+  private static void migrateCreativeHoppers(Connection connection, Statement migrationStmt)
+      throws SQLException {
+    createCreativeHopperItems(migrationStmt);
+
+    int moved = 0;
+
+    String select = "SELECT player_uuid, item_data, items FROM creative_hoppers";
+
+    try (ResultSet rs = migrationStmt.executeQuery(select);
+        PreparedStatement insert = connection.prepareStatement(INSERT_CREATIVE_ITEM_SQL)) {
+      while (rs.next()) {
+        String player = rs.getString(1);
+
+        for (ItemStack item :
+            decodeItems(rs.getBytes(2), rs.getString(3), "creative hoppers of " + player)) {
+          insert.setString(1, player);
+          insert.setBytes(2, encodeItems(Collections.singletonList(item)));
+          insert.addBatch();
+
+          moved++;
+        }
+      }
+
+      insert.executeBatch();
+    }
+
+    migrationStmt.executeUpdate("DROP TABLE creative_hoppers");
+
+    if (moved > 0) {
+      Logger.getInstance().info("Moved " + moved + " creative hoppers to one row per item");
+    }
+  }
+
+  private static int getUserVersion(Connection connection) throws SQLException {
     Statement stmt = null;
     ResultSet rs = null;
     try {
@@ -185,9 +455,82 @@ public class DatabaseManager {
     }
   }
 
+  /** Timed database operations, each with its own {@code db.<name>} timer. */
+  private enum Operation {
+    LOAD_PERMISSIONS("loadPermissions"),
+    LOAD_ALL_HOPPER_DATA("loadAllHopperData"),
+    GET_HOPPER_BY_ID("getHopperById"),
+    GET_HOPPERS_BY_OWNER("getHoppersByOwner"),
+    OWNER_HAS_HOPPERS("ownerHasHoppers"),
+    GET_HOPPERS_BY_IDS("getHoppersByIds"),
+    GET_HOPPERS_IN_CHUNK("getHoppersInChunk"),
+    LOAD_CREATIVE_HOPPERS("loadCreativeHoppers"),
+    SAVE_CREATIVE_STASHES("saveCreativeStashes"),
+    FLUSH_AND_SYNC("flushAndSync"),
+    FILTERED_HOPPER_EXISTS("filteredHopperExists"),
+    GET_EXISTING_HOPPER_IDS("getExistingHopperIds"),
+    MIGRATE_LEGACY_ITEMS("migrateLegacyItems"),
+    LOAD_FILTERED_HOPPER_ITEMS("loadFilteredHopperItems"),
+    ADD_HOPPER_PERMISSION("addHopperPermission"),
+    REMOVE_HOPPER_PERMISSION("removeHopperPermission"),
+    REMOVE_ALL_PERMISSIONS_FOR_HOPPER("removeAllPermissionsForHopper"),
+    REMOVE_ALL_GLOBAL_PERMISSIONS_FOR_OWNER("removeAllGlobalPermissionsForOwner"),
+    UUID_EXISTS("uuidExists"),
+    UUID_BELONGS_TO_PLAYER("uuidBelongsToPlayer");
+
+    private final MetricsManager.Timer timer;
+
+    Operation(String name) {
+      this.timer = MetricsManager.getInstance().timer("db." + name);
+    }
+  }
+
+  /** Runs a read on a pooled connection, timed by its operation's timer. */
+  private static <T> T read(Operation operation, CachedConnection.Work<T> work)
+      throws SQLException {
+    MetricsManager.Timer timer = operation.timer;
+
+    long start = timer.start();
+
+    try {
+      return readPool.execute(work);
+    } finally {
+      timer.stop(start);
+    }
+  }
+
+  /** Runs a write on the writer thread and waits for it, timed by its operation's timer. */
+  private static <T> T write(Operation operation, CachedConnection.Work<T> work)
+      throws SQLException {
+    MetricsManager.Timer timer = operation.timer;
+
+    long start = timer.start();
+
+    try {
+      return writeQueue.execute(work);
+    } finally {
+      timer.stop(start);
+    }
+  }
+
+  /** Commits every queued write. Must be called before {@link #flushAndSync()} on shutdown. */
+  public static void drainWriteQueue() {
+    if (writeQueue != null) {
+      writeQueue.drain();
+    }
+  }
+
+  public static int getWriteQueueSize() {
+    return writeQueue != null ? writeQueue.size() : 0;
+  }
+
   public static void close() throws SQLException {
-    if (connection != null && !connection.isClosed()) {
-      connection.close();
+    if (readPool != null) {
+      readPool.close();
+    }
+
+    if (writerConnection != null && !writerConnection.isClosed()) {
+      writerConnection.close();
     }
   }
 
@@ -197,6 +540,8 @@ public class DatabaseManager {
     private final String owner;
     private boolean isPlaced;
 
+    private volatile FilterCache.RejectionMemo lastRejection;
+
     public HopperData(String id, Location location, String owner) {
       this(id, location, owner, true);
     }
@@ -230,22 +575,325 @@ public class DatabaseManager {
     public void setPlaced(boolean placed) {
       this.isPlaced = placed;
     }
+
+    public FilterCache.RejectionMemo getLastRejection() {
+      return lastRejection;
+    }
+
+    public void setLastRejection(FilterCache.RejectionMemo lastRejection) {
+      this.lastRejection = lastRejection;
+    }
   }
 
+  /** Returns every stored hopper, including writes that are still queued. */
   public static List<HopperData> loadAllHopperData() throws SQLException {
-    List<HopperData> entries = new ArrayList<>();
+    Map<String, PersistenceQueue.PendingWrite> queued = writeQueue.snapshot();
 
-    String query =
-        "SELECT id, world, x, y, z, owner, COALESCE(is_placed, 1) as is_placed FROM filtered_hoppers";
+    String query = "SELECT " + HOPPER_COLUMNS + " FROM filtered_hoppers";
 
-    Statement stmt = null;
-    ResultSet rs = null;
-    try {
-      stmt = connection.createStatement();
-      rs = stmt.executeQuery(query);
+    List<HopperData> rows =
+        read(Operation.LOAD_ALL_HOPPER_DATA, conn -> readHopperData(conn.prepare(query)));
+
+    return overlayPending(rows, queued, data -> true, false);
+  }
+
+  /**
+   * Looks up a single hopper by UUID, including writes that are still queued.
+   *
+   * @return the hopper, or null if it does not exist or its world is not loaded
+   */
+  public static HopperData getHopperById(String id) throws SQLException {
+    PersistenceQueue.PendingWrite pending = writeQueue.peek(id);
+
+    if (pending != null && pending.delete) {
+      return null;
+    }
+
+    if (pending != null && pending.insert) {
+      return fromPending(id, pending);
+    }
+
+    String sql = "SELECT " + HOPPER_COLUMNS + " FROM filtered_hoppers WHERE id = ?";
+
+    List<HopperData> rows =
+        read(
+            Operation.GET_HOPPER_BY_ID,
+            conn -> {
+              PreparedStatement ps = conn.prepare(sql);
+              ps.setString(1, id);
+              return readHopperData(ps);
+            });
+
+    if (rows.isEmpty()) {
+      return null;
+    }
+
+    return pending == null ? rows.get(0) : applyPending(rows.get(0), pending);
+  }
+
+  /**
+   * Returns every hopper owned by {@code owner} in {@link #BY_ID} order, using the owner index.
+   * Queued writes are applied on top of the stored rows.
+   */
+  public static List<HopperData> getHoppersByOwner(String owner) throws SQLException {
+    return getHoppersByOwner(owner, Collections.emptySet());
+  }
+
+  /**
+   * Like {@link #getHoppersByOwner(String)}, skipping the hoppers in {@code excluded}, e.g. the
+   * ones the caller already holds in memory.
+   */
+  public static List<HopperData> getHoppersByOwner(String owner, Set<String> excluded)
+      throws SQLException {
+    Map<String, PersistenceQueue.PendingWrite> queued = writeQueue.snapshot();
+
+    String sql = "SELECT " + HOPPER_COLUMNS + " FROM filtered_hoppers WHERE owner = ? ORDER BY id";
+
+    List<HopperData> rows =
+        read(
+            Operation.GET_HOPPERS_BY_OWNER,
+            conn -> {
+              PreparedStatement ps = conn.prepare(sql);
+              ps.setString(1, owner);
+              return readHopperData(ps, excluded);
+            });
+
+    List<HopperData> hoppers =
+        overlayPending(
+            rows,
+            queued,
+            data -> owner.equals(data.getOwner()) && !excluded.contains(data.getId()),
+            false);
+
+    // Queued inserts are appended after the stored rows
+    if (hoppers != rows) {
+      hoppers.sort(BY_ID);
+    }
+
+    return hoppers;
+  }
+
+  /** Returns whether {@code owner} has any hopper, placed or not, including queued ones. */
+  public static boolean ownerHasHoppers(String owner) throws SQLException {
+    Map<String, PersistenceQueue.PendingWrite> queued = writeQueue.snapshot();
+
+    for (PersistenceQueue.PendingWrite write : queued.values()) {
+      if (write.insert && owner.equals(write.owner)) {
+        return true;
+      }
+    }
+
+    String sql = "SELECT id FROM filtered_hoppers WHERE owner = ?";
+
+    return read(
+        Operation.OWNER_HAS_HOPPERS,
+        conn -> {
+          PreparedStatement ps = conn.prepare(sql);
+          ps.setString(1, owner);
+          try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+              PersistenceQueue.PendingWrite write = queued.get(rs.getString(1));
+
+              if (write == null || !write.delete) {
+                return true;
+              }
+            }
+          }
+          return false;
+        });
+  }
+
+  /**
+   * Applies queued writes to rows a lookup read from the database, so it sees them without waiting
+   * for the writer. {@code matches} is the lookup's condition, re-checked against the queued state;
+   * queued inserts that match are added. With {@code moves}, hoppers whose queued re-placement
+   * moves them into the lookup's range are fetched and added too. The snapshot must be taken before
+   * the rows are read.
+   */
+  private static List<HopperData> overlayPending(
+      List<HopperData> rows,
+      Map<String, PersistenceQueue.PendingWrite> queued,
+      Predicate<HopperData> matches,
+      boolean moves)
+      throws SQLException {
+    if (queued.isEmpty()) {
+      return rows;
+    }
+
+    List<HopperData> result = new ArrayList<>(rows.size());
+
+    Set<String> seen = new HashSet<>();
+
+    for (HopperData row : rows) {
+      seen.add(row.getId());
+
+      PersistenceQueue.PendingWrite write = queued.get(row.getId());
+
+      HopperData data = write == null ? row : applyPending(row, write);
+
+      if (data != null && (write == null || matches.test(data))) {
+        result.add(data);
+      }
+    }
+
+    List<String> moved = new ArrayList<>();
+
+    for (Map.Entry<String, PersistenceQueue.PendingWrite> entry : queued.entrySet()) {
+      PersistenceQueue.PendingWrite write = entry.getValue();
+
+      if (seen.contains(entry.getKey()) || write.delete) {
+        continue;
+      }
+
+      if (write.insert) {
+        HopperData data = fromPending(entry.getKey(), write);
+
+        if (data != null && matches.test(data)) {
+          result.add(data);
+        }
+      } else if (moves && write.hasPosition) {
+        moved.add(entry.getKey());
+      }
+    }
+
+    if (!moved.isEmpty()) {
+      for (HopperData row : getHoppersByIds(moved)) {
+        HopperData data = applyPending(row, queued.get(row.getId()));
+
+        if (data != null && matches.test(data)) {
+          result.add(data);
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /** Returns the stored row with a queued write applied, or null if the hopper is deleted. */
+  private static HopperData applyPending(HopperData row, PersistenceQueue.PendingWrite write) {
+    if (write.delete) {
+      return null;
+    }
+
+    if (write.insert) {
+      return fromPending(row.getId(), write);
+    }
+
+    HopperData data = row;
+
+    if (write.hasPosition) {
+      org.bukkit.World world = Bukkit.getWorld(write.world);
+
+      if (world != null) {
+        data =
+            new HopperData(
+                row.getId(),
+                new Location(world, write.x, write.y, write.z),
+                row.getOwner(),
+                row.isPlaced());
+      }
+    }
+
+    if (write.placed != null) {
+      data.setPlaced(write.placed);
+    }
+
+    return data;
+  }
+
+  /** Builds a hopper from a queued insert, or returns null if its world is not loaded. */
+  private static HopperData fromPending(String id, PersistenceQueue.PendingWrite write) {
+    org.bukkit.World world = Bukkit.getWorld(write.world);
+
+    if (world == null) {
+      return null;
+    }
+
+    return new HopperData(
+        id,
+        new Location(world, write.x, write.y, write.z),
+        write.owner,
+        !Boolean.FALSE.equals(write.placed));
+  }
+
+  /** Reads the stored rows of the given hoppers, {@value #EXISTS_BATCH_SIZE} ids per query. */
+  private static List<HopperData> getHoppersByIds(List<String> ids) throws SQLException {
+    List<HopperData> rows = new ArrayList<>(ids.size());
+
+    for (int from = 0; from < ids.size(); from += EXISTS_BATCH_SIZE) {
+      List<String> batch = ids.subList(from, Math.min(ids.size(), from + EXISTS_BATCH_SIZE));
+
+      rows.addAll(
+          read(
+              Operation.GET_HOPPERS_BY_IDS,
+              conn -> {
+                PreparedStatement ps = conn.prepare(HOPPERS_BY_IDS_SQL);
+
+                for (int i = 0; i < EXISTS_BATCH_SIZE; i++) {
+                  ps.setString(i + 1, batch.get(i < batch.size() ? i : 0));
+                }
+
+                return readHopperData(ps);
+              }));
+    }
+
+    return rows;
+  }
+
+  /**
+   * Returns every hopper stored in the given chunk, using the chunk index. Queued writes are
+   * applied on top of the stored rows, so chunk loads never wait for the writer.
+   */
+  public static List<HopperData> getHoppersInChunk(String world, int chunkX, int chunkZ)
+      throws SQLException {
+    Map<String, PersistenceQueue.PendingWrite> queued = writeQueue.snapshot();
+
+    String sql =
+        "SELECT "
+            + HOPPER_COLUMNS
+            + " FROM filtered_hoppers WHERE world = ? AND chunk_x = ? AND chunk_z = ?";
+
+    List<HopperData> rows =
+        read(
+            Operation.GET_HOPPERS_IN_CHUNK,
+            conn -> {
+              PreparedStatement ps = conn.prepare(sql);
+              ps.setString(1, world);
+              ps.setInt(2, chunkX);
+              ps.setInt(3, chunkZ);
+              return readHopperData(ps);
+            });
+
+    return overlayPending(
+        rows,
+        queued,
+        data -> {
+          Location location = data.getLocation();
+
+          return location.getWorld() != null
+              && world.equals(location.getWorld().getName())
+              && location.getBlockX() >> 4 == chunkX
+              && location.getBlockZ() >> 4 == chunkZ;
+        },
+        true);
+  }
+
+  private static List<HopperData> readHopperData(PreparedStatement ps) throws SQLException {
+    return readHopperData(ps, Collections.emptySet());
+  }
+
+  private static List<HopperData> readHopperData(PreparedStatement ps, Set<String> excluded)
+      throws SQLException {
+    List<HopperData> entries = new ArrayList<>();
+
+    try (ResultSet rs = ps.executeQuery()) {
       while (rs.next()) {
         String id = rs.getString("id");
 
+        if (excluded.contains(id)) {
+          continue;
+        }
+
         String world = rs.getString("world");
 
         int x = rs.getInt("x");
@@ -264,75 +912,167 @@ public class DatabaseManager {
           entries.add(new HopperData(id, loc, owner, isPlaced));
         }
       }
-      return entries;
-    } finally {
-      if (rs != null) {
-        try {
-          rs.close();
-        } catch (SQLException e) {
-          // Log but don't throw to avoid suppressing the original exception
-        }
-      }
-      if (stmt != null) {
-        try {
-          stmt.close();
-        } catch (SQLException e) {
-          // Log but don't throw to avoid suppressing the original exception
-        }
-      }
     }
+
+    return entries;
+  }
+
+  /**
+   * Queues a new filtered hopper and returns its UUID. The row is written by the write-behind
+   * queue.
+   */
+  public static String insertFilteredHopper(Location location, String owner) {
+    org.bukkit.World world = location.getWorld();
+    if (world == null) {
+      Logger.getInstance().error("insertFilteredHopper called with null world; operation failed");
+      return null;
+    }
+
+    String uuid = java.util.UUID.randomUUID().toString();
+
+    writeQueue.insert(
+        uuid,
+        world.getName(),
+        location.getBlockX(),
+        location.getBlockY(),
+        location.getBlockZ(),
+        owner);
+
+    return uuid;
+  }
+
+  public static void deleteFilteredHopper(String id) {
+    FilterCache.getInstance().invalidate(id);
+
+    PermissionCache.getInstance().revokeHopper(id);
+
+    writeQueue.delete(id);
+  }
+
+  public static void markHopperAsNotPlaced(String id) {
+    writeQueue.markNotPlaced(id);
+  }
+
+  /**
+   * Queues the outcome of one explosion: hoppers that dropped as items are marked as not placed
+   * and destroyed ones are deleted. All of them are committed in the same transaction.
+   */
+  public static void removeExplodedHoppers(List<String> dropped, List<String> destroyed) {
+    for (String id : destroyed) {
+      FilterCache.getInstance().invalidate(id);
+
+      PermissionCache.getInstance().revokeHopper(id);
+    }
+
+    writeQueue.removeAll(dropped, destroyed);
+  }
+
+  public static void markHopperAsPlaced(String id, Location location) {
+    org.bukkit.World world = location.getWorld();
+    if (world == null) {
+      Logger.getInstance().error("markHopperAsPlaced called with null world; operation failed");
+      return;
+    }
+
+    writeQueue.markPlaced(
+        id, world.getName(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
   }
 
-  public static String insertFilteredHopper(Location location, String owner) {
-    String uuid = java.util.UUID.randomUUID().toString();
+  static void applyPendingWrite(
+      CachedConnection conn, String id, PersistenceQueue.PendingWrite write) throws SQLException {
+    if (write.delete) {
+      deleteFilteredHopper(conn, id);
+      return;
+    }
 
-    String sql =
-        "INSERT INTO filtered_hoppers(id, world, chunk_x, chunk_z, x, y, z, owner) VALUES(?, ?, ?, ?, ?, ?, ?, ?)";
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      org.bukkit.World world = location.getWorld();
-      if (world == null) {
-        Logger.getInstance().error("insertFilteredHopper called with null world; operation failed");
-        return null;
-      }
+    if (write.insert) {
+      PreparedStatement ps = conn.prepare(INSERT_HOPPER_SQL);
 
-      String worldName = world.getName();
+      ps.setString(1, id);
 
-      int chunkX = location.getBlockX() >> 4;
+      ps.setString(2, write.world);
 
-      int chunkZ = location.getBlockZ() >> 4;
-      ps.setString(1, uuid);
+      ps.setInt(3, write.x >> 4);
 
-      ps.setString(2, worldName);
+      ps.setInt(4, write.z >> 4);
 
-      ps.setInt(3, chunkX);
+      ps.setInt(5, write.x);
 
-      ps.setInt(4, chunkZ);
+      ps.setInt(6, write.y);
 
-      ps.setInt(5, location.getBlockX());
+      ps.setInt(7, write.z);
 
-      ps.setInt(6, location.getBlockY());
+      ps.setString(8, write.owner);
 
-      ps.setInt(7, location.getBlockZ());
+      ps.setInt(9, Boolean.FALSE.equals(write.placed) ? 0 : 1);
 
-      ps.setString(8, owner);
+      ps.setBytes(10, write.hasItems ? encodeItems(write.items) : null);
 
       ps.executeUpdate();
 
-      return uuid;
-    } catch (SQLException e) {
-      Logger.getInstance()
-          .error("Failed to insert filtered hopper into database: " + e.getMessage());
+      Logger.getInstance().debug("Inserted filtered hopper " + id + " into database");
+      return;
+    }
+
+    if (write.hasPosition && Boolean.TRUE.equals(write.placed)) {
+      PreparedStatement ps = conn.prepare(UPDATE_PLACED_POSITION_SQL);
+
+      ps.setString(1, write.world);
+
+      ps.setInt(2, write.x >> 4);
+
+      ps.setInt(3, write.z >> 4);
+
+      ps.setInt(4, write.x);
+
+      ps.setInt(5, write.y);
+
+      ps.setInt(6, write.z);
+
+      ps.setString(7, id);
+
+      int rowsUpdated = ps.executeUpdate();
+
+      if (rowsUpdated > 0) {
+        Logger.getInstance()
+            .debug("Marked hopper " + id + " as placed and updated position in database");
+      } else {
+        Logger.getInstance()
+            .warning("No hopper found with id " + id + " to mark as placed and update position");
+      }
+    } else if (write.placed != null) {
+      PreparedStatement ps = conn.prepare("UPDATE filtered_hoppers SET is_placed = ? WHERE id = ?");
+
+      ps.setInt(1, write.placed ? 1 : 0);
+
+      ps.setString(2, id);
+
+      int rowsUpdated = ps.executeUpdate();
+
+      if (rowsUpdated > 0) {
+        Logger.getInstance()
+            .debug("Marked hopper " + id + " as " + (write.placed ? "" : "not ") + "placed");
+      } else {
+        Logger.getInstance()
+            .warning("No hopper found with id " + id + " to update placement state");
+      }
     }
 
-    return null;
+    if (write.hasItems) {
+      PreparedStatement ps =
+          conn.prepare("UPDATE filtered_hoppers SET item_data = ?, items = NULL WHERE id = ?");
+      ps.setBytes(1, encodeItems(write.items));
+      ps.setString(2, id);
+      ps.executeUpdate();
+    }
   }
 
-  public static void deleteFilteredHopper(String id) {
+  private static void deleteFilteredHopper(CachedConnection conn, String id) {
     // Remove permissions for this hopper before deleting
-    removeAllPermissionsForHopper(id);
+    removeAllPermissionsForHopper(conn, id);
     String owner = null;
-    try (PreparedStatement ps =
-        connection.prepareStatement("SELECT owner FROM filtered_hoppers WHERE id = ?")) {
+    try {
+      PreparedStatement ps = conn.prepare("SELECT owner FROM filtered_hoppers WHERE id = ?");
       ps.setString(1, id);
       try (ResultSet rs = ps.executeQuery()) {
         if (rs.next()) {
@@ -342,8 +1082,8 @@ public class DatabaseManager {
     } catch (SQLException e) {
       Logger.getInstance().error("Failed to fetch owner for hopper " + id + ": " + e.getMessage());
     }
-    String sql = "DELETE FROM filtered_hoppers WHERE id = ?";
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
+    try {
+      PreparedStatement ps = conn.prepare("DELETE FROM filtered_hoppers WHERE id = ?");
       ps.setString(1, id);
       ps.executeUpdate();
     } catch (SQLException e) {
@@ -354,8 +1094,9 @@ public class DatabaseManager {
     // for owner
     if (owner != null) {
       boolean hasMore = false;
-      try (PreparedStatement ps =
-          connection.prepareStatement("SELECT 1 FROM filtered_hoppers WHERE owner = ? LIMIT 1")) {
+      try {
+        PreparedStatement ps =
+            conn.prepare("SELECT 1 FROM filtered_hoppers WHERE owner = ? LIMIT 1");
         ps.setString(1, owner);
         try (ResultSet rs = ps.executeQuery()) {
           if (rs.next()) {
@@ -367,233 +1108,364 @@ public class DatabaseManager {
             .error("Failed to check remaining hoppers for owner " + owner + ": " + e.getMessage());
       }
       if (!hasMore) {
-        removeAllGlobalPermissionsForOwner(owner);
+        removeAllGlobalPermissionsForOwner(conn, owner);
       }
     }
   }
 
-  public static void markHopperAsNotPlaced(String id) {
-    String sql = "UPDATE filtered_hoppers SET is_placed = 0 WHERE id = ?";
+  /** Returns the creative stash of a player in the order the items were stashed. */
+  public static List<ItemStack> loadCreativeHoppers(UUID playerId) throws SQLException {
+    String sql = "SELECT item_data FROM creative_hopper_items WHERE player_uuid = ? ORDER BY id";
 
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, id);
+    return read(
+        Operation.LOAD_CREATIVE_HOPPERS,
+        conn -> {
+          PreparedStatement ps = conn.prepare(sql);
 
-      int rowsUpdated = ps.executeUpdate();
+          ps.setString(1, playerId.toString());
 
-      if (rowsUpdated > 0) {
-        Logger.getInstance().debug("Marked hopper " + id + " as not placed in database");
-      } else {
-        Logger.getInstance().warning("No hopper found with id " + id + " to mark as not placed");
-      }
-    } catch (SQLException e) {
-      Logger.getInstance().error("Failed to mark filtered hopper as not placed: " + e.getMessage());
-    }
+          List<ItemStack> items = new ArrayList<>();
+
+          try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+              items.addAll(decodeItems(rs.getBytes(1), null, "creative hopper of " + playerId));
+            }
+          }
+
+          return items;
+        });
   }
 
-  public static void markHopperAsPlaced(String id, Location location) {
-    String sql =
-        "UPDATE filtered_hoppers SET is_placed = 1, world = ?, chunk_x = ?, chunk_z = ?, x = ?, y = ?, z = ? WHERE id = ?";
+  /**
+   * Writes queued creative stash changes in one transaction. A replaced stash drops the player's
+   * rows first; every item is then inserted as its own row.
+   */
+  static void saveCreativeStashes(Map<UUID, CreativeStashManager.PendingStash> batch)
+      throws SQLException {
+    Map<String, List<byte[]>> rows = new LinkedHashMap<>();
 
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      org.bukkit.World world = location.getWorld();
-      if (world == null) {
-        Logger.getInstance().error("markHopperAsPlaced called with null world; operation failed");
-        return;
+    for (Map.Entry<UUID, CreativeStashManager.PendingStash> entry : batch.entrySet()) {
+      List<byte[]> encoded = new ArrayList<>(entry.getValue().items.size());
+
+      for (ItemStack item : entry.getValue().items) {
+        encoded.add(encodeItems(Collections.singletonList(item)));
       }
 
-      ps.setString(1, world.getName());
+      rows.put(entry.getKey().toString(), encoded);
+    }
 
-      ps.setInt(2, location.getBlockX() >> 4);
+    write(
+        Operation.SAVE_CREATIVE_STASHES,
+        conn -> {
+          Connection connection = conn.getConnection();
 
-      ps.setInt(3, location.getBlockZ() >> 4);
+          PreparedStatement delete =
+              conn.prepare("DELETE FROM creative_hopper_items WHERE player_uuid = ?");
 
-      ps.setInt(4, location.getBlockX());
+          PreparedStatement insert = conn.prepare(INSERT_CREATIVE_ITEM_SQL);
 
-      ps.setInt(5, location.getBlockY());
+          connection.setAutoCommit(false);
 
-      ps.setInt(6, location.getBlockZ());
+          try {
+            for (Map.Entry<UUID, CreativeStashManager.PendingStash> entry : batch.entrySet()) {
+              String player = entry.getKey().toString();
 
-      ps.setString(7, id);
+              if (entry.getValue().replace) {
+                delete.setString(1, player);
+                delete.executeUpdate();
+              }
 
-      int rowsUpdated = ps.executeUpdate();
+              for (byte[] data : rows.get(player)) {
+                insert.setString(1, player);
+                insert.setBytes(2, data);
+                insert.addBatch();
+              }
+            }
 
-      if (rowsUpdated > 0) {
-        Logger.getInstance()
-            .debug(
-                "Marked hopper "
-                    + id
-                    + " as placed and updated position in database to "
-                    + location);
-      } else {
-        Logger.getInstance()
-            .warning("No hopper found with id " + id + " to mark as placed and update position");
-      }
-    } catch (SQLException e) {
-      Logger.getInstance()
-          .error("Failed to mark filtered hopper as placed and update position: " + e.getMessage());
-    }
+            insert.executeBatch();
+
+            connection.commit();
+          } catch (SQLException e) {
+            insert.clearBatch();
+            connection.rollback();
+            throw e;
+          } finally {
+            connection.setAutoCommit(true);
+          }
+
+          return null;
+        });
   }
 
-  public static void saveCreativeHoppers(UUID playerId, List<ItemStack> items) throws SQLException {
-    YamlConfiguration tmp = new YamlConfiguration();
+  public static void flushAndSync() {
+    if (writeQueue != null) {
+      try {
+        write(
+            Operation.FLUSH_AND_SYNC,
+            conn -> {
+              Connection connection = conn.getConnection();
 
-    tmp.set("items", items);
+              try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA synchronous = FULL");
 
-    String serialized = tmp.saveToString();
+                stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+              }
 
-    String sql = "INSERT OR REPLACE INTO creative_hoppers(player_uuid, items) VALUES(?, ?)";
+              if (!connection.getAutoCommit()) {
+                connection.commit();
+              }
 
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, playerId.toString());
+              return null;
+            });
 
-      ps.setString(2, serialized);
+        Logger.getInstance()
+            .debug(
+                "Database flush and sync completed (PRAGMA synchronous=FULL, checkpoint, commit)");
+      } catch (Exception e) {
+        Logger.getInstance().warning("Database flush/sync failed: " + e.getMessage());
+      }
+    }
+  }
 
-      ps.executeUpdate();
+  public static boolean filteredHopperExists(String uuid) {
+    PersistenceQueue.PendingWrite pending = writeQueue.peek(uuid);
+    if (pending != null && (pending.insert || pending.delete)) {
+      return pending.insert;
+    }
+    String sql = "SELECT 1 FROM filtered_hoppers WHERE id = ? LIMIT 1";
+    try {
+      return read(
+          Operation.FILTERED_HOPPER_EXISTS,
+          conn -> {
+            PreparedStatement ps = conn.prepare(sql);
+            ps.setString(1, uuid);
+            try (ResultSet rs = ps.executeQuery()) {
+              return rs.next();
+            }
+          });
+    } catch (SQLException e) {
+      Logger.getInstance().error("Failed to check existence of filtered hopper: " + e.getMessage());
+      return false;
     }
   }
 
-  public static List<ItemStack> loadCreativeHoppers(UUID playerId) throws SQLException {
-    String sql = "SELECT items FROM creative_hoppers WHERE player_uuid = ?";
+  /**
+   * Returns which of the given hopper UUIDs exist, using one {@code IN (...)} query per {@value
+   * #EXISTS_BATCH_SIZE} ids. Queued inserts and deletes are taken into account the same way as in
+   * {@link #filteredHopperExists(String)}.
+   */
+  public static Set<String> getExistingHopperIds(Collection<String> ids) throws SQLException {
+    Set<String> existing = new HashSet<>();
 
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, playerId.toString());
+    List<String> unresolved = new ArrayList<>();
 
-      try (ResultSet rs = ps.executeQuery()) {
-        if (rs.next()) {
-          String serialized = rs.getString("items");
+    for (String id : ids) {
+      if (id == null) {
+        continue;
+      }
 
-          YamlConfiguration tmp = new YamlConfiguration();
+      PersistenceQueue.PendingWrite pending = writeQueue.peek(id);
 
-          try {
-            tmp.loadFromString(serialized);
-          } catch (InvalidConfigurationException e) {
-            Logger.getInstance()
-                .error("Failed to parse creative hoppers for " + playerId + ": " + e.getMessage());
-            return Collections.emptyList();
-          }
+      if (pending != null && (pending.insert || pending.delete)) {
+        if (pending.insert) {
+          existing.add(id);
+        }
+      } else {
+        unresolved.add(id);
+      }
+    }
 
-          List<?> raw = tmp.getList("items");
+    for (int from = 0; from < unresolved.size(); from += EXISTS_BATCH_SIZE) {
+      List<String> batch =
+          unresolved.subList(from, Math.min(unresolved.size(), from + EXISTS_BATCH_SIZE));
 
-          List<ItemStack> list = new ArrayList<>();
+      read(
+          Operation.GET_EXISTING_HOPPER_IDS,
+          conn -> {
+            PreparedStatement ps = conn.prepare(EXISTING_HOPPER_IDS_SQL);
+
+            for (int i = 0; i < EXISTS_BATCH_SIZE; i++) {
+              ps.setString(i + 1, batch.get(i < batch.size() ? i : 0));
+            }
 
-          if (raw != null) {
-            for (Object obj : raw) {
-              if (obj instanceof ItemStack) {
-                list.add((ItemStack) obj);
+            try (ResultSet rs = ps.executeQuery()) {
+              while (rs.next()) {
+                existing.add(rs.getString(1));
               }
             }
-          }
 
-          return list;
-        }
-      }
+            return null;
+          });
     }
 
-    return Collections.emptyList();
+    return existing;
   }
 
-  public static void deleteCreativeHoppers(UUID playerId) throws SQLException {
-    String sql = "DELETE FROM creative_hoppers WHERE player_uuid = ?";
-
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, playerId.toString());
+  public static void saveFilteredHopperItems(String hopperId, List<ItemStack> items) {
+    writeQueue.saveItems(hopperId, items);
+  }
 
-      ps.executeUpdate();
+  private static byte[] encodeItems(List<ItemStack> items) throws SQLException {
+    try {
+      return ItemCodec.encode(items);
+    } catch (IOException e) {
+      throw new SQLException("Failed to encode items: " + e.getMessage(), e);
     }
   }
 
-  public static void flushAndSync() {
-    if (connection != null) {
-      Statement stmt = null;
+  /**
+   * Decodes an item list column pair, preferring the binary {@code item_data} column and falling
+   * back to the legacy YAML {@code items} column for rows that have not been migrated yet.
+   */
+  private static List<ItemStack> decodeItems(byte[] data, String legacy, String description) {
+    if (data != null) {
       try {
-        stmt = connection.createStatement();
-        stmt.execute("PRAGMA synchronous = FULL");
+        return ItemCodec.decode(data);
+      } catch (IOException e) {
+        Logger.getInstance().error("Failed to decode " + description + ": " + e.getMessage());
+        return Collections.emptyList();
+      }
+    }
 
-        stmt.execute("PRAGMA wal_checkpoint(FULL)");
+    List<ItemStack> list = parseLegacyItems(legacy, description);
 
-        if (!connection.getAutoCommit()) {
-          connection.commit();
-        }
+    return list != null ? list : Collections.emptyList();
+  }
 
-        Logger.getInstance()
-            .debug(
-                "Database flush and sync completed (PRAGMA synchronous=FULL, checkpoint, commit)");
-      } catch (Exception e) {
-        Logger.getInstance().warning("Database flush/sync failed: " + e.getMessage());
-      } finally {
-        if (stmt != null) {
-          try {
-            stmt.close();
-          } catch (SQLException e) {
-            Logger.getInstance().warning("Failed to close statement: " + e.getMessage());
-          }
+  private static List<ItemStack> parseLegacyItems(String serialized, String description) {
+    if (serialized == null || serialized.isEmpty()) {
+      return Collections.emptyList();
+    }
+    YamlConfiguration tmp = new YamlConfiguration();
+    try {
+      tmp.loadFromString(serialized);
+    } catch (InvalidConfigurationException e) {
+      Logger.getInstance().error("Failed to parse " + description + ": " + e.getMessage());
+      return null;
+    }
+    List<?> raw = tmp.getList("items");
+    List<ItemStack> list = new ArrayList<>();
+    if (raw != null) {
+      for (Object obj : raw) {
+        if (obj instanceof ItemStack) {
+          list.add((ItemStack) obj);
         }
       }
     }
+    return list;
   }
 
-  public static boolean filteredHopperExists(String uuid) {
-    String sql = "SELECT 1 FROM filtered_hoppers WHERE id = ? LIMIT 1";
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, uuid);
-      try (ResultSet rs = ps.executeQuery()) {
-        return rs.next();
-      }
+  /**
+   * Converts rows still holding YAML item lists to the binary format. Runs once in the background
+   * at startup, in small transactions on the writer connection so queued writes are not held up.
+   */
+  private static void migrateLegacyItems() {
+    int converted = 0;
+
+    try {
+      int batch;
+
+      do {
+        batch =
+            write(
+                Operation.MIGRATE_LEGACY_ITEMS,
+                conn -> migrateLegacyItems(conn, "filtered_hoppers", "id"));
+        converted += batch;
+      } while (batch > 0);
     } catch (SQLException e) {
-      Logger.getInstance().error("Failed to check existence of filtered hopper: " + e.getMessage());
-      return false;
+      Logger.getInstance().error("Failed to migrate stored items: " + e.getMessage());
+    }
+
+    if (converted > 0) {
+      Logger.getInstance().info("Migrated " + converted + " stored item lists to binary format");
     }
   }
 
-  public static void saveFilteredHopperItems(String hopperId, List<ItemStack> items)
+  private static int migrateLegacyItems(CachedConnection conn, String table, String keyColumn)
       throws SQLException {
-    YamlConfiguration tmp = new YamlConfiguration();
-    tmp.set("items", items);
-    String serialized = tmp.saveToString();
-    String sql = "UPDATE filtered_hoppers SET items = ? WHERE id = ?";
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, serialized);
-      ps.setString(2, hopperId);
-      ps.executeUpdate();
+    Map<String, String> rows = new LinkedHashMap<>();
+
+    PreparedStatement select =
+        conn.prepare(
+            "SELECT "
+                + keyColumn
+                + ", items FROM "
+                + table
+                + " WHERE item_data IS NULL AND items IS NOT NULL LIMIT "
+                + LEGACY_ITEMS_BATCH_SIZE);
+
+    try (ResultSet rs = select.executeQuery()) {
+      while (rs.next()) {
+        rows.put(rs.getString(1), rs.getString(2));
+      }
+    }
+
+    if (rows.isEmpty()) {
+      return 0;
+    }
+
+    PreparedStatement update =
+        conn.prepare(
+            "UPDATE " + table + " SET item_data = ?, items = ? WHERE " + keyColumn + " = ?");
+
+    Connection connection = conn.getConnection();
+
+    connection.setAutoCommit(false);
+
+    try {
+      for (Map.Entry<String, String> row : rows.entrySet()) {
+        List<ItemStack> items = parseLegacyItems(row.getValue(), table + " row " + row.getKey());
+
+        update.setBytes(1, encodeItems(items != null ? items : Collections.emptyList()));
+
+        // Unparseable YAML is kept for manual recovery; the row reads as empty, as it did before
+        update.setString(2, items != null ? null : row.getValue());
+
+        update.setString(3, row.getKey());
+
+        update.executeUpdate();
+      }
+
+      connection.commit();
+    } catch (SQLException e) {
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(true);
     }
+
+    return rows.size();
   }
 
   public static List<ItemStack> loadFilteredHopperItems(String hopperId) throws SQLException {
-    String sql = "SELECT items FROM filtered_hoppers WHERE id = ?";
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, hopperId);
-      try (ResultSet rs = ps.executeQuery()) {
-        if (rs.next()) {
-          String serialized = rs.getString("items");
-          if (serialized == null || serialized.isEmpty()) {
-            return Collections.emptyList();
-          }
-          YamlConfiguration tmp = new YamlConfiguration();
-          try {
-            tmp.loadFromString(serialized);
-          } catch (InvalidConfigurationException e) {
-            Logger.getInstance()
-                .error(
-                    "Failed to parse filtered hopper items for "
-                        + hopperId
-                        + ": "
-                        + e.getMessage());
-            return Collections.emptyList();
+    PersistenceQueue.PendingWrite pending = writeQueue.peek(hopperId);
+    if (pending != null && (pending.hasItems || pending.insert || pending.delete)) {
+      List<ItemStack> list = new ArrayList<>();
+      if (pending.hasItems) {
+        for (ItemStack item : pending.items) {
+          if (item != null) {
+            list.add(item.clone());
           }
-          List<?> raw = tmp.getList("items");
-          List<ItemStack> list = new ArrayList<>();
-          if (raw != null) {
-            for (Object obj : raw) {
-              if (obj instanceof ItemStack) {
-                list.add((ItemStack) obj);
-              }
-            }
-          }
-          return list;
         }
       }
+      return list;
     }
-    return Collections.emptyList();
+    String sql = "SELECT item_data, items FROM filtered_hoppers WHERE id = ?";
+    return read(
+        Operation.LOAD_FILTERED_HOPPER_ITEMS,
+        conn -> {
+          PreparedStatement ps = conn.prepare(sql);
+          ps.setString(1, hopperId);
+          try (ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) {
+              return decodeItems(
+                  rs.getBytes("item_data"),
+                  rs.getString("items"),
+                  "filtered hopper items for " + hopperId);
+            }
+          }
+          return Collections.emptyList();
+        });
   }
 
   // Permisos de acceso a filtros
@@ -601,63 +1473,37 @@ public class DatabaseManager {
       throws SQLException {
     String sql =
         "INSERT OR IGNORE INTO hopper_permissions(owner, permitted, hopper_uuid) VALUES (?, ?, ?)";
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, owner);
-      ps.setString(2, permitted);
-      ps.setString(3, hopperUuid);
-      return ps.executeUpdate() > 0;
+    boolean added =
+        write(
+            Operation.ADD_HOPPER_PERMISSION,
+            conn -> {
+              PreparedStatement ps = conn.prepare(sql);
+              ps.setString(1, owner);
+              ps.setString(2, permitted);
+              ps.setString(3, hopperUuid);
+              return ps.executeUpdate() > 0;
+            });
+    if (added) {
+      PermissionCache.getInstance().grant(owner, permitted, hopperUuid);
     }
+    return added;
   }
 
+  /** Answered from {@link PermissionCache}; no database access. */
   public static boolean hasHopperPermission(String owner, String permitted, String hopperUuid)
       throws SQLException {
-    String sql =
-        "SELECT 1 FROM hopper_permissions WHERE owner = ? AND permitted = ? AND (hopper_uuid = ? OR hopper_uuid IS NULL) LIMIT 1";
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, owner);
-      ps.setString(2, permitted);
-      ps.setString(3, hopperUuid);
-      try (ResultSet rs = ps.executeQuery()) {
-        return rs.next();
-      }
-    } catch (SQLException e) {
-      Logger.getInstance().error("Failed to check hopper permission: " + e.getMessage());
-      return false;
-    }
+    return PermissionCache.getInstance().isPermitted(owner, permitted, hopperUuid);
   }
 
+  /** Answered from {@link PermissionCache}; no database access. */
   public static boolean hasAnyHopperPermission(String owner, String permitted) throws SQLException {
-    String sql =
-        "SELECT 1 FROM hopper_permissions WHERE owner = ? AND permitted = ? AND hopper_uuid IS NULL LIMIT 1";
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, owner);
-      ps.setString(2, permitted);
-      try (ResultSet rs = ps.executeQuery()) {
-        return rs.next();
-      }
-    } catch (SQLException e) {
-      Logger.getInstance().error("Failed to check any hopper permission: " + e.getMessage());
-      return false;
-    }
+    return PermissionCache.getInstance().hasGlobal(owner, permitted);
   }
 
+  /** Answered from {@link PermissionCache}; no database access. */
   public static List<String> getPermittedPlayers(String owner, String hopperUuid)
       throws SQLException {
-    List<String> permitted = new ArrayList<>();
-    String sql =
-        "SELECT permitted FROM hopper_permissions WHERE owner = ? AND (hopper_uuid = ? OR hopper_uuid IS NULL)";
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, owner);
-      ps.setString(2, hopperUuid);
-      try (ResultSet rs = ps.executeQuery()) {
-        while (rs.next()) {
-          permitted.add(rs.getString("permitted"));
-        }
-      }
-    } catch (SQLException e) {
-      Logger.getInstance().error("Failed to get permitted players: " + e.getMessage());
-    }
-    return permitted;
+    return PermissionCache.getInstance().getPermittedPlayers(owner, hopperUuid);
   }
 
   // Remover permisos de acceso a filtros
@@ -670,21 +1516,46 @@ public class DatabaseManager {
     } else {
       sql = "DELETE FROM hopper_permissions WHERE owner = ? AND permitted = ? AND hopper_uuid = ?";
     }
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, owner);
-      ps.setString(2, permitted);
-      if (hopperUuid != null) {
-        ps.setString(3, hopperUuid);
-      }
-      return ps.executeUpdate() > 0;
+    boolean removed =
+        write(
+            Operation.REMOVE_HOPPER_PERMISSION,
+            conn -> {
+              PreparedStatement ps = conn.prepare(sql);
+              ps.setString(1, owner);
+              ps.setString(2, permitted);
+              if (hopperUuid != null) {
+                ps.setString(3, hopperUuid);
+              }
+              return ps.executeUpdate() > 0;
+            });
+    if (removed) {
+      PermissionCache.getInstance().revoke(owner, permitted, hopperUuid);
     }
+    return removed;
   }
 
   public static void removeAllPermissionsForHopper(String hopperUuid) {
+    try {
+      write(
+          Operation.REMOVE_ALL_PERMISSIONS_FOR_HOPPER,
+          conn -> {
+            removeAllPermissionsForHopper(conn, hopperUuid);
+            return null;
+          });
+    } catch (SQLException e) {
+      Logger.getInstance()
+          .error(
+              "Failed to remove permissions for hopper UUID " + hopperUuid + ": " + e.getMessage());
+    }
+  }
+
+  private static void removeAllPermissionsForHopper(CachedConnection conn, String hopperUuid) {
     String sql = "DELETE FROM hopper_permissions WHERE hopper_uuid = ?";
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
+    try {
+      PreparedStatement ps = conn.prepare(sql);
       ps.setString(1, hopperUuid);
       int removed = ps.executeUpdate();
+      PermissionCache.getInstance().revokeHopper(hopperUuid);
       Logger.getInstance()
           .debug("Removed " + removed + " permissions for hopper UUID " + hopperUuid);
     } catch (SQLException e) {
@@ -696,10 +1567,26 @@ public class DatabaseManager {
 
   // Remove all global permissions for an owner (hopper_uuid IS NULL)
   public static void removeAllGlobalPermissionsForOwner(String owner) {
+    try {
+      write(
+          Operation.REMOVE_ALL_GLOBAL_PERMISSIONS_FOR_OWNER,
+          conn -> {
+            removeAllGlobalPermissionsForOwner(conn, owner);
+            return null;
+          });
+    } catch (SQLException e) {
+      Logger.getInstance()
+          .error("Failed to remove global permissions for owner " + owner + ": " + e.getMessage());
+    }
+  }
+
+  private static void removeAllGlobalPermissionsForOwner(CachedConnection conn, String owner) {
     String sql = "DELETE FROM hopper_permissions WHERE owner = ? AND hopper_uuid IS NULL";
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
+    try {
+      PreparedStatement ps = conn.prepare(sql);
       ps.setString(1, owner);
       int removed = ps.executeUpdate();
+      PermissionCache.getInstance().revokeGlobal(owner);
       Logger.getInstance().debug("Removed " + removed + " global permissions for owner " + owner);
     } catch (SQLException e) {
       Logger.getInstance()
@@ -716,16 +1603,27 @@ public class DatabaseManager {
    * @return true if the UUID exists, false otherwise
    */
   public static boolean uuidExists(String uuid) {
-    String sql = "SELECT 1 FROM filtered_hoppers WHERE id = ? LIMIT 1";
+    PersistenceQueue.PendingWrite pending = writeQueue.peek(uuid);
+    if (pending != null && (pending.insert || pending.delete)) {
+      return pending.insert;
+    }
 
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, uuid);
+    String sql = "SELECT 1 FROM filtered_hoppers WHERE id = ? LIMIT 1";
 
-      try (ResultSet rs = ps.executeQuery()) {
-        boolean exists = rs.next();
-        Logger.getInstance().debug("UUID " + uuid + " exists in database: " + exists);
-        return exists;
-      }
+    try {
+      boolean exists =
+          read(
+              Operation.UUID_EXISTS,
+              conn -> {
+                PreparedStatement ps = conn.prepare(sql);
+                ps.setString(1, uuid);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                  return rs.next();
+                }
+              });
+      Logger.getInstance().debug("UUID " + uuid + " exists in database: " + exists);
+      return exists;
     } catch (SQLException e) {
       Logger.getInstance()
           .error("Failed to check UUID existence for " + uuid + ": " + e.getMessage());
@@ -741,31 +1639,43 @@ public class DatabaseManager {
    * @return true if the UUID belongs to the player, false otherwise
    */
   public static boolean uuidBelongsToPlayer(String uuid, String playerName) {
-    String sql = "SELECT owner FROM filtered_hoppers WHERE id = ? LIMIT 1";
+    PersistenceQueue.PendingWrite pending = writeQueue.peek(uuid);
+    if (pending != null && (pending.insert || pending.delete)) {
+      return pending.insert && playerName.equals(pending.owner);
+    }
 
-    try (PreparedStatement ps = connection.prepareStatement(sql)) {
-      ps.setString(1, uuid);
+    String sql = "SELECT owner FROM filtered_hoppers WHERE id = ? LIMIT 1";
 
-      try (ResultSet rs = ps.executeQuery()) {
-        if (rs.next()) {
-          String owner = rs.getString("owner");
-          boolean belongsToPlayer = playerName.equals(owner);
-          Logger.getInstance()
-              .debug(
-                  "UUID "
-                      + uuid
-                      + " belongs to player "
-                      + playerName
-                      + ": "
-                      + belongsToPlayer
-                      + " (actual owner: "
-                      + owner
-                      + ")");
-          return belongsToPlayer;
-        } else {
-          Logger.getInstance().debug("UUID " + uuid + " not found in database");
-          return false;
-        }
+    try {
+      String owner =
+          read(
+              Operation.UUID_BELONGS_TO_PLAYER,
+              conn -> {
+                PreparedStatement ps = conn.prepare(sql);
+                ps.setString(1, uuid);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                  return rs.next() ? rs.getString("owner") : null;
+                }
+              });
+
+      if (owner != null) {
+        boolean belongsToPlayer = playerName.equals(owner);
+        Logger.getInstance()
+            .debug(
+                "UUID "
+                    + uuid
+                    + " belongs to player "
+                    + playerName
+                    + ": "
+                    + belongsToPlayer
+                    + " (actual owner: "
+                    + owner
+                    + ")");
+        return belongsToPlayer;
+      } else {
+        Logger.getInstance().debug("UUID " + uuid + " not found in database");
+        return false;
       }
     } catch (SQLException e) {
       Logger.getInstance()
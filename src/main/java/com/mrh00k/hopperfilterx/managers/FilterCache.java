@@ -0,0 +1,248 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.managers;
+
+import com.mrh00k.hopperfilterx.utils.Logger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Keeps the filter contents of every loaded filtered hopper in memory, keyed by hopper UUID, so
+ * that item move checks never have to query the database or parse YAML.
+ */
+public class FilterCache {
+
+  private final Map<String, CompiledFilter> filters = new ConcurrentHashMap<>();
+
+  private final Logger logger = Logger.getInstance();
+
+  private static final AtomicLong FILTER_VERSIONS = new AtomicLong();
+
+  private static final MetricsManager.Counter CACHE_HITS =
+      MetricsManager.getInstance().counter("filter.cache.hit");
+
+  private static final MetricsManager.Counter CACHE_MISSES =
+      MetricsManager.getInstance().counter("filter.cache.miss");
+
+  private static class FilterCacheHolder {
+    private static final FilterCache INSTANCE = new FilterCache();
+  }
+
+  public static FilterCache getInstance() {
+    return FilterCacheHolder.INSTANCE;
+  }
+
+  private FilterCache() {}
+
+  /**
+   * Compiled, immutable view of the items configured in a hopper filter. Entries without item meta
+   * are kept as a material set, so plain items are matched with a single lookup; {@link
+   * ItemStack#isSimilar} is only used for entries that carry meta.
+   */
+  public static class CompiledFilter {
+    private final EnumSet<Material> plainMaterials = EnumSet.noneOf(Material.class);
+
+    private final Map<Material, List<ItemStack>> metaEntries = new EnumMap<>(Material.class);
+
+    private final boolean empty;
+
+    private final long version = FILTER_VERSIONS.incrementAndGet();
+
+    private CompiledFilter(List<ItemStack> source) {
+      if (source != null) {
+        for (ItemStack item : source) {
+          if (item == null || item.getType() == Material.AIR) {
+            continue;
+          }
+
+          if (item.hasItemMeta()) {
+            metaEntries.computeIfAbsent(item.getType(), k -> new ArrayList<>()).add(item.clone());
+          } else {
+            plainMaterials.add(item.getType());
+          }
+        }
+      }
+
+      this.empty = plainMaterials.isEmpty() && metaEntries.isEmpty();
+    }
+
+    public boolean isEmpty() {
+      return empty;
+    }
+
+    /** Unique per compiled instance, so it changes whenever the filter contents are saved. */
+    public long getVersion() {
+      return version;
+    }
+
+    public boolean allows(ItemStack moving) {
+      if (empty) {
+        return true;
+      }
+
+      if (moving == null) {
+        return false;
+      }
+
+      // isSimilar never matches a plain entry against an item with meta (or the other way round)
+      if (!moving.hasItemMeta()) {
+        return plainMaterials.contains(moving.getType());
+      }
+
+      List<ItemStack> candidates = metaEntries.get(moving.getType());
+
+      if (candidates == null) {
+        return false;
+      }
+
+      for (ItemStack filter : candidates) {
+        if (filter.isSimilar(moving)) {
+          return true;
+        }
+      }
+
+      return false;
+    }
+  }
+
+  /**
+   * The last item with meta a hopper's filter rejected, for the filter version and source inventory
+   * it was rejected under. A vanilla hopper retries the same head item every few ticks, so matching
+   * this memo answers the retry with one comparison instead of a scan of the filter's meta entries.
+   * Plain items are not memoized; their check is already a single set lookup.
+   */
+  public static final class RejectionMemo {
+    private final long filterVersion;
+
+    private final Inventory source;
+
+    private final ItemStack sample;
+
+    private RejectionMemo(long filterVersion, Inventory source, ItemStack sample) {
+      this.filterVersion = filterVersion;
+      this.source = source;
+      this.sample = sample;
+    }
+
+    public static RejectionMemo of(CompiledFilter filter, Inventory source, ItemStack rejected) {
+      if (rejected == null || !rejected.hasItemMeta()) {
+        return null;
+      }
+
+      return new RejectionMemo(filter.version, source, rejected.clone());
+    }
+
+    public boolean matches(CompiledFilter filter, Inventory source, ItemStack moving) {
+      return filter.version == filterVersion
+          && moving != null
+          && moving.getType() == sample.getType()
+          && moving.hasItemMeta()
+          && (this.source == source || (this.source != null && this.source.equals(source)))
+          && sample.isSimilar(moving);
+    }
+  }
+
+  /**
+   * Loads the filter of a hopper from the database and stores its compiled form. Meant to be
+   * called when the hopper is loaded, preferably off the main thread.
+   */
+  public CompiledFilter load(String hopperId) {
+    if (hopperId == null) {
+      return null;
+    }
+
+    return update(hopperId, readItems(hopperId));
+  }
+
+  /**
+   * Reads the stored filter items of a hopper without compiling them. A filter that cannot be read
+   * is logged and treated as empty.
+   */
+  public List<ItemStack> readItems(String hopperId) {
+    try {
+      return DatabaseManager.loadFilteredHopperItems(hopperId);
+    } catch (SQLException e) {
+      logger.error(
+          "Failed to load filter items for hopper UUID " + hopperId + ": " + e.getMessage());
+
+      return Collections.emptyList();
+    }
+  }
+
+  /** Rebuilds the compiled filter of a hopper after its contents have been saved. */
+  public CompiledFilter update(String hopperId, List<ItemStack> items) {
+    CompiledFilter compiled = new CompiledFilter(items);
+
+    filters.put(hopperId, compiled);
+
+    logger.debug("Compiled filter for hopper UUID {}", hopperId);
+
+    return compiled;
+  }
+
+  /**
+   * Compiles {@code items} for a hopper unless a filter is already cached for it, e.g. one saved
+   * from the GUI after {@code items} were read, and returns the cached filter.
+   */
+  public CompiledFilter compileIfAbsent(String hopperId, List<ItemStack> items) {
+    return filters.computeIfAbsent(hopperId, k -> new CompiledFilter(items));
+  }
+
+  /**
+   * Returns the compiled filter of a hopper, or null if it has not been compiled. Hoppers are
+   * compiled before they are indexed, so a miss means the filter is not known yet; callers deny the
+   * transfer and let the retry queue try again, rather than letting everything through. Never reads
+   * the database.
+   */
+  public CompiledFilter get(String hopperId) {
+    CompiledFilter compiled = filters.get(hopperId);
+
+    if (compiled == null) {
+      CACHE_MISSES.increment();
+    } else {
+      CACHE_HITS.increment();
+    }
+
+    return compiled;
+  }
+
+  /** Returns whether a compiled filter is cached for the hopper, without counting a lookup. */
+  public boolean contains(String hopperId) {
+    return hopperId != null && filters.containsKey(hopperId);
+  }
+
+  public void invalidate(String hopperId) {
+    if (hopperId != null && filters.remove(hopperId) != null) {
+      logger.debug("Evicted compiled filter for hopper UUID {}", hopperId);
+    }
+  }
+
+  public int size() {
+    return filters.size();
+  }
+}
@@ -22,7 +22,10 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import org.bukkit.ChatColor;
@@ -41,6 +44,12 @@ public class MessageManager {
 
   private static final String DEFAULT_LOCALE = "en_us";
 
+  private static final String DEFAULT_PREFIX = "&8[&6HopperFilterX&8]&r";
+
+  private volatile Map<String, MessageTemplate> templates = Collections.emptyMap();
+
+  private volatile String rawPrefix = DEFAULT_PREFIX;
+
   private String selectedLocale;
 
   private MessageManager(Plugin plugin) {
@@ -149,12 +158,41 @@ public class MessageManager {
 
       loadDefaultMessages();
     }
+
+    compileTemplates();
+  }
+
+  /** Parses every loaded message once, so rendering never has to scan or translate it again. */
+  private void compileTemplates() {
+    String prefix = messages.getOrDefault("prefix", DEFAULT_PREFIX);
+
+    Map<String, MessageTemplate> compiled = new HashMap<>(messages.size() * 2);
+
+    for (Map.Entry<String, String> entry : messages.entrySet()) {
+      compiled.put(
+          entry.getKey(), MessageTemplate.compile(entry.getKey(), entry.getValue(), prefix));
+    }
+
+    this.rawPrefix = prefix;
+    this.templates = Collections.unmodifiableMap(compiled);
+
+    Logger.getInstance().debug("Compiled {} message templates", compiled.size());
+  }
+
+  private MessageTemplate template(String key) {
+    MessageTemplate template = templates.get(key);
+
+    if (template == null) {
+      template = MessageTemplate.compile(key, "&cMessage not found: " + key, rawPrefix);
+    }
+
+    return template;
   }
 
   private void loadDefaultMessages() {
     Logger.getInstance().warning("Loading default messages as fallback.");
     Logger.getInstance().info("Populating default fallback messages into memory");
-    messages.put("prefix", "&8[&6HopperFilterX&8]&r");
+    messages.put("prefix", DEFAULT_PREFIX);
     messages.put("no-permission", "&cYou don't have permission to use this command.");
     // Command messages
     messages.put("command.usage", "&eUse: /hopper give <player> [amount]");
@@ -176,13 +214,18 @@ public class MessageManager {
     messages.put(
         "command.remove-not-found", "&cNo filtered hopper with UUID {uuid} found for {player}.");
     messages.put("command.remove-no-hoppers", "&cNo filtered hoppers found for {player}.");
-    messages.put("command.usage-list", "&eUse: /hopper list <player>");
+    messages.put("command.usage-list", "&eUse: /hopper list <player> [page]");
     messages.put("command.list-header", "&bFiltered hoppers of {player}:");
     messages.put("command.list-no-hoppers", "&cNo filtered hoppers found for {player}.");
     messages.put(
         "command.list-no-hoppers-user", "&cNo filtered hoppers belonging to you were found.");
     messages.put("command.list-entry-placed", "&6State: Placed in {world} @ {x},{y},{z}");
     messages.put("command.list-entry-inventory", "&bState: In inventory");
+    messages.put("command.list-page", "&7Page {page} of {pages} ({total} hoppers)");
+    messages.put("command.list-previous", "&e[« Previous]");
+    messages.put("command.list-next", "&e[Next »]");
+    messages.put("command.list-page-hover", "&7Show page {page}");
+    messages.put("command.invalid-page", "&cInvalid page number.");
     messages.put("command.click-to-copy", "&7Click to copy");
     messages.put("command.remove-success-all", "&aRemoved all filtered hoppers for {player}.");
     messages.put(
@@ -261,26 +304,7 @@ public class MessageManager {
 
   public String getMessage(String key, Object... placeholders) {
     try {
-      String message = messages.getOrDefault(key, "&cMessage not found: " + key);
-
-      if (placeholders.length > 0 && placeholders.length % 2 == 0) {
-        for (int i = 0; i < placeholders.length; i += 2) {
-          String placeholder = "{" + placeholders[i] + "}";
-
-          String replacement = String.valueOf(placeholders[i + 1]);
-
-          message = message.replace(placeholder, replacement);
-        }
-      }
-
-      String prefix = messages.getOrDefault("prefix", "&8[&6HopperFilterX&8]&r");
-
-      if (!message.startsWith(prefix) && !key.equals("prefix")) {
-        message = prefix + " " + message;
-      }
-
-      return ChatColor.translateAlternateColorCodes('&', message);
-
+      return template(key).render(true, placeholders);
     } catch (Exception e) {
       Logger.getInstance().error("Error formatting message '" + key + "': " + e.getMessage());
 
@@ -290,20 +314,7 @@ public class MessageManager {
 
   public String getMessageWithoutPrefix(String key, Object... placeholders) {
     try {
-      String message = messages.getOrDefault(key, "&cMessage not found: " + key);
-
-      if (placeholders.length > 0 && placeholders.length % 2 == 0) {
-        for (int i = 0; i < placeholders.length; i += 2) {
-          String placeholder = "{" + placeholders[i] + "}";
-
-          String replacement = String.valueOf(placeholders[i + 1]);
-
-          message = message.replace(placeholder, replacement);
-        }
-      }
-
-      return ChatColor.translateAlternateColorCodes('&', message);
-
+      return template(key).render(false, placeholders);
     } catch (Exception e) {
       Logger.getInstance().error("Error formatting message '" + key + "': " + e.getMessage());
 
@@ -322,4 +333,130 @@ public class MessageManager {
       Logger.getInstance().error("Failed to reload messages: " + e.getMessage());
     }
   }
+
+  /**
+   * A message split into literal text and {@code {placeholder}} slots. Color codes and the prefix
+   * are applied when the template is compiled; messages without slots are rendered once and
+   * cached.
+   */
+  static final class MessageTemplate {
+    private final String head;
+
+    private final String prefixedHead;
+
+    /** Names of the placeholder slots, in order of appearance. */
+    private final String[] slots;
+
+    /** Literal text following each slot. */
+    private final String[] tails;
+
+    private final int length;
+
+    private MessageTemplate(String head, String prefixedHead, String[] slots, String[] tails) {
+      this.head = head;
+      this.prefixedHead = prefixedHead;
+      this.slots = slots;
+      this.tails = tails;
+
+      int literalLength = prefixedHead.length();
+
+      for (String tail : tails) {
+        literalLength += tail.length();
+      }
+
+      this.length = literalLength;
+    }
+
+    static MessageTemplate compile(String key, String raw, String rawPrefix) {
+      String text = ChatColor.translateAlternateColorCodes('&', raw);
+
+      List<String> slots = new ArrayList<>();
+
+      List<String> literals = new ArrayList<>();
+
+      int start = 0;
+
+      int open = text.indexOf('{');
+
+      while (open >= 0) {
+        int close = text.indexOf('}', open + 1);
+
+        if (close < 0) {
+          break;
+        }
+
+        int nameStart = text.lastIndexOf('{', close) + 1;
+
+        if (close > nameStart) {
+          literals.add(text.substring(start, nameStart - 1));
+          slots.add(text.substring(nameStart, close));
+          start = close + 1;
+        }
+
+        open = text.indexOf('{', close + 1);
+      }
+
+      literals.add(text.substring(start));
+
+      String head = literals.get(0);
+
+      String prefixedHead = head;
+
+      if (!key.equals("prefix") && !raw.startsWith(rawPrefix)) {
+        prefixedHead = ChatColor.translateAlternateColorCodes('&', rawPrefix + " ") + head;
+      }
+
+      return new MessageTemplate(
+          head,
+          prefixedHead,
+          slots.toArray(new String[0]),
+          literals.subList(1, literals.size()).toArray(new String[0]));
+    }
+
+    /**
+     * Fills the slots from {@code placeholders}, given as name/value pairs. Slots without a value,
+     * or all slots when the pairs are incomplete, keep their {@code {name}} text. {@code &} color
+     * codes in values are translated, as they were when whole messages were translated.
+     */
+    String render(boolean withPrefix, Object[] placeholders) {
+      String first = withPrefix ? prefixedHead : head;
+
+      if (slots.length == 0) {
+        return first;
+      }
+
+      boolean substitute = placeholders.length > 0 && placeholders.length % 2 == 0;
+
+      StringBuilder builder = new StringBuilder(length + slots.length * 16);
+
+      builder.append(first);
+
+      for (int i = 0; i < slots.length; i++) {
+        int value = substitute ? indexOf(slots[i], placeholders) : -1;
+
+        if (value >= 0) {
+          String text = String.valueOf(placeholders[value]);
+
+          builder.append(
+              text.indexOf('&') >= 0 ? ChatColor.translateAlternateColorCodes('&', text) : text);
+        } else {
+          builder.append('{').append(slots[i]).append('}');
+        }
+
+        builder.append(tails[i]);
+      }
+
+      return builder.toString();
+    }
+
+    private static int indexOf(String slot, Object[] placeholders) {
+      for (int i = 0; i < placeholders.length; i += 2) {
+        if (slot.equals(String.valueOf(placeholders[i]))) {
+          return i + 1;
+        }
+      }
+
+      return -1;
+    }
+  }
 }
@@ -0,0 +1,183 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.managers;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for the plugin's hot paths, reported by {@code /hopper stats}.
+ * Call sites keep a reference to their {@link Counter} or {@link Timer}, so recording a sample is
+ * only an adder increment and never a map lookup.
+ */
+public class MetricsManager {
+
+  private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+
+  private final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+
+  private volatile long sinceMillis = System.currentTimeMillis();
+
+  private static class MetricsManagerHolder {
+    private static final MetricsManager INSTANCE = new MetricsManager();
+  }
+
+  public static MetricsManager getInstance() {
+    return MetricsManagerHolder.INSTANCE;
+  }
+
+  private MetricsManager() {}
+
+  /** Monotonic event count. */
+  public static final class Counter {
+    private final LongAdder value = new LongAdder();
+
+    public void increment() {
+      value.increment();
+    }
+
+    public void add(long amount) {
+      value.add(amount);
+    }
+
+    public long get() {
+      return value.sum();
+    }
+
+    private void reset() {
+      value.reset();
+    }
+  }
+
+  /**
+   * Latency histogram with power-of-two nanosecond buckets. Percentiles are reported as the upper
+   * bound of the bucket they fall in, which is precise enough to spot regressions.
+   */
+  public static final class Timer {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    public long start() {
+      return System.nanoTime();
+    }
+
+    public void stop(long start) {
+      record(System.nanoTime() - start);
+    }
+
+    public void record(long nanos) {
+      long value = Math.max(0L, nanos);
+
+      buckets.incrementAndGet(BUCKETS - 1 - Long.numberOfLeadingZeros(value | 1L));
+
+      count.increment();
+
+      totalNanos.add(value);
+    }
+
+    public long getCount() {
+      return count.sum();
+    }
+
+    public long getMeanNanos() {
+      long samples = count.sum();
+
+      return samples == 0 ? 0 : totalNanos.sum() / samples;
+    }
+
+    public long getPercentileNanos(double quantile) {
+      long samples = 0;
+
+      long[] snapshot = new long[BUCKETS];
+
+      for (int i = 0; i < BUCKETS; i++) {
+        snapshot[i] = buckets.get(i);
+
+        samples += snapshot[i];
+      }
+
+      if (samples == 0) {
+        return 0;
+      }
+
+      long rank = (long) Math.ceil(quantile * samples);
+
+      long seen = 0;
+
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += snapshot[i];
+
+        if (seen >= rank) {
+          return i >= 62 ? Long.MAX_VALUE : (2L << i) - 1;
+        }
+      }
+
+      return Long.MAX_VALUE;
+    }
+
+    private void reset() {
+      for (int i = 0; i < BUCKETS; i++) {
+        buckets.set(i, 0);
+      }
+
+      count.reset();
+
+      totalNanos.reset();
+    }
+  }
+
+  public Counter counter(String name) {
+    return counters.computeIfAbsent(name, k -> new Counter());
+  }
+
+  public Timer timer(String name) {
+    return timers.computeIfAbsent(name, k -> new Timer());
+  }
+
+  public Map<String, Counter> getCounters() {
+    return Collections.unmodifiableMap(counters);
+  }
+
+  public Map<String, Timer> getTimers() {
+    return Collections.unmodifiableMap(timers);
+  }
+
+  public long getSinceMillis() {
+    return sinceMillis;
+  }
+
+  public void reset() {
+    for (Counter counter : counters.values()) {
+      counter.reset();
+    }
+
+    for (Timer timer : timers.values()) {
+      timer.reset();
+    }
+
+    sinceMillis = System.currentTimeMillis();
+  }
+}
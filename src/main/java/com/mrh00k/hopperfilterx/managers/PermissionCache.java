@@ -0,0 +1,222 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.managers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the hopper_permissions table as an owner &rarr; permitted player &rarr; grants
+ * graph. It is loaded once at startup and kept current by write-through from {@link
+ * DatabaseManager}, so permission checks in event handlers never touch the database. Per-hopper
+ * grants are also indexed by hopper UUID, so deleting a hopper only visits the owners that granted
+ * access to it.
+ */
+public class PermissionCache {
+
+  private final Map<String, Map<String, Grants>> owners = new ConcurrentHashMap<>();
+
+  /** Hopper UUID &rarr; owners with at least one per-hopper grant for it. */
+  private final Map<String, Set<String>> hopperOwners = new ConcurrentHashMap<>();
+
+  private static class PermissionCacheHolder {
+    private static final PermissionCache INSTANCE = new PermissionCache();
+  }
+
+  public static PermissionCache getInstance() {
+    return PermissionCacheHolder.INSTANCE;
+  }
+
+  private PermissionCache() {}
+
+  /** What one owner granted to one player: every hopper, and/or specific hopper UUIDs. */
+  private static class Grants {
+    private volatile boolean global;
+
+    private final Set<String> hoppers = ConcurrentHashMap.newKeySet();
+
+    private boolean isEmpty() {
+      return !global && hoppers.isEmpty();
+    }
+  }
+
+  /** Mirrors {@code hopper_uuid = ? OR hopper_uuid IS NULL} for the given owner and player. */
+  public boolean isPermitted(String owner, String permitted, String hopperUuid) {
+    Grants grants = getGrants(owner, permitted);
+
+    return grants != null
+        && (grants.global || (hopperUuid != null && grants.hoppers.contains(hopperUuid)));
+  }
+
+  public boolean hasGlobal(String owner, String permitted) {
+    Grants grants = getGrants(owner, permitted);
+
+    return grants != null && grants.global;
+  }
+
+  /** Players allowed to use the given hopper of {@code owner}, globally or for that hopper. */
+  public List<String> getPermittedPlayers(String owner, String hopperUuid) {
+    List<String> result = new ArrayList<>();
+
+    Map<String, Grants> byPlayer = owners.get(owner);
+
+    if (byPlayer != null) {
+      for (Map.Entry<String, Grants> entry : byPlayer.entrySet()) {
+        Grants grants = entry.getValue();
+
+        if (grants.global || (hopperUuid != null && grants.hoppers.contains(hopperUuid))) {
+          result.add(entry.getKey());
+        }
+      }
+    }
+
+    return result;
+  }
+
+  public int size() {
+    int total = 0;
+
+    for (Map<String, Grants> byPlayer : owners.values()) {
+      for (Grants grants : byPlayer.values()) {
+        total += grants.hoppers.size() + (grants.global ? 1 : 0);
+      }
+    }
+
+    return total;
+  }
+
+  void clear() {
+    owners.clear();
+    hopperOwners.clear();
+  }
+
+  void grant(String owner, String permitted, String hopperUuid) {
+    owners.compute(
+        owner,
+        (key, byPlayer) -> {
+          Map<String, Grants> map = byPlayer != null ? byPlayer : new ConcurrentHashMap<>();
+
+          Grants grants = map.computeIfAbsent(permitted, k -> new Grants());
+
+          if (hopperUuid == null) {
+            grants.global = true;
+          } else {
+            grants.hoppers.add(hopperUuid);
+
+            hopperOwners.computeIfAbsent(hopperUuid, k -> ConcurrentHashMap.newKeySet()).add(owner);
+          }
+
+          return map;
+        });
+  }
+
+  void revoke(String owner, String permitted, String hopperUuid) {
+    owners.computeIfPresent(
+        owner,
+        (key, byPlayer) -> {
+          byPlayer.computeIfPresent(
+              permitted,
+              (k, grants) -> {
+                if (hopperUuid == null) {
+                  grants.global = false;
+                } else {
+                  grants.hoppers.remove(hopperUuid);
+                }
+
+                return grants.isEmpty() ? null : grants;
+              });
+
+          if (hopperUuid != null && !grantsHopper(byPlayer, hopperUuid)) {
+            unindex(hopperUuid, owner);
+          }
+
+          return byPlayer.isEmpty() ? null : byPlayer;
+        });
+  }
+
+  /** Removes every per-hopper grant for a hopper that no longer exists. */
+  void revokeHopper(String hopperUuid) {
+    Set<String> granting = hopperOwners.remove(hopperUuid);
+
+    if (granting == null) {
+      return;
+    }
+
+    for (String owner : granting) {
+      owners.computeIfPresent(
+          owner,
+          (key, byPlayer) -> {
+            byPlayer
+                .values()
+                .removeIf(grants -> grants.hoppers.remove(hopperUuid) && grants.isEmpty());
+
+            return byPlayer.isEmpty() ? null : byPlayer;
+          });
+    }
+  }
+
+  void revokeGlobal(String owner) {
+    owners.computeIfPresent(
+        owner,
+        (key, byPlayer) -> {
+          byPlayer
+              .values()
+              .removeIf(
+                  grants -> {
+                    grants.global = false;
+
+                    return grants.isEmpty();
+                  });
+
+          return byPlayer.isEmpty() ? null : byPlayer;
+        });
+  }
+
+  private static boolean grantsHopper(Map<String, Grants> byPlayer, String hopperUuid) {
+    for (Grants grants : byPlayer.values()) {
+      if (grants.hoppers.contains(hopperUuid)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private void unindex(String hopperUuid, String owner) {
+    hopperOwners.computeIfPresent(
+        hopperUuid,
+        (key, granting) -> {
+          granting.remove(owner);
+
+          return granting.isEmpty() ? null : granting;
+        });
+  }
+
+  private Grants getGrants(String owner, String permitted) {
+    if (owner == null || permitted == null) {
+      return null;
+    }
+
+    Map<String, Grants> byPlayer = owners.get(owner);
+
+    return byPlayer == null ? null : byPlayer.get(permitted);
+  }
+}
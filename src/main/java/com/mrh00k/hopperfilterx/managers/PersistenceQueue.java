@@ -0,0 +1,575 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.managers;
+
+import com.mrh00k.hopperfilterx.utils.Logger;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Write-behind queue for filtered hopper rows. Pending operations are coalesced per hopper UUID and
+ * committed in batched transactions by a single writer thread that owns its own connection.
+ */
+class PersistenceQueue {
+  private static final long FLUSH_DELAY_MS = 250;
+
+  private static final long RETRY_DELAY_MS = 5000;
+
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+  private final CachedConnection connection;
+
+  private final long flushDelayMs;
+
+  private final ScheduledExecutorService writer;
+
+  private volatile Thread writerThread;
+
+  private final Object lock = new Object();
+
+  private final Object flushLock = new Object();
+
+  private final Logger logger = Logger.getInstance();
+
+  private final MetricsManager.Counter enqueued =
+      MetricsManager.getInstance().counter("db.queue.enqueued");
+
+  private final MetricsManager.Counter committed =
+      MetricsManager.getInstance().counter("db.queue.committed");
+
+  private final MetricsManager.Counter batchFailures =
+      MetricsManager.getInstance().counter("db.queue.batch-failures");
+
+  private final MetricsManager.Timer commitTimer = MetricsManager.getInstance().timer("db.commit");
+
+  private Map<String, PendingWrite> pending = new LinkedHashMap<>();
+
+  private Map<String, PendingWrite> inFlight = Collections.emptyMap();
+
+  private boolean flushScheduled = false;
+
+  private boolean shutdown = false;
+
+  /** Coalesced state of every write queued for one hopper since the last flush. */
+  static class PendingWrite {
+    boolean insert;
+
+    boolean delete;
+
+    String owner;
+
+    String world;
+
+    int x;
+
+    int y;
+
+    int z;
+
+    boolean hasPosition;
+
+    Boolean placed;
+
+    boolean hasItems;
+
+    List<ItemStack> items;
+
+    private PendingWrite copy() {
+      PendingWrite copy = new PendingWrite();
+      copy.insert = insert;
+      copy.delete = delete;
+      copy.owner = owner;
+      copy.world = world;
+      copy.x = x;
+      copy.y = y;
+      copy.z = z;
+      copy.hasPosition = hasPosition;
+      copy.placed = placed;
+      copy.hasItems = hasItems;
+      copy.items = items;
+      return copy;
+    }
+
+    /** Returns this state with the fields set by a later, not yet committed write applied. */
+    private PendingWrite mergedWith(PendingWrite newer) {
+      if (newer.insert || newer.delete) {
+        return newer.copy();
+      }
+
+      PendingWrite merged = copy();
+
+      if (newer.hasPosition) {
+        merged.world = newer.world;
+        merged.x = newer.x;
+        merged.y = newer.y;
+        merged.z = newer.z;
+        merged.hasPosition = true;
+      }
+
+      if (newer.placed != null) {
+        merged.placed = newer.placed;
+      }
+
+      if (newer.hasItems) {
+        merged.hasItems = true;
+        merged.items = newer.items;
+      }
+
+      return merged;
+    }
+  }
+
+  PersistenceQueue(CachedConnection connection) {
+    this(connection, FLUSH_DELAY_MS);
+  }
+
+  /** Queue that waits {@code flushDelayMs} after the first queued write before committing. */
+  PersistenceQueue(CachedConnection connection, long flushDelayMs) {
+    this.connection = connection;
+    this.flushDelayMs = flushDelayMs;
+    this.writer =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "HopperFilterX-DB-Writer");
+              thread.setDaemon(true);
+              writerThread = thread;
+              return thread;
+            });
+  }
+
+  void insert(String id, String world, int x, int y, int z, String owner) {
+    synchronized (lock) {
+      PendingWrite write = new PendingWrite();
+      write.insert = true;
+      write.owner = owner;
+      setPosition(write, world, x, y, z);
+      write.placed = Boolean.TRUE;
+      pending.remove(id);
+      pending.put(id, write);
+    }
+
+    enqueued.increment();
+
+    scheduleFlush();
+  }
+
+  void markPlaced(String id, String world, int x, int y, int z) {
+    synchronized (lock) {
+      PendingWrite write = getOrCreate(id);
+      setPosition(write, world, x, y, z);
+      write.placed = Boolean.TRUE;
+    }
+
+    enqueued.increment();
+
+    scheduleFlush();
+  }
+
+  void markNotPlaced(String id) {
+    synchronized (lock) {
+      getOrCreate(id).placed = Boolean.FALSE;
+    }
+
+    enqueued.increment();
+
+    scheduleFlush();
+  }
+
+  void saveItems(String id, List<ItemStack> items) {
+    List<ItemStack> copy = new ArrayList<>(items == null ? 0 : items.size());
+
+    if (items != null) {
+      for (ItemStack item : items) {
+        copy.add(item == null ? null : item.clone());
+      }
+    }
+
+    synchronized (lock) {
+      PendingWrite write = getOrCreate(id);
+      write.hasItems = true;
+      write.items = Collections.unmodifiableList(copy);
+    }
+
+    enqueued.increment();
+
+    scheduleFlush();
+  }
+
+  void delete(String id) {
+    synchronized (lock) {
+      PendingWrite write = new PendingWrite();
+      write.delete = true;
+      pending.remove(id);
+      pending.put(id, write);
+    }
+
+    enqueued.increment();
+
+    scheduleFlush();
+  }
+
+  /**
+   * Queues several hoppers leaving the world at once. Everything is added under one lock, so the
+   * writes always land in the same batch.
+   */
+  void removeAll(Collection<String> notPlaced, Collection<String> deleted) {
+    synchronized (lock) {
+      for (String id : notPlaced) {
+        getOrCreate(id).placed = Boolean.FALSE;
+      }
+
+      for (String id : deleted) {
+        PendingWrite write = new PendingWrite();
+        write.delete = true;
+        pending.remove(id);
+        pending.put(id, write);
+      }
+    }
+
+    enqueued.add(notPlaced.size() + deleted.size());
+
+    scheduleFlush();
+  }
+
+  /**
+   * Returns the not yet committed state of a hopper, or null if nothing is pending. Writes queued
+   * since the current batch started are applied on top of what that batch still has to commit.
+   */
+  PendingWrite peek(String id) {
+    synchronized (lock) {
+      PendingWrite write = pending.get(id);
+
+      PendingWrite committing = inFlight.get(id);
+
+      if (committing == null) {
+        return write == null ? null : write.copy();
+      }
+
+      return write == null ? committing.copy() : committing.mergedWith(write);
+    }
+  }
+
+  /** Returns the not yet committed state of every hopper with a queued write, as {@link #peek}. */
+  Map<String, PendingWrite> snapshot() {
+    synchronized (lock) {
+      if (pending.isEmpty() && inFlight.isEmpty()) {
+        return Collections.emptyMap();
+      }
+
+      Map<String, PendingWrite> merged = new HashMap<>(pending.size() + inFlight.size());
+
+      for (Map.Entry<String, PendingWrite> entry : inFlight.entrySet()) {
+        merged.put(entry.getKey(), entry.getValue().copy());
+      }
+
+      for (Map.Entry<String, PendingWrite> entry : pending.entrySet()) {
+        PendingWrite committing = inFlight.get(entry.getKey());
+
+        merged.put(
+            entry.getKey(),
+            committing == null ? entry.getValue().copy() : committing.mergedWith(entry.getValue()));
+      }
+
+      return merged;
+    }
+  }
+
+  int size() {
+    synchronized (lock) {
+      return pending.size() + inFlight.size();
+    }
+  }
+
+  /**
+   * Runs {@code work} on the writer thread in between two batches and waits for its result. Used
+   * for the few writes whose outcome the caller needs right away. Once the queue is drained the
+   * work runs on the calling thread.
+   */
+  <T> T execute(CachedConnection.Work<T> work) throws SQLException {
+    boolean inline;
+
+    synchronized (lock) {
+      inline = shutdown;
+    }
+
+    if (inline || Thread.currentThread() == writerThread) {
+      return apply(work);
+    }
+
+    Future<T> result;
+
+    try {
+      result = writer.submit(() -> apply(work));
+    } catch (RejectedExecutionException e) {
+      return apply(work);
+    }
+
+    try {
+      return result.get(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+
+      result.cancel(false);
+
+      throw new SQLException("Interrupted while waiting for the database writer", e);
+    } catch (TimeoutException e) {
+      result.cancel(false);
+
+      throw new SQLException("Timed out waiting for the database writer", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      }
+
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+
+      throw new SQLException(cause);
+    }
+  }
+
+  private <T> T apply(CachedConnection.Work<T> work) throws SQLException {
+    synchronized (flushLock) {
+      return work.apply(connection);
+    }
+  }
+
+  /**
+   * Periodically checkpoints the WAL file on the writer thread, so it is folded back into the
+   * database while the server runs instead of only at shutdown.
+   */
+  void scheduleCheckpoints(int intervalSeconds) {
+    if (intervalSeconds <= 0) {
+      return;
+    }
+
+    writer.scheduleWithFixedDelay(
+        this::checkpoint, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+  }
+
+  private void checkpoint() {
+    synchronized (flushLock) {
+      try (Statement stmt = connection.getConnection().createStatement();
+          ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(PASSIVE)")) {
+        if (rs.next()) {
+          logger.debug(
+              "WAL checkpoint: busy="
+                  + rs.getInt(1)
+                  + ", log frames="
+                  + rs.getInt(2)
+                  + ", checkpointed="
+                  + rs.getInt(3));
+        }
+      } catch (SQLException e) {
+        logger.warning("Periodic WAL checkpoint failed: " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Stops the writer thread and commits whatever is still queued on the calling thread. Writes
+   * queued afterwards are committed immediately.
+   */
+  void drain() {
+    synchronized (lock) {
+      shutdown = true;
+    }
+
+    writer.shutdown();
+
+    try {
+      if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        logger.warning("Database writer did not stop in time; committing remaining writes");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    flush();
+
+    logger.debug("Database write queue drained");
+  }
+
+  private PendingWrite getOrCreate(String id) {
+    return pending.computeIfAbsent(id, k -> new PendingWrite());
+  }
+
+  private void setPosition(PendingWrite write, String world, int x, int y, int z) {
+    write.world = world;
+    write.x = x;
+    write.y = y;
+    write.z = z;
+    write.hasPosition = true;
+  }
+
+  private void scheduleFlush() {
+    synchronized (lock) {
+      if (!shutdown) {
+        if (!flushScheduled) {
+          flushScheduled = true;
+
+          writer.schedule(this::flush, flushDelayMs, TimeUnit.MILLISECONDS);
+        }
+
+        return;
+      }
+    }
+
+    flush();
+  }
+
+  /** Commits everything queued so far. Runs on the writer thread unless the queue is drained. */
+  void flush() {
+    synchronized (flushLock) {
+      Map<String, PendingWrite> batch;
+
+      synchronized (lock) {
+        batch = pending;
+
+        pending = new LinkedHashMap<>();
+
+        inFlight = batch;
+
+        flushScheduled = false;
+      }
+
+      if (batch.isEmpty()) {
+        return;
+      }
+
+      Map<String, PendingWrite> failed = Collections.emptyMap();
+
+      try {
+        failed = commitBatch(batch);
+      } finally {
+        synchronized (lock) {
+          if (!failed.isEmpty()) {
+            requeue(failed);
+          }
+
+          inFlight = Collections.emptyMap();
+        }
+      }
+    }
+  }
+
+  /**
+   * Puts writes that failed to commit back in front of the writes queued since, which are applied
+   * on top of them, and schedules a retry. Must be called holding {@link #lock}.
+   */
+  private void requeue(Map<String, PendingWrite> failed) {
+    Map<String, PendingWrite> merged = new LinkedHashMap<>(failed);
+
+    for (Map.Entry<String, PendingWrite> entry : pending.entrySet()) {
+      PendingWrite older = merged.get(entry.getKey());
+
+      merged.put(
+          entry.getKey(), older == null ? entry.getValue() : older.mergedWith(entry.getValue()));
+    }
+
+    pending = merged;
+
+    if (shutdown) {
+      logger.error("Queued writes of " + failed.size() + " hoppers were not saved");
+    } else if (!flushScheduled) {
+      flushScheduled = true;
+
+      writer.schedule(this::flush, RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /** Commits a batch in one transaction and returns the writes that could not be committed. */
+  private Map<String, PendingWrite> commitBatch(Map<String, PendingWrite> batch) {
+    long start = commitTimer.start();
+
+    try {
+      connection.getConnection().setAutoCommit(false);
+
+      for (Map.Entry<String, PendingWrite> entry : batch.entrySet()) {
+        DatabaseManager.applyPendingWrite(connection, entry.getKey(), entry.getValue());
+      }
+
+      connection.getConnection().commit();
+
+      committed.add(batch.size());
+
+      logger.debug("Committed {} queued hopper writes in one transaction", batch.size());
+
+      return Collections.emptyMap();
+    } catch (SQLException e) {
+      batchFailures.increment();
+
+      logger.error("Batched hopper write failed, retrying one by one: " + e.getMessage());
+
+      try {
+        connection.getConnection().rollback();
+      } catch (SQLException rollbackError) {
+        logger.warning("Failed to roll back batched hopper write: " + rollbackError.getMessage());
+      }
+
+      return commitIndividually(batch);
+    } finally {
+      try {
+        connection.getConnection().setAutoCommit(true);
+      } catch (SQLException e) {
+        logger.warning("Failed to restore auto-commit on writer connection: " + e.getMessage());
+      }
+
+      commitTimer.stop(start);
+    }
+  }
+
+  private Map<String, PendingWrite> commitIndividually(Map<String, PendingWrite> batch) {
+    Map<String, PendingWrite> failed = new LinkedHashMap<>();
+
+    for (Map.Entry<String, PendingWrite> entry : batch.entrySet()) {
+      try {
+        connection.getConnection().setAutoCommit(true);
+
+        DatabaseManager.applyPendingWrite(connection, entry.getKey(), entry.getValue());
+
+        committed.increment();
+      } catch (SQLException e) {
+        logger.error("Failed to persist hopper " + entry.getKey() + ": " + e.getMessage());
+
+        failed.put(entry.getKey(), entry.getValue());
+      }
+    }
+
+    return failed;
+  }
+}
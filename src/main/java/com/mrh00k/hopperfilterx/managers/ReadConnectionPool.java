@@ -0,0 +1,87 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.managers;
+
+import com.mrh00k.hopperfilterx.utils.Logger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small fixed pool of read-only connections. In WAL mode readers never block the writer, so point
+ * lookups from the main thread and async loads can run while the write queue commits a batch.
+ */
+class ReadConnectionPool {
+  private static final long BORROW_TIMEOUT_MS = 10000;
+
+  private final List<CachedConnection> connections;
+
+  private final BlockingQueue<CachedConnection> idle;
+
+  ReadConnectionPool(List<CachedConnection> connections) {
+    this.connections = new ArrayList<>(connections);
+    this.idle = new ArrayBlockingQueue<>(connections.size(), false, connections);
+  }
+
+  /**
+   * Runs {@code work} on an idle connection, waiting for one to be returned if all are busy. Work
+   * must not call back into the pool, otherwise a small pool can starve itself.
+   */
+  <T> T execute(CachedConnection.Work<T> work) throws SQLException {
+    CachedConnection connection;
+
+    try {
+      connection = idle.poll(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+
+      throw new SQLException("Interrupted while waiting for a read connection", e);
+    }
+
+    if (connection == null) {
+      throw new SQLException("Timed out waiting for a read connection");
+    }
+
+    try {
+      return work.apply(connection);
+    } finally {
+      idle.offer(connection);
+    }
+  }
+
+  int size() {
+    return connections.size();
+  }
+
+  void close() {
+    for (CachedConnection connection : connections) {
+      try {
+        if (!connection.isClosed()) {
+          connection.close();
+        }
+      } catch (SQLException e) {
+        Logger.getInstance().warning("Failed to close read connection: " + e.getMessage());
+      }
+    }
+
+    idle.clear();
+  }
+}
@@ -61,7 +61,7 @@ public class SoundManager {
       spawnParticle(
           Particle.HAPPY_VILLAGER, location.clone().add(0.5, 0.8, 0.5), 8, 0.3, 0.2, 0.3, 0.0);
 
-      logger.debug("Played hopper placed sound and effects for player " + player.getName());
+      logger.debug("Played hopper placed sound and effects for player {}", player.getName());
     } catch (Exception e) {
       logger.error("Failed to play hopper placed sound: " + e.getMessage());
     }
@@ -75,7 +75,7 @@ public class SoundManager {
 
       spawnParticle(Particle.FLAME, location.clone().add(0.5, 0.5, 0.5), 6, 0.2, 0.2, 0.2, 0.0);
 
-      logger.debug("Played hopper broken sound and effects for player " + player.getName());
+      logger.debug("Played hopper broken sound and effects for player {}", player.getName());
     } catch (Exception e) {
       logger.error("Failed to play hopper broken sound: " + e.getMessage());
     }
@@ -88,7 +88,7 @@ public class SoundManager {
 
       spawnParticle(Particle.CRIT, location.clone().add(0.5, 0.8, 0.5), 12, 0.4, 0.3, 0.4, 0.5);
 
-      logger.debug("Played hopper config sound and effects for player " + player.getName());
+      logger.debug("Played hopper config sound and effects for player {}", player.getName());
     } catch (Exception e) {
       logger.error("Failed to play hopper config sound: " + e.getMessage());
     }
@@ -105,7 +105,7 @@ public class SoundManager {
             0.3f,
             1.8f);
 
-        logger.debug("Played hopper given success sound for sender " + sender.getName());
+        logger.debug("Played hopper given success sound for sender {}", sender.getName());
       }
 
       float pitch = Math.min(2.0f, 1.0f + (amount * 0.1f));
@@ -128,11 +128,9 @@ public class SoundManager {
           Particle.FLAME, receiver.getLocation().clone().add(0, 1, 0), 8, 0.5, 0.5, 0.5, 0.1);
 
       logger.debug(
-          "Played hopper received sound and effects for player "
-              + receiver.getName()
-              + " (amount: "
-              + amount
-              + ")");
+          "Played hopper received sound and effects for player {} (amount: {})",
+          receiver.getName(),
+          amount);
     } catch (Exception e) {
       logger.error("Failed to play hopper given sound: " + e.getMessage());
     }
@@ -156,7 +154,7 @@ public class SoundManager {
           0.2f,
           1.0f);
 
-      logger.debug("Played error sound for player " + player.getName());
+      logger.debug("Played error sound for player {}", player.getName());
     } catch (Exception e) {
       logger.error("Failed to play error sound: " + e.getMessage());
     }
@@ -181,7 +179,7 @@ public class SoundManager {
             0.2f,
             1.2f);
 
-        logger.debug("Played inventory replacement sound for player " + player.getName());
+        logger.debug("Played inventory replacement sound for player {}", player.getName());
       } else {
 
         play(
@@ -192,7 +190,7 @@ public class SoundManager {
             0.4f,
             1.1f);
 
-        logger.debug("Played inventory addition sound for player " + player.getName());
+        logger.debug("Played inventory addition sound for player {}", player.getName());
       }
     } catch (Exception e) {
       logger.error("Failed to play inventory management sound: " + e.getMessage());
@@ -202,7 +200,7 @@ public class SoundManager {
   public static void playChestCloseSound(Player player, Location location) {
     try {
       play(player, location, Sound.BLOCK_CHEST_CLOSE, SoundCategory.BLOCKS, 0.6f, 1.0f);
-      logger.debug("Played chest close sound for player " + player.getName());
+      logger.debug("Played chest close sound for player {}", player.getName());
     } catch (Exception e) {
       logger.error("Failed to play chest close sound: " + e.getMessage());
     }
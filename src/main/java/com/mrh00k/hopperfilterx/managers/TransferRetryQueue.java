@@ -0,0 +1,249 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.managers;
+
+import com.mrh00k.hopperfilterx.Main;
+import com.mrh00k.hopperfilterx.utils.Logger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Retries hopper transfers that a filtered destination hopper rejected. Retries are deduplicated
+ * per (source, destination) pair and processed in a single sweep once per tick, up to a fixed
+ * budget; whatever is left over waits for the next tick. Main thread only.
+ */
+public class TransferRetryQueue {
+  private final ChunkHopperManager chunkHopperManager;
+
+  private final FilterCache filterCache = FilterCache.getInstance();
+
+  private final Logger logger = Logger.getInstance();
+
+  private final int budgetPerTick;
+
+  private Map<Pair, Retry> pending = new LinkedHashMap<>();
+
+  private boolean scheduled = false;
+
+  private static final class Pair {
+    private final Inventory source;
+
+    private final Inventory destination;
+
+    private final int hash;
+
+    private Pair(Inventory source, Inventory destination) {
+      this.source = source;
+      this.destination = destination;
+      this.hash = 31 * source.hashCode() + destination.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+
+      if (!(obj instanceof Pair)) {
+        return false;
+      }
+
+      Pair other = (Pair) obj;
+
+      return source.equals(other.source) && destination.equals(other.destination);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static final class Retry {
+    private final World world;
+
+    private final int x;
+
+    private final int y;
+
+    private final int z;
+
+    private Retry(World world, int x, int y, int z) {
+      this.world = world;
+      this.x = x;
+      this.y = y;
+      this.z = z;
+    }
+  }
+
+  public TransferRetryQueue(ChunkHopperManager chunkHopperManager, int budgetPerTick) {
+    this.chunkHopperManager = chunkHopperManager;
+    this.budgetPerTick = Math.max(1, budgetPerTick);
+  }
+
+  /**
+   * Queues a retry for a move into the filtered hopper at the given block. Further blocked moves
+   * for the same pair before the next sweep are merged into this one.
+   */
+  public void enqueue(Inventory source, Inventory destination, World world, int x, int y, int z) {
+    if (source == null || destination == null || world == null) {
+      return;
+    }
+
+    pending.putIfAbsent(new Pair(source, destination), new Retry(world, x, y, z));
+
+    scheduleSweep();
+  }
+
+  public int size() {
+    return pending.size();
+  }
+
+  private void scheduleSweep() {
+    if (scheduled) {
+      return;
+    }
+
+    scheduled = true;
+
+    Bukkit.getScheduler().runTaskLater(JavaPlugin.getPlugin(Main.class), this::sweep, 1L);
+  }
+
+  private void sweep() {
+    scheduled = false;
+
+    Map<Pair, Retry> batch = pending;
+
+    pending = new LinkedHashMap<>();
+
+    int processed = 0;
+
+    int moved = 0;
+
+    Iterator<Map.Entry<Pair, Retry>> it = batch.entrySet().iterator();
+
+    while (it.hasNext() && processed < budgetPerTick) {
+      Map.Entry<Pair, Retry> entry = it.next();
+
+      it.remove();
+
+      processed++;
+
+      if (retry(entry.getKey(), entry.getValue())) {
+        moved++;
+      }
+    }
+
+    // Over budget: carry the rest over, behind anything queued since
+    if (!batch.isEmpty()) {
+      for (Map.Entry<Pair, Retry> entry : batch.entrySet()) {
+        pending.putIfAbsent(entry.getKey(), entry.getValue());
+      }
+    }
+
+    if (!pending.isEmpty()) {
+      scheduleSweep();
+    }
+
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          "Transfer retry sweep: {} pairs processed, {} items moved, {} deferred",
+          processed,
+          moved,
+          pending.size());
+    }
+  }
+
+  private boolean retry(Pair pair, Retry retry) {
+    DatabaseManager.HopperData current =
+        chunkHopperManager.getHopperData(retry.world, retry.x, retry.y, retry.z);
+
+    if (current == null) {
+      return false;
+    }
+
+    // Skip a full destination without scanning the source at all
+    if (pair.destination.firstEmpty() == -1 && !hasPartialStack(pair.destination)) {
+      return false;
+    }
+
+    FilterCache.CompiledFilter filter = filterCache.get(current.getId());
+
+    // Not compiled yet; the next vanilla move attempt queues this pair again
+    if (filter == null) {
+      return false;
+    }
+
+    for (ItemStack stack : pair.source.getContents()) {
+      if (stack == null || stack.getType() == Material.AIR || !filter.allows(stack)) {
+        continue;
+      }
+
+      // No room for this stack: leave it in the source instead of moving it into the void
+      if (!canAccept(pair.destination, stack)) {
+        continue;
+      }
+
+      ItemStack toMove = stack.clone();
+
+      toMove.setAmount(1);
+
+      pair.source.removeItem(toMove);
+
+      pair.destination.addItem(toMove);
+
+      return true;
+    }
+
+    return false;
+  }
+
+  private static boolean hasPartialStack(Inventory inventory) {
+    for (ItemStack slot : inventory.getStorageContents()) {
+      if (slot != null
+          && slot.getAmount() < Math.min(slot.getMaxStackSize(), inventory.getMaxStackSize())) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static boolean canAccept(Inventory inventory, ItemStack item) {
+    if (inventory.firstEmpty() != -1) {
+      return true;
+    }
+
+    for (ItemStack slot : inventory.getStorageContents()) {
+      if (slot != null
+          && slot.getAmount() < Math.min(slot.getMaxStackSize(), inventory.getMaxStackSize())
+          && slot.isSimilar(item)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+}
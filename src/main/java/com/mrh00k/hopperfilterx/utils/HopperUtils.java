@@ -19,6 +19,8 @@ package com.mrh00k.hopperfilterx.utils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
 import org.bukkit.Material;
@@ -26,9 +28,97 @@ import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 
 public class HopperUtils {
+  private static final String OWNER_LORE_PREFIX = "Owner: ";
+
+  private static volatile ItemKeys itemKeys;
+
+  /** Persistent data keys of a filtered hopper item, in the namespace of its marker key. */
+  private static final class ItemKeys {
+    private final String namespace;
+
+    private final NamespacedKey uuid;
+
+    private final NamespacedKey owner;
+
+    private final NamespacedKey ownerName;
+
+    private ItemKeys(String namespace) {
+      this.namespace = namespace;
+      this.uuid = new NamespacedKey(namespace, "uuid");
+      this.owner = new NamespacedKey(namespace, "owner");
+      this.ownerName = new NamespacedKey(namespace, "owner_name");
+    }
+  }
+
+  /**
+   * Returns the item keys for the namespace of {@code filteredHopperKey}, creating them on first
+   * use so that loading this class never needs the plugin instance.
+   */
+  private static ItemKeys keys(NamespacedKey filteredHopperKey) {
+    ItemKeys keys = itemKeys;
+
+    if (keys == null || !keys.namespace.equals(filteredHopperKey.getNamespace())) {
+      keys = new ItemKeys(filteredHopperKey.getNamespace());
+
+      itemKeys = keys;
+    }
+
+    return keys;
+  }
+
+  /**
+   * Hopper UUID and owner stored on a filtered hopper item. Items written before the owner was kept
+   * in persistent data carry it only in their lore; see {@link #migrateOwner}.
+   */
+  public static final class FilteredHopperInfo {
+    private final String hopperId;
+
+    private final UUID ownerId;
+
+    private final String ownerName;
+
+    private final boolean legacyOwner;
+
+    private FilteredHopperInfo(
+        String hopperId, UUID ownerId, String ownerName, boolean legacyOwner) {
+      this.hopperId = hopperId;
+      this.ownerId = ownerId;
+      this.ownerName = ownerName;
+      this.legacyOwner = legacyOwner;
+    }
+
+    public String getHopperId() {
+      return hopperId;
+    }
+
+    /** The owner's UUID, or null for items whose owner has not been resolved yet. */
+    public UUID getOwnerId() {
+      return ownerId;
+    }
+
+    /** The name the hopper is registered under, which permissions are keyed by. */
+    public String getOwnerName() {
+      return ownerName;
+    }
+
+    /** Whether the owner was read from the lore rather than from persistent data. */
+    public boolean isLegacyOwner() {
+      return legacyOwner;
+    }
+
+    /** Compares by UUID when it is known, so owners keep their hoppers across renames. */
+    public boolean isOwnedBy(Player player) {
+      if (ownerId != null) {
+        return ownerId.equals(player.getUniqueId());
+      }
+
+      return ownerName != null && ownerName.equals(player.getName());
+    }
+  }
 
   public static ItemStack createFilteredHopper(NamespacedKey filteredHopperKey) {
     if (filteredHopperKey == null) {
@@ -83,7 +173,7 @@ public class HopperUtils {
         meta.getPersistentDataContainer().has(filteredHopperKey, PersistentDataType.BYTE);
 
     Logger.getInstance()
-        .debug("Checked hopper filter status: " + isFiltered + " for item " + item.getType());
+        .debug("Checked hopper filter status: {} for item {}", isFiltered, item.getType());
 
     return isFiltered;
   }
@@ -99,13 +189,10 @@ public class HopperUtils {
 
     Logger.getInstance()
         .debug(
-            "Player "
-                + player.getName()
-                + " game mode check: "
-                + player.getGameMode()
-                + " (survival: "
-                + isSurvival
-                + ")");
+            "Player {} game mode check: {} (survival: {})",
+            player.getName(),
+            player.getGameMode(),
+            isSurvival);
 
     return isSurvival;
   }
@@ -121,19 +208,32 @@ public class HopperUtils {
 
     Logger.getInstance()
         .debug(
-            "Player "
-                + player.getName()
-                + " game mode check: "
-                + player.getGameMode()
-                + " (creative: "
-                + isCreative
-                + ")");
+            "Player {} game mode check: {} (creative: {})",
+            player.getName(),
+            player.getGameMode(),
+            isCreative);
 
     return isCreative;
   }
 
+  /**
+   * Tags a filtered hopper with its UUID and owner. The owner's UUID is stored when the owner is
+   * online; otherwise it is filled in later by {@link #migrateOwner}.
+   */
   public static ItemStack addUuidToFilteredHopper(
       ItemStack item, String uuid, String player, NamespacedKey filteredHopperKey) {
+    Player owner = player == null ? null : Bukkit.getPlayerExact(player);
+
+    return addUuidToFilteredHopper(
+        item, uuid, player, owner == null ? null : owner.getUniqueId(), filteredHopperKey);
+  }
+
+  public static ItemStack addUuidToFilteredHopper(
+      ItemStack item,
+      String uuid,
+      String player,
+      UUID playerId,
+      NamespacedKey filteredHopperKey) {
     if (item == null || uuid == null || filteredHopperKey == null) {
       Logger.getInstance().warning("Cannot add UUID to filtered hopper: null parameters");
 
@@ -149,22 +249,24 @@ public class HopperUtils {
     ItemMeta meta = item.getItemMeta();
 
     if (meta != null) {
-      NamespacedKey uuidKey = new NamespacedKey(filteredHopperKey.getNamespace(), "uuid");
+      ItemKeys keys = keys(filteredHopperKey);
+
+      meta.getPersistentDataContainer().set(keys.uuid, PersistentDataType.STRING, uuid);
 
-      meta.getPersistentDataContainer().set(uuidKey, PersistentDataType.STRING, uuid);
+      writeOwner(meta, keys, player, playerId);
 
       List<String> lore = new ArrayList<>();
 
       lore.add(ChatColor.GRAY + "UUID: " + uuid);
 
-      lore.add(ChatColor.GRAY + "Owner: " + player);
+      lore.add(ChatColor.GRAY + OWNER_LORE_PREFIX + player);
 
       meta.setLore(lore);
 
       if (!item.setItemMeta(meta)) {
         Logger.getInstance().error("Failed to set UUID metadata on filtered hopper");
       } else {
-        Logger.getInstance().debug("Successfully added UUID " + uuid + " to filtered hopper item");
+        Logger.getInstance().debug("Successfully added UUID {} to filtered hopper item", uuid);
       }
     } else {
       Logger.getInstance().error("Failed to get item meta when adding UUID to filtered hopper");
@@ -185,12 +287,12 @@ public class HopperUtils {
     ItemMeta meta = item.getItemMeta();
 
     if (meta != null) {
-      NamespacedKey uuidKey = new NamespacedKey(filteredHopperKey.getNamespace(), "uuid");
+      ItemKeys keys = keys(filteredHopperKey);
 
-      String uuid = meta.getPersistentDataContainer().get(uuidKey, PersistentDataType.STRING);
+      String uuid = meta.getPersistentDataContainer().get(keys.uuid, PersistentDataType.STRING);
 
       Logger.getInstance()
-          .debug("Extracted UUID from filtered hopper: " + (uuid != null ? uuid : "none"));
+          .debug("Extracted UUID from filtered hopper: {}", uuid != null ? uuid : "none");
 
       return uuid;
     }
@@ -198,6 +300,127 @@ public class HopperUtils {
     return null;
   }
 
+  /**
+   * Reads the hopper UUID and owner of a filtered hopper with a single {@link ItemMeta} copy.
+   * Returns null if the item is not a filtered hopper.
+   */
+  public static FilteredHopperInfo getFilteredHopperInfo(
+      ItemStack item, NamespacedKey filteredHopperKey) {
+    if (item == null || item.getType() != Material.HOPPER || filteredHopperKey == null) {
+      return null;
+    }
+
+    ItemMeta meta = item.getItemMeta();
+
+    if (meta == null) {
+      return null;
+    }
+
+    PersistentDataContainer data = meta.getPersistentDataContainer();
+
+    if (!data.has(filteredHopperKey, PersistentDataType.BYTE)) {
+      return null;
+    }
+
+    ItemKeys keys = keys(filteredHopperKey);
+
+    String hopperId = data.get(keys.uuid, PersistentDataType.STRING);
+
+    String ownerId = data.get(keys.owner, PersistentDataType.STRING);
+
+    String ownerName = data.get(keys.ownerName, PersistentDataType.STRING);
+
+    boolean legacyOwner = false;
+
+    if (ownerName == null && hopperId != null) {
+      ownerName = getOwnerFromLore(meta);
+
+      legacyOwner = ownerName != null;
+    }
+
+    return new FilteredHopperInfo(hopperId, parseUuid(ownerId), ownerName, legacyOwner);
+  }
+
+  /**
+   * Stores the owner of an item in its persistent data when it is only known from the lore, or
+   * when its owner UUID is missing and the owner is now online. Called as items are seen, so
+   * existing hoppers are migrated lazily. Returns whether the item was changed.
+   */
+  public static boolean migrateOwner(
+      ItemStack item, FilteredHopperInfo info, Player viewer, NamespacedKey filteredHopperKey) {
+    if (info == null
+        || info.getOwnerName() == null
+        || info.getOwnerId() != null
+        || filteredHopperKey == null) {
+      return false;
+    }
+
+    Player owner =
+        viewer != null && viewer.getName().equals(info.getOwnerName())
+            ? viewer
+            : Bukkit.getPlayerExact(info.getOwnerName());
+
+    if (owner == null && !info.isLegacyOwner()) {
+      return false;
+    }
+
+    ItemMeta meta = item.getItemMeta();
+
+    if (meta == null) {
+      return false;
+    }
+
+    writeOwner(
+        meta,
+        keys(filteredHopperKey),
+        info.getOwnerName(),
+        owner == null ? null : owner.getUniqueId());
+
+    return item.setItemMeta(meta);
+  }
+
+  private static void writeOwner(ItemMeta meta, ItemKeys keys, String ownerName, UUID ownerId) {
+    PersistentDataContainer data = meta.getPersistentDataContainer();
+
+    if (ownerName != null) {
+      data.set(keys.ownerName, PersistentDataType.STRING, ownerName);
+    }
+
+    if (ownerId != null) {
+      data.set(keys.owner, PersistentDataType.STRING, ownerId.toString());
+    }
+  }
+
+  private static String getOwnerFromLore(ItemMeta meta) {
+    List<String> lore = meta.getLore();
+
+    if (lore == null) {
+      return null;
+    }
+
+    for (String line : lore) {
+      String plain = line == null ? null : ChatColor.stripColor(line);
+
+      if (plain != null && plain.startsWith(OWNER_LORE_PREFIX)) {
+        return plain.substring(OWNER_LORE_PREFIX.length()).trim();
+      }
+    }
+
+    return null;
+  }
+
+  private static UUID parseUuid(String value) {
+    if (value == null) {
+      return null;
+    }
+
+    try {
+      return UUID.fromString(value);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
   // Returns true if the material is a block or entity with an inventory (chest, barrel, shulker,
   // etc.)
   // Updated to include all common inventory blocks/entities in Minecraft 1.14+
@@ -45,10 +45,9 @@ public class InventoryUtils {
     player.getInventory().setItemInMainHand(item);
 
     logger.debug(
-        "Set item in hand for player "
-            + player.getName()
-            + ": "
-            + (item != null ? item.getType().name() : "null"));
+        "Set item in hand for player {}: {}",
+        player.getName(),
+        item != null ? item.getType().name() : "null");
   }
 
   public static boolean dropItemAtPlayer(Player player, ItemStack item) {
@@ -63,11 +62,9 @@ public class InventoryUtils {
         SoundManager.playInventoryManagementSound(player, false);
 
         logger.debug(
-            "Dropped item "
-                + item.getType().name()
-                + " at player "
-                + player.getName()
-                + "'s location with sound");
+            "Dropped item {} at player {}'s location with sound",
+            item.getType().name(),
+            player.getName());
 
         return true;
       }
@@ -102,10 +99,11 @@ public class InventoryUtils {
               + "'");
 
       logger.debug(
-          "Inventory state for player '"
-              + player.getName()
-              + "': "
-              + getInventoryDebugInfo(player));
+          () ->
+              "Inventory state for player '"
+                  + player.getName()
+                  + "': "
+                  + getInventoryDebugInfo(player));
 
       PlayerInventory inventory = player.getInventory();
 
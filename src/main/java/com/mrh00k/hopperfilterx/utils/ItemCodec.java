@@ -0,0 +1,221 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+/**
+ * Compact binary format for item lists stored in the database.
+ *
+ * <p>Layout: a version byte, the server's data version, the item count, then per item a flags byte,
+ * the material name and the amount. Items carrying an {@link ItemMeta} append the meta serialized
+ * through Bukkit's object stream; plain items (material and amount only) skip it entirely. Null and
+ * air slots are not stored. Lists written under an older data version have their material names
+ * upgraded by Bukkit when they are read, as with {@link ItemStack#deserialize}.
+ */
+public final class ItemCodec {
+  public static final int VERSION = 2;
+
+  /** Format written before the data version was stored; read as the current data version. */
+  private static final int VERSION_WITHOUT_DATA_VERSION = 1;
+
+  private static final int FLAG_META = 1;
+
+  private static final Logger logger = Logger.getInstance();
+
+  private ItemCodec() {}
+
+  public static byte[] encode(List<ItemStack> items) throws IOException {
+    List<ItemStack> present = new ArrayList<>(items == null ? 0 : items.size());
+
+    if (items != null) {
+      for (ItemStack item : items) {
+        if (item != null && item.getType() != Material.AIR) {
+          present.add(item);
+        }
+      }
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + present.size() * 16);
+
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(VERSION);
+
+      writeVarInt(out, Bukkit.getUnsafe().getDataVersion());
+
+      writeVarInt(out, present.size());
+
+      for (ItemStack item : present) {
+        ItemMeta meta = item.hasItemMeta() ? item.getItemMeta() : null;
+
+        out.writeByte(meta != null ? FLAG_META : 0);
+
+        out.writeUTF(item.getType().name());
+
+        writeVarInt(out, item.getAmount());
+
+        if (meta != null) {
+          byte[] metaBytes = encodeMeta(meta);
+
+          writeVarInt(out, metaBytes.length);
+
+          out.write(metaBytes);
+        }
+      }
+    }
+
+    return bytes.toByteArray();
+  }
+
+  public static List<ItemStack> decode(byte[] data) throws IOException {
+    if (data == null || data.length == 0) {
+      return Collections.emptyList();
+    }
+
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+      int version = in.readUnsignedByte();
+
+      if (version != VERSION && version != VERSION_WITHOUT_DATA_VERSION) {
+        throw new IOException("Unsupported item data version " + version);
+      }
+
+      int currentDataVersion = Bukkit.getUnsafe().getDataVersion();
+
+      int dataVersion = version == VERSION ? readVarInt(in) : currentDataVersion;
+
+      int count = readVarInt(in);
+
+      if (count < 0 || count > data.length) {
+        throw new IOException("Invalid item count " + count);
+      }
+
+      List<ItemStack> items = new ArrayList<>(count);
+
+      for (int i = 0; i < count; i++) {
+        int flags = in.readUnsignedByte();
+
+        String materialName = in.readUTF();
+
+        int amount = readVarInt(in);
+
+        ItemMeta meta = null;
+
+        if ((flags & FLAG_META) != 0) {
+          int length = readVarInt(in);
+
+          if (length < 0 || length > data.length) {
+            throw new IOException("Invalid item meta length " + length);
+          }
+
+          byte[] metaBytes = new byte[length];
+
+          in.readFully(metaBytes);
+
+          meta = decodeMeta(metaBytes);
+        }
+
+        Material material =
+            dataVersion == currentDataVersion
+                ? Material.getMaterial(materialName)
+                : Bukkit.getUnsafe().getMaterial(materialName, dataVersion);
+
+        if (material == null) {
+          logger.error(
+              "Stored item with unknown material "
+                  + materialName
+                  + " (data version "
+                  + dataVersion
+                  + ", server "
+                  + currentDataVersion
+                  + ") could not be restored and was left out");
+
+          continue;
+        }
+
+        ItemStack item = new ItemStack(material, amount);
+
+        if (meta != null) {
+          item.setItemMeta(meta);
+        }
+
+        items.add(item);
+      }
+
+      return items;
+    }
+  }
+
+  private static byte[] encodeMeta(ItemMeta meta) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    try (BukkitObjectOutputStream out = new BukkitObjectOutputStream(bytes)) {
+      out.writeObject(meta);
+    }
+
+    return bytes.toByteArray();
+  }
+
+  private static ItemMeta decodeMeta(byte[] data) throws IOException {
+    try (BukkitObjectInputStream in = new BukkitObjectInputStream(new ByteArrayInputStream(data))) {
+      Object obj = in.readObject();
+
+      return obj instanceof ItemMeta ? (ItemMeta) obj : null;
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Failed to read item meta", e);
+    }
+  }
+
+  private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+
+      value >>>= 7;
+    }
+
+    out.writeByte(value);
+  }
+
+  private static int readVarInt(DataInputStream in) throws IOException {
+    int value = 0;
+
+    for (int shift = 0; shift < 35; shift += 7) {
+      int b = in.readUnsignedByte();
+
+      value |= (b & 0x7F) << shift;
+
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+
+    throw new IOException("Malformed varint in item data");
+  }
+}
@@ -0,0 +1,429 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+
+/**
+ * Writes log lines to the console, and optionally to a rolling file, from a background thread.
+ * Callers only offer the line to a bounded ring buffer; when the buffer is full the line is dropped
+ * and counted instead of blocking the caller. Lines that repeat the same message more than the
+ * configured number of times per window are suppressed and summarised when the window closes.
+ */
+final class LogAppender {
+
+  private static final long SWEEP_MILLIS = 1000L;
+
+  private static final long STOP_TIMEOUT_MILLIS = 2000L;
+
+  /** Offered by {@link #stop()} to wake the writer; real lines always carry the plugin prefix. */
+  private static final String WAKE_UP = "";
+
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS", Locale.ROOT);
+
+  private final ArrayBlockingQueue<String> buffer;
+
+  private final AtomicLong dropped = new AtomicLong();
+
+  private final int burst;
+
+  private final long windowMillis;
+
+  private final File logDirectory;
+
+  private final long maxFileBytes;
+
+  private final int maxFiles;
+
+  /** Rate limit state per message key. Only touched by the writer thread. */
+  private final Map<Long, Window> windows = new HashMap<>();
+
+  private final Thread writer;
+
+  private volatile boolean running = true;
+
+  private BufferedWriter file;
+
+  private long fileBytes;
+
+  private static final class Window {
+    private final long start;
+
+    private int count;
+
+    private int suppressed;
+
+    private String sample;
+
+    private Window(long start) {
+      this.start = start;
+    }
+  }
+
+  /**
+   * @param burst lines per key and window that are written; 0 disables rate limiting
+   * @param logDirectory folder for the rolling log file, or null to log to the console only
+   */
+  LogAppender(
+      int capacity,
+      int burst,
+      long windowMillis,
+      File logDirectory,
+      long maxFileBytes,
+      int maxFiles) {
+    this.buffer = new ArrayBlockingQueue<>(Math.max(64, capacity));
+    this.burst = burst;
+    this.windowMillis = Math.max(1000L, windowMillis);
+    this.logDirectory = logDirectory;
+    this.maxFileBytes = Math.max(16 * 1024L, maxFileBytes);
+    this.maxFiles = Math.max(1, maxFiles);
+    this.writer = new Thread(this::run, "HopperFilterX-Log-Writer");
+    this.writer.setDaemon(true);
+  }
+
+  void start() {
+    writer.start();
+  }
+
+  /**
+   * Queues a line for the writer thread. Returns false once the appender has been stopped, so the
+   * caller can write the line itself.
+   */
+  boolean append(String line) {
+    if (!running) {
+      return false;
+    }
+
+    if (!buffer.offer(line)) {
+      if (!running) {
+        return false;
+      }
+
+      dropped.incrementAndGet();
+
+      return true;
+    }
+
+    // Stopped during the offer: unless the writer's final drain already took the line, take it
+    // back so the caller writes it
+    return running || !buffer.remove(line);
+  }
+
+  /** Stops accepting lines, writes what is still buffered and closes the log file. */
+  void stop() {
+    running = false;
+
+    buffer.offer(WAKE_UP);
+
+    try {
+      writer.join(STOP_TIMEOUT_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void run() {
+    openFile();
+
+    long nextSweep = System.currentTimeMillis() + SWEEP_MILLIS;
+
+    List<String> batch = new ArrayList<>();
+
+    while (running || !buffer.isEmpty()) {
+      try {
+        String line = running ? buffer.poll(SWEEP_MILLIS, TimeUnit.MILLISECONDS) : buffer.poll();
+
+        if (line != null) {
+          batch.add(line);
+          buffer.drainTo(batch);
+        }
+      } catch (InterruptedException e) {
+        running = false;
+      }
+
+      long now = System.currentTimeMillis();
+
+      for (String line : batch) {
+        if (!line.isEmpty()) {
+          write(messageKey(line), line, now);
+        }
+      }
+
+      batch.clear();
+
+      if (now >= nextSweep || !running) {
+        sweep(now, !running);
+
+        nextSweep = now + SWEEP_MILLIS;
+      }
+
+      flushFile();
+    }
+
+    closeFile();
+  }
+
+  private void write(long key, String line, long now) {
+    if (burst <= 0) {
+      emit(line);
+      return;
+    }
+
+    Window window = windows.get(key);
+
+    if (window == null || now - window.start >= windowMillis) {
+      if (window != null) {
+        summarize(window);
+      }
+
+      window = new Window(now);
+
+      windows.put(key, window);
+    }
+
+    if (++window.count <= burst) {
+      emit(line);
+    } else {
+      if (window.suppressed++ == 0) {
+        window.sample = line;
+      }
+    }
+  }
+
+  /** Closes expired windows, reporting what they suppressed, and reports dropped lines. */
+  private void sweep(long now, boolean closeAll) {
+    Iterator<Window> iterator = windows.values().iterator();
+
+    while (iterator.hasNext()) {
+      Window window = iterator.next();
+
+      if (closeAll || now - window.start >= windowMillis) {
+        summarize(window);
+
+        iterator.remove();
+      }
+    }
+
+    long lost = dropped.getAndSet(0);
+
+    if (lost > 0) {
+      emit(
+          "[HopperFilterX] "
+              + ChatColor.YELLOW
+              + "Log buffer full - dropped "
+              + lost
+              + " messages");
+    }
+  }
+
+  private void summarize(Window window) {
+    if (window.suppressed == 0) {
+      return;
+    }
+
+    emit(
+        "[HopperFilterX] "
+            + ChatColor.YELLOW
+            + "Suppressed "
+            + window.suppressed
+            + " similar messages in the last "
+            + (windowMillis / 1000L)
+            + "s, last one: "
+            + ChatColor.stripColor(window.sample.replace("[HopperFilterX] ", "")));
+  }
+
+  private void emit(String line) {
+    try {
+      Bukkit.getConsoleSender().sendMessage(line);
+    } catch (RuntimeException e) {
+      // The server is shutting down; the file copy below still gets the line
+    }
+
+    if (file != null) {
+      try {
+        String entry =
+            LocalDateTime.now().format(FILE_TIMESTAMP) + " " + ChatColor.stripColor(line);
+
+        file.write(entry);
+        file.newLine();
+
+        fileBytes += utf8Length(entry) + System.lineSeparator().length();
+
+        if (fileBytes >= maxFileBytes) {
+          rollFile();
+        }
+      } catch (IOException e) {
+        closeFile();
+      }
+    }
+  }
+
+  /** Number of bytes {@code text} takes in UTF-8, counted without encoding it. */
+  static long utf8Length(String text) {
+    long bytes = 0;
+
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+
+      if (c < 0x80) {
+        bytes++;
+      } else if (c < 0x800) {
+        bytes += 2;
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < text.length()
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        bytes += 4;
+        i++;
+      } else {
+        bytes += 3;
+      }
+    }
+
+    return bytes;
+  }
+
+  /**
+   * Hash of the words of a line that contain no digit, so that ids, coordinates and counts do not
+   * make otherwise identical messages distinct. Colour codes are skipped before words are checked.
+   */
+  static long messageKey(String line) {
+    long hash = 17L;
+    long word = 0L;
+    boolean digit = false;
+
+    for (int i = 0, length = line.length(); i <= length; i++) {
+      char c = i < length ? line.charAt(i) : ' ';
+
+      if (c == ChatColor.COLOR_CHAR) {
+        i++;
+      } else if (c == ' ') {
+        if (!digit) {
+          hash = hash * 1_000_003L + word;
+        }
+
+        word = 0L;
+        digit = false;
+      } else if (c >= '0' && c <= '9') {
+        digit = true;
+      } else {
+        word = word * 31L + c;
+      }
+    }
+
+    return hash;
+  }
+
+  private File currentFile() {
+    return new File(logDirectory, "latest.log");
+  }
+
+  private void openFile() {
+    if (logDirectory == null) {
+      return;
+    }
+
+    try {
+      Files.createDirectories(logDirectory.toPath());
+
+      File current = currentFile();
+
+      fileBytes = current.length();
+      file =
+          Files.newBufferedWriter(
+              current.toPath(),
+              StandardCharsets.UTF_8,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      file = null;
+
+      Bukkit.getConsoleSender()
+          .sendMessage(
+              "[HopperFilterX] " + ChatColor.RED + "Failed to open log file: " + e.getMessage());
+    }
+  }
+
+  /** Shifts latest.log to hopperfilterx-1.log, -1 to -2 and so on, keeping maxFiles old files. */
+  private void rollFile() throws IOException {
+    closeFile();
+
+    File oldest = new File(logDirectory, "hopperfilterx-" + maxFiles + ".log");
+
+    Files.deleteIfExists(oldest.toPath());
+
+    for (int index = maxFiles - 1; index >= 1; index--) {
+      File source = new File(logDirectory, "hopperfilterx-" + index + ".log");
+
+      if (source.exists()) {
+        Files.move(
+            source.toPath(),
+            new File(logDirectory, "hopperfilterx-" + (index + 1) + ".log").toPath(),
+            StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+
+    Files.move(
+        currentFile().toPath(),
+        new File(logDirectory, "hopperfilterx-1.log").toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+
+    openFile();
+  }
+
+  private void flushFile() {
+    if (file != null) {
+      try {
+        file.flush();
+      } catch (IOException e) {
+        closeFile();
+      }
+    }
+  }
+
+  private void closeFile() {
+    if (file != null) {
+      try {
+        file.close();
+      } catch (IOException e) {
+        // Nothing left to do with a log file that cannot be closed
+      }
+
+      file = null;
+    }
+  }
+}
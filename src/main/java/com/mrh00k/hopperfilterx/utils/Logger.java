@@ -17,6 +17,8 @@
  */
 package com.mrh00k.hopperfilterx.utils;
 
+import java.io.File;
+import java.util.function.Supplier;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -28,6 +30,8 @@ public class Logger {
 
   private boolean debugEnabled = false;
 
+  private volatile LogAppender appender;
+
   private static class LoggerHolder {
     private static final Logger INSTANCE = new Logger();
   }
@@ -40,6 +44,48 @@ public class Logger {
     this.config = plugin.getConfig();
 
     loadDebugConfiguration();
+
+    startAppender(plugin);
+  }
+
+  /**
+   * Hands console output to a background writer configured under {@code logging}. Until this runs,
+   * and after {@link #shutdown()}, lines are written to the console directly.
+   */
+  private void startAppender(Plugin plugin) {
+    LogAppender previous = appender;
+
+    int windowSeconds = config.getInt("logging.rate-limit.window-seconds", 10);
+
+    LogAppender started =
+        new LogAppender(
+            config.getInt("logging.buffer-size", 4096),
+            config.getInt("logging.rate-limit.messages", 20),
+            windowSeconds * 1000L,
+            config.getBoolean("logging.file.enabled", false)
+                ? new File(plugin.getDataFolder(), "logs")
+                : null,
+            config.getLong("logging.file.max-size-kb", 1024L) * 1024L,
+            config.getInt("logging.file.max-files", 5));
+
+    started.start();
+
+    appender = started;
+
+    if (previous != null) {
+      previous.stop();
+    }
+  }
+
+  /** Writes out buffered lines and goes back to logging synchronously. Call on plugin disable. */
+  public void shutdown() {
+    LogAppender current = appender;
+
+    appender = null;
+
+    if (current != null) {
+      current.stop();
+    }
   }
 
   private void loadDebugConfiguration() {
@@ -64,9 +110,15 @@ public class Logger {
       this.config = plugin.getConfig();
 
       loadDebugConfiguration();
+
+      startAppender(plugin);
     }
   }
 
+  /**
+   * A plain field read, cheap enough to guard hot call sites whose message arguments are costly
+   * to compute (locations, inventory dumps) or take more than three values.
+   */
   public boolean isDebugEnabled() {
     return debugEnabled;
   }
@@ -93,7 +145,69 @@ public class Logger {
     }
   }
 
+  /** Builds the message only when debug mode is enabled. */
+  public void debug(Supplier<String> message) {
+    if (debugEnabled) {
+      debug(message.get());
+    }
+  }
+
+  /**
+   * Logs {@code format} with each {@code {}} replaced by the next argument, formatted only when
+   * debug mode is enabled. The fixed-arity overloads avoid allocating a varargs array on the
+   * disabled path.
+   */
+  public void debug(String format, Object arg) {
+    if (debugEnabled) {
+      debug(format(format, new Object[] {arg}));
+    }
+  }
+
+  public void debug(String format, Object arg1, Object arg2) {
+    if (debugEnabled) {
+      debug(format(format, new Object[] {arg1, arg2}));
+    }
+  }
+
+  public void debug(String format, Object arg1, Object arg2, Object arg3) {
+    if (debugEnabled) {
+      debug(format(format, new Object[] {arg1, arg2, arg3}));
+    }
+  }
+
+  public void debug(String format, Object... args) {
+    if (debugEnabled) {
+      debug(format(format, args));
+    }
+  }
+
+  static String format(String format, Object[] args) {
+    StringBuilder message = new StringBuilder(format.length() + 16 * args.length);
+
+    int from = 0;
+
+    for (Object arg : args) {
+      int placeholder = format.indexOf("{}", from);
+
+      if (placeholder < 0) {
+        break;
+      }
+
+      message.append(format, from, placeholder).append(arg);
+
+      from = placeholder + 2;
+    }
+
+    return message.append(format, from, format.length()).toString();
+  }
+
   private void sendMessage(String message) {
-    Bukkit.getConsoleSender().sendMessage("[HopperFilterX] " + message);
+    String line = "[HopperFilterX] " + message;
+
+    LogAppender current = appender;
+
+    if (current == null || !current.append(line)) {
+      Bukkit.getConsoleSender().sendMessage(line);
+    }
   }
 }
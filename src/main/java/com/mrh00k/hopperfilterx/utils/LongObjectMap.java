@@ -0,0 +1,233 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.utils;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to objects. Uses linear probing with
+ * backward-shift deletion, so lookups never allocate and no tombstones are left behind.
+ *
+ * <p>Not thread safe.
+ */
+public class LongObjectMap<V> {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private long[] keys;
+
+  private Object[] values;
+
+  private int size;
+
+  private int mask;
+
+  private int resizeThreshold;
+
+  public LongObjectMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public LongObjectMap(int expectedSize) {
+    allocate(tableSizeFor(expectedSize));
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean containsKey(long key) {
+    return indexOf(key) >= 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(long key) {
+    int index = indexOf(key);
+
+    return index >= 0 ? (V) values[index] : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V put(long key, V value) {
+    if (value == null) {
+      throw new IllegalArgumentException("LongObjectMap does not accept null values");
+    }
+
+    int index = slot(key);
+
+    while (values[index] != null) {
+      if (keys[index] == key) {
+        V previous = (V) values[index];
+
+        values[index] = value;
+
+        return previous;
+      }
+
+      index = (index + 1) & mask;
+    }
+
+    keys[index] = key;
+
+    values[index] = value;
+
+    if (++size >= resizeThreshold) {
+      rehash(values.length << 1);
+    }
+
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V remove(long key) {
+    int index = indexOf(key);
+
+    if (index < 0) {
+      return null;
+    }
+
+    V previous = (V) values[index];
+
+    shiftKeysBack(index);
+
+    size--;
+
+    return previous;
+  }
+
+  public void clear() {
+    Arrays.fill(values, null);
+
+    size = 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  public void forEachValue(Consumer<? super V> action) {
+    for (Object value : values) {
+      if (value != null) {
+        action.accept((V) value);
+      }
+    }
+  }
+
+  /** Shrinks the backing table if it has become much larger than needed. */
+  public void trim() {
+    int target = tableSizeFor(size);
+
+    if (target < values.length) {
+      rehash(target);
+    }
+  }
+
+  public int capacity() {
+    return values.length;
+  }
+
+  private int indexOf(long key) {
+    int index = slot(key);
+
+    Object value;
+
+    while ((value = values[index]) != null) {
+      if (keys[index] == key) {
+        return index;
+      }
+
+      index = (index + 1) & mask;
+    }
+
+    return -1;
+  }
+
+  private void shiftKeysBack(int gap) {
+    int index = gap;
+
+    while (true) {
+      index = (index + 1) & mask;
+
+      if (values[index] == null) {
+        break;
+      }
+
+      int ideal = slot(keys[index]);
+
+      // Move the entry into the gap if the gap lies on its probe path
+      if (((index - ideal) & mask) >= ((index - gap) & mask)) {
+        keys[gap] = keys[index];
+
+        values[gap] = values[index];
+
+        gap = index;
+      }
+    }
+
+    values[gap] = null;
+  }
+
+  private void rehash(int newCapacity) {
+    long[] oldKeys = keys;
+
+    Object[] oldValues = values;
+
+    allocate(newCapacity);
+
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] != null) {
+        int index = slot(oldKeys[i]);
+
+        while (values[index] != null) {
+          index = (index + 1) & mask;
+        }
+
+        keys[index] = oldKeys[i];
+
+        values[index] = oldValues[i];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+
+    values = new Object[capacity];
+
+    mask = capacity - 1;
+
+    resizeThreshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  private int slot(long key) {
+    long hash = key * 0x9E3779B97F4A7C15L;
+
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  private static int tableSizeFor(int expectedSize) {
+    int needed = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR) + 1;
+
+    int capacity = Integer.highestOneBit(Math.max(needed, DEFAULT_CAPACITY) - 1) << 1;
+
+    return Math.max(capacity, DEFAULT_CAPACITY);
+  }
+}
@@ -18,7 +18,27 @@
 package com.mrh00k.hopperfilterx.utils;
 
 public class ServerUtils {
+  private static volatile Boolean forceGamemode;
+
+  /** Returns force-gamemode from server.properties, read once and kept until the next reload. */
   public static boolean isForceGamemodeEnabled() {
+    Boolean cached = forceGamemode;
+
+    if (cached == null) {
+      cached = readForceGamemode();
+
+      forceGamemode = cached;
+    }
+
+    return cached;
+  }
+
+  /** Reads server.properties again on the next {@link #isForceGamemodeEnabled()} call. */
+  public static void reloadForceGamemode() {
+    forceGamemode = null;
+  }
+
+  private static boolean readForceGamemode() {
     java.io.File file = new java.io.File("server.properties");
     if (file.exists()) {
       java.util.Properties props = new java.util.Properties();
@@ -0,0 +1,136 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.managers;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mrh00k.hopperfilterx.BukkitStandIn;
+import com.mrh00k.hopperfilterx.managers.ChunkHopperManager.ChunkLoad;
+import com.mrh00k.hopperfilterx.managers.DatabaseManager.HopperData;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ChunkHopperManagerTest {
+
+  private final ChunkHopperManager manager = new ChunkHopperManager();
+
+  private final FilterCache filterCache = FilterCache.getInstance();
+
+  private final Set<Long> hoppers = new HashSet<>();
+
+  private final World world = BukkitStandIn.world("chunk-test", hoppers);
+
+  @BeforeAll
+  static void installServer() {
+    BukkitStandIn.install();
+  }
+
+  @Test
+  void movesAreHeldBackWhileTheChunkIsFetched() {
+    HopperData data = hopper("loading-window", 5, 64, 7);
+
+    ChunkLoad load = manager.beginLoad(world, 0, 0);
+
+    // The hopper is stored but not indexed yet, so it looks like a vanilla one
+    assertNull(manager.getHopperData(world, 5, 64, 7));
+    assertTrue(manager.isChunkLoading(world, 5, 7));
+    assertFalse(manager.isChunkLoading(world, 16, 7));
+
+    manager.indexChunk(load, List.of(data), filters(data, Material.STONE));
+
+    assertSame(data, manager.getHopperData(world, 5, 64, 7));
+    assertFalse(manager.isChunkLoading(world, 5, 7));
+
+    FilterCache.CompiledFilter filter = filterCache.get(data.getId());
+    assertNotNull(filter);
+    assertTrue(filter.allows(new ItemStack(Material.STONE)));
+    assertFalse(filter.allows(new ItemStack(Material.DIRT)));
+  }
+
+  @Test
+  void skippedHoppersGetNoFilter() {
+    HopperData data = hopper("broken-during-fetch", 1, 64, 1);
+    hoppers.clear();
+
+    ChunkLoad load = manager.beginLoad(world, 0, 0);
+    manager.indexChunk(load, List.of(data), filters(data, Material.STONE));
+
+    assertNull(manager.getHopperData(world, 1, 64, 1));
+    assertFalse(filterCache.contains(data.getId()));
+  }
+
+  @Test
+  void unloadDuringFetchDiscardsItsResult() {
+    HopperData data = hopper("unloaded-during-fetch", 2, 64, 2);
+
+    ChunkLoad stale = manager.beginLoad(world, 0, 0);
+    manager.unloadChunk(world, 0, 0);
+    ChunkLoad current = manager.beginLoad(world, 0, 0);
+
+    manager.indexChunk(stale, List.of(data), filters(data, Material.STONE));
+
+    assertNull(manager.getHopperData(world, 2, 64, 2));
+    assertFalse(filterCache.contains(data.getId()));
+    assertTrue(manager.isChunkLoading(world, 2, 2));
+
+    manager.indexChunk(current, List.of(data), filters(data, Material.STONE));
+
+    assertSame(data, manager.getHopperData(world, 2, 64, 2));
+  }
+
+  @Test
+  void filterSavedDuringFetchIsKept() {
+    HopperData data = hopper("saved-during-fetch", 3, 64, 3);
+
+    ChunkLoad load = manager.beginLoad(world, 0, 0);
+    FilterCache.CompiledFilter saved =
+        filterCache.update(data.getId(), List.of(new ItemStack(Material.DIRT)));
+    manager.indexChunk(load, List.of(data), filters(data, Material.STONE));
+
+    assertSame(saved, filterCache.get(data.getId()));
+  }
+
+  @Test
+  void chunkIsOnlyFetchedOnceAtATime() {
+    assertNotNull(manager.beginLoad(world, 4, 4));
+    assertNull(manager.beginLoad(world, 4, 4));
+  }
+
+  private HopperData hopper(String id, int x, int y, int z) {
+    hoppers.add(ChunkHopperManager.blockKey(x, y, z));
+
+    return new HopperData(id, new Location(world, x, y, z), "owner");
+  }
+
+  private static Map<String, List<ItemStack>> filters(HopperData data, Material allowed) {
+    return Collections.singletonMap(data.getId(), List.of(new ItemStack(allowed)));
+  }
+}
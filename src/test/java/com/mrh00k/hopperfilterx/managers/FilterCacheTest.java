@@ -0,0 +1,121 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.managers;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mrh00k.hopperfilterx.BukkitStandIn;
+import com.mrh00k.hopperfilterx.managers.FilterCache.CompiledFilter;
+import com.mrh00k.hopperfilterx.managers.FilterCache.RejectionMemo;
+import java.util.Arrays;
+import java.util.Collections;
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class FilterCacheTest {
+
+  private final FilterCache cache = FilterCache.getInstance();
+
+  @BeforeAll
+  static void installServer() {
+    BukkitStandIn.install();
+  }
+
+  @Test
+  void emptyFilterAllowsEverything() {
+    CompiledFilter filter = compile("empty");
+
+    assertTrue(filter.isEmpty());
+    assertTrue(filter.allows(new ItemStack(Material.DIRT)));
+  }
+
+  @Test
+  void plainEntriesMatchByMaterialOnly() {
+    CompiledFilter filter = compile("plain", new ItemStack(Material.STONE), null);
+
+    assertTrue(filter.allows(new ItemStack(Material.STONE, 64)));
+    assertFalse(filter.allows(new ItemStack(Material.DIRT)));
+    assertFalse(filter.allows(named(Material.STONE, "Special")));
+  }
+
+  @Test
+  void metaEntriesMatchSimilarItems() {
+    CompiledFilter filter = compile("meta", named(Material.PAPER, "A"));
+
+    assertTrue(filter.allows(named(Material.PAPER, "A")));
+    assertFalse(filter.allows(named(Material.PAPER, "B")));
+    assertFalse(filter.allows(new ItemStack(Material.PAPER)));
+  }
+
+  @Test
+  void missReturnsNullWithoutLoading() {
+    assertNull(cache.get("never-compiled"));
+    assertFalse(cache.contains("never-compiled"));
+  }
+
+  @Test
+  void memoAnswersRetriesOfTheSameItemFromTheSameSource() {
+    CompiledFilter filter = compile("memo", named(Material.PAPER, "A"));
+
+    Inventory source = BukkitStandIn.inventory();
+
+    RejectionMemo memo = RejectionMemo.of(filter, source, named(Material.PAPER, "B"));
+
+    assertTrue(memo.matches(filter, source, named(Material.PAPER, "B")));
+    assertFalse(memo.matches(filter, source, named(Material.PAPER, "C")));
+    assertFalse(memo.matches(filter, BukkitStandIn.inventory(), named(Material.PAPER, "B")));
+  }
+
+  @Test
+  void memoIsInvalidatedWhenTheFilterIsSaved() {
+    CompiledFilter before = compile("saved", named(Material.PAPER, "A"));
+
+    Inventory source = BukkitStandIn.inventory();
+
+    RejectionMemo memo = RejectionMemo.of(before, source, named(Material.PAPER, "B"));
+
+    CompiledFilter after = compile("saved", named(Material.PAPER, "A"), named(Material.PAPER, "B"));
+
+    assertNotEquals(before.getVersion(), after.getVersion());
+    assertSame(after, cache.get("saved"));
+    assertFalse(memo.matches(after, source, named(Material.PAPER, "B")));
+    assertTrue(after.allows(named(Material.PAPER, "B")));
+  }
+
+  @Test
+  void plainItemsAreNotMemoized() {
+    CompiledFilter filter = compile("unmemoized");
+
+    assertNull(RejectionMemo.of(filter, BukkitStandIn.inventory(), new ItemStack(Material.DIRT)));
+  }
+
+  private CompiledFilter compile(String hopperId, ItemStack... items) {
+    return cache.update(hopperId, Arrays.asList(items));
+  }
+
+  private static ItemStack named(Material material, String name) {
+    return BukkitStandIn.itemWithMeta(material, name, Collections.emptyList());
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.managers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.mrh00k.hopperfilterx.managers.MessageManager.MessageTemplate;
+import org.junit.jupiter.api.Test;
+
+class MessageTemplateTest {
+
+  private static final String PREFIX = "&8[&6HopperFilterX&8]&r";
+
+  private static final String RENDERED_PREFIX = "§8[§6HopperFilterX§8]§r ";
+
+  @Test
+  void substitutesSlotsAndPrependsThePrefix() {
+    MessageTemplate template = MessageTemplate.compile("hopper.placed", "&aAt {x}, {z}", PREFIX);
+
+    Object[] values = {"x", 10, "z", -4};
+
+    assertEquals(RENDERED_PREFIX + "§aAt 10, -4", template.render(true, values));
+    assertEquals("§aAt 10, -4", template.render(false, values));
+  }
+
+  @Test
+  void keepsSlotsWithoutAValue() {
+    MessageTemplate template = MessageTemplate.compile("key", "{player} has {count}", PREFIX);
+
+    assertEquals("Steve has {count}", template.render(false, new Object[] {"player", "Steve"}));
+  }
+
+  @Test
+  void keepsEverySlotWhenThePairsAreIncomplete() {
+    MessageTemplate template = MessageTemplate.compile("key", "{player} has {count}", PREFIX);
+
+    assertEquals(
+        "{player} has {count}", template.render(false, new Object[] {"player", "Steve", "count"}));
+  }
+
+  @Test
+  void translatesColorCodesInValues() {
+    MessageTemplate template = MessageTemplate.compile("key", "Owner: {owner}", PREFIX);
+
+    assertEquals("Owner: §cSteve", template.render(false, new Object[] {"owner", "&cSteve"}));
+  }
+
+  @Test
+  void leavesUnclosedAndEmptyBracesAsText() {
+    MessageTemplate template = MessageTemplate.compile("key", "{} {{x}} {y", PREFIX);
+
+    assertEquals("{} {1} {y", template.render(false, new Object[] {"x", 1, "y", 2}));
+  }
+
+  @Test
+  void doesNotPrefixThePrefixOrMessagesThatAlreadyStartWithIt() {
+    assertEquals(
+        "§8[§6HopperFilterX§8]§r",
+        MessageTemplate.compile("prefix", PREFIX, PREFIX).render(true, new Object[0]));
+
+    assertEquals(
+        RENDERED_PREFIX + "done",
+        MessageTemplate.compile("key", PREFIX + " done", PREFIX).render(true, new Object[0]));
+  }
+
+  @Test
+  void rendersMessagesWithoutSlotsOnce() {
+    MessageTemplate template = MessageTemplate.compile("key", "&7Reloaded", PREFIX);
+
+    assertSame(template.render(true, new Object[0]), template.render(true, new Object[0]));
+  }
+}
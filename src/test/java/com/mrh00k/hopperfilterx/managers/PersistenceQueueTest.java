@@ -0,0 +1,195 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.managers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mrh00k.hopperfilterx.BukkitStandIn;
+import com.mrh00k.hopperfilterx.managers.PersistenceQueue.PendingWrite;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class PersistenceQueueTest {
+
+  /** Long enough that no flush runs on its own while a test inspects the queue. */
+  private static final long NO_FLUSH_MS = TimeUnit.HOURS.toMillis(1);
+
+  @BeforeAll
+  static void installServer() {
+    BukkitStandIn.install();
+  }
+
+  @Test
+  void coalescesWritesPerHopper() {
+    PersistenceQueue queue = new PersistenceQueue(failingConnection(null, null), NO_FLUSH_MS);
+
+    queue.insert("a", "world", 1, 64, 2, "Steve");
+    queue.saveItems("a", Collections.singletonList(new ItemStack(Material.STONE)));
+    queue.markNotPlaced("a");
+
+    PendingWrite write = queue.peek("a");
+
+    assertTrue(write.insert);
+    assertEquals("Steve", write.owner);
+    assertEquals(Boolean.FALSE, write.placed);
+    assertTrue(write.hasItems);
+    assertEquals(Material.STONE, write.items.get(0).getType());
+    assertEquals(1, queue.size());
+  }
+
+  @Test
+  void deleteSupersedesEarlierWritesAndInsertStartsOver() {
+    PersistenceQueue queue = new PersistenceQueue(failingConnection(null, null), NO_FLUSH_MS);
+
+    queue.markPlaced("b", "world", 5, 70, 5);
+    queue.delete("b");
+
+    PendingWrite deleted = queue.peek("b");
+
+    assertTrue(deleted.delete);
+    assertFalse(deleted.hasPosition);
+
+    queue.insert("b", "world", 6, 70, 6, "Alex");
+
+    PendingWrite inserted = queue.peek("b");
+
+    assertTrue(inserted.insert);
+    assertFalse(inserted.delete);
+    assertEquals(6, inserted.x);
+  }
+
+  @Test
+  void peekAndSnapshotReturnCopies() {
+    PersistenceQueue queue = new PersistenceQueue(failingConnection(null, null), NO_FLUSH_MS);
+
+    ItemStack stack = new ItemStack(Material.DIRT, 3);
+
+    queue.saveItems("c", Collections.singletonList(stack));
+    queue.markPlaced("d", "world", 0, 64, 0);
+
+    stack.setAmount(60);
+    queue.peek("c").placed = Boolean.FALSE;
+
+    PendingWrite write = queue.peek("c");
+
+    assertNull(write.placed);
+    assertEquals(3, write.items.get(0).getAmount());
+
+    Map<String, PendingWrite> snapshot = queue.snapshot();
+
+    assertEquals(2, snapshot.size());
+    assertEquals(Boolean.TRUE, snapshot.get("d").placed);
+    assertNull(queue.peek("unknown"));
+  }
+
+  /**
+   * Writes queued while a batch commits are applied on top of it, and a batch whose rows cannot be
+   * committed is put back in front of them instead of being dropped.
+   */
+  @Test
+  void mergesInFlightWritesAndRequeuesFailedOnes() throws Exception {
+    CountDownLatch committing = new CountDownLatch(1);
+
+    CountDownLatch release = new CountDownLatch(1);
+
+    PersistenceQueue queue =
+        new PersistenceQueue(failingConnection(committing, release), NO_FLUSH_MS);
+
+    queue.insert("e", "world", 1, 64, 1, "Steve");
+    queue.saveItems("e", Collections.singletonList(new ItemStack(Material.STONE)));
+
+    Thread flush = new Thread(queue::flush, "flush");
+
+    flush.start();
+
+    assertTrue(committing.await(10, TimeUnit.SECONDS));
+
+    queue.markNotPlaced("e");
+
+    PendingWrite merged = queue.peek("e");
+
+    assertTrue(merged.insert);
+    assertTrue(merged.hasItems);
+    assertEquals(Boolean.FALSE, merged.placed);
+    assertEquals(Boolean.FALSE, queue.snapshot().get("e").placed);
+
+    release.countDown();
+
+    flush.join(TimeUnit.SECONDS.toMillis(10));
+
+    assertFalse(flush.isAlive());
+
+    PendingWrite requeued = queue.peek("e");
+
+    assertTrue(requeued.insert);
+    assertTrue(requeued.hasItems);
+    assertEquals(Boolean.FALSE, requeued.placed);
+    assertEquals(1, queue.size());
+  }
+
+  /**
+   * Connection on which every statement fails. When {@code committing} is given, the first
+   * transaction signals it and waits for {@code release} before failing.
+   */
+  private static CachedConnection failingConnection(
+      CountDownLatch committing, CountDownLatch release) {
+    AtomicBoolean started = new AtomicBoolean();
+
+    Connection connection =
+        (Connection)
+            Proxy.newProxyInstance(
+                PersistenceQueueTest.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (self, method, args) -> {
+                  switch (method.getName()) {
+                    case "setAutoCommit":
+                      if (committing != null
+                          && Boolean.FALSE.equals(args[0])
+                          && started.compareAndSet(false, true)) {
+                        committing.countDown();
+                        release.await();
+                      }
+                      return null;
+                    case "prepareStatement":
+                      throw new SQLException("disk I/O error");
+                    case "isClosed":
+                    case "equals":
+                      return false;
+                    case "hashCode":
+                      return 0;
+                    default:
+                      return null;
+                  }
+                });
+
+    return new CachedConnection(connection);
+  }
+}
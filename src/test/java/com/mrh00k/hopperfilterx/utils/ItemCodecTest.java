@@ -0,0 +1,149 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mrh00k.hopperfilterx.BukkitStandIn;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ItemCodecTest {
+
+  @BeforeAll
+  static void installServer() {
+    BukkitStandIn.install();
+  }
+
+  @Test
+  void roundTripKeepsPlainAndMetaItemsAndDropsEmptySlots() throws IOException {
+    ItemStack named =
+        BukkitStandIn.itemWithMeta(Material.DIAMOND_SWORD, "Blade", Collections.singletonList("x"));
+
+    List<ItemStack> decoded =
+        ItemCodec.decode(
+            ItemCodec.encode(
+                Arrays.asList(
+                    new ItemStack(Material.STONE, 32), null, new ItemStack(Material.AIR), named)));
+
+    assertEquals(2, decoded.size());
+
+    assertEquals(Material.STONE, decoded.get(0).getType());
+    assertEquals(32, decoded.get(0).getAmount());
+    assertFalse(decoded.get(0).hasItemMeta());
+
+    assertTrue(decoded.get(1).hasItemMeta());
+    assertTrue(named.isSimilar(decoded.get(1)));
+  }
+
+  @Test
+  void storesTheServerDataVersionAfterTheFormatVersion() throws IOException {
+    byte[] data = ItemCodec.encode(Collections.singletonList(new ItemStack(Material.STONE)));
+
+    byte[] expected = blob(ItemCodec.VERSION, BukkitStandIn.DATA_VERSION, "STONE", 1);
+
+    assertArrayEquals(expected, data);
+  }
+
+  @Test
+  void readsListsWrittenBeforeTheDataVersionWasStored() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(1);
+      out.writeByte(1);
+      out.writeByte(0);
+      out.writeUTF("COBBLESTONE");
+      out.writeByte(12);
+    }
+
+    List<ItemStack> decoded = ItemCodec.decode(bytes.toByteArray());
+
+    assertEquals(1, decoded.size());
+    assertEquals(Material.COBBLESTONE, decoded.get(0).getType());
+    assertEquals(12, decoded.get(0).getAmount());
+  }
+
+  @Test
+  void upgradesMaterialNamesStoredUnderAnOlderDataVersion() throws IOException {
+    List<ItemStack> decoded =
+        ItemCodec.decode(blob(ItemCodec.VERSION, BukkitStandIn.DATA_VERSION - 800, "GRASS", 3));
+
+    assertEquals(1, decoded.size());
+    assertEquals(Material.SHORT_GRASS, decoded.get(0).getType());
+    assertEquals(3, decoded.get(0).getAmount());
+  }
+
+  @Test
+  void leavesOutMaterialsTheServerDoesNotKnow() throws IOException {
+    List<ItemStack> decoded =
+        ItemCodec.decode(blob(ItemCodec.VERSION, BukkitStandIn.DATA_VERSION, "REMOVED_BLOCK", 3));
+
+    assertTrue(decoded.isEmpty());
+  }
+
+  @Test
+  void rejectsUnknownFormatVersions() {
+    assertThrows(IOException.class, () -> ItemCodec.decode(new byte[] {9, 0}));
+  }
+
+  @Test
+  void decodesMissingDataAsAnEmptyList() throws IOException {
+    assertTrue(ItemCodec.decode(null).isEmpty());
+    assertTrue(ItemCodec.decode(new byte[0]).isEmpty());
+  }
+
+  /** One plain item in the current layout, written by hand. */
+  private static byte[] blob(int version, int dataVersion, String material, int amount)
+      throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(version);
+      writeVarInt(out, dataVersion);
+      writeVarInt(out, 1);
+      out.writeByte(0);
+      out.writeUTF(material);
+      writeVarInt(out, amount);
+    }
+
+    return bytes.toByteArray();
+  }
+
+  private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+
+      value >>>= 7;
+    }
+
+    out.writeByte(value);
+  }
+}
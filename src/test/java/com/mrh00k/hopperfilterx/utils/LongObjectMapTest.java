@@ -0,0 +1,140 @@
+/*
+ * This file is part of HopperFilterX.
+ *
+ * Copyright (C) 2025 MrH00k <https://github.com/MrH00k>
+ *
+ * HopperFilterX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 only,
+ * as published by the Free Software Foundation.
+ *
+ * HopperFilterX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License version 3
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.mrh00k.hopperfilterx.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mrh00k.hopperfilterx.managers.ChunkHopperManager;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class LongObjectMapTest {
+
+  @Test
+  void putReturnsThePreviousValue() {
+    LongObjectMap<String> map = new LongObjectMap<>();
+
+    assertNull(map.put(7L, "first"));
+    assertEquals("first", map.put(7L, "second"));
+
+    assertEquals("second", map.get(7L));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  void zeroAndNegativeKeysAreOrdinaryKeys() {
+    LongObjectMap<String> map = new LongObjectMap<>();
+
+    map.put(0L, "zero");
+    map.put(-1L, "minus one");
+    map.put(Long.MIN_VALUE, "min");
+
+    assertEquals("zero", map.get(0L));
+    assertEquals("minus one", map.get(-1L));
+    assertEquals("min", map.get(Long.MIN_VALUE));
+    assertFalse(map.containsKey(1L));
+  }
+
+  @Test
+  void rejectsNullValues() {
+    LongObjectMap<String> map = new LongObjectMap<>();
+
+    assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+  }
+
+  /** Removal shifts colliding entries back, so every remaining key must stay reachable. */
+  @Test
+  void matchesHashMapUnderRandomPutsAndRemoves() {
+    LongObjectMap<Long> map = new LongObjectMap<>();
+
+    Map<Long, Long> expected = new HashMap<>();
+
+    SplittableRandom random = new SplittableRandom(42L);
+
+    for (int i = 0; i < 20_000; i++) {
+      // A narrow key range forces long probe chains and frequent removals
+      long key = random.nextLong(512) - 256;
+
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(key), map.remove(key));
+      } else {
+        assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+      }
+    }
+
+    assertEquals(expected.size(), map.size());
+
+    for (long key = -256; key < 256; key++) {
+      assertEquals(expected.get(key), map.get(key));
+    }
+  }
+
+  @Test
+  void growsAndTrimsWithoutLosingEntries() {
+    LongObjectMap<Integer> map = new LongObjectMap<>();
+
+    for (int i = 0; i < 10_000; i++) {
+      map.put(key(i), i);
+    }
+
+    int grown = map.capacity();
+
+    for (int i = 100; i < 10_000; i++) {
+      map.remove(key(i));
+    }
+
+    map.trim();
+
+    assertTrue(map.capacity() < grown);
+    assertEquals(100, map.size());
+
+    int[] sum = new int[1];
+
+    map.forEachValue(value -> sum[0] += value);
+
+    assertEquals(99 * 100 / 2, sum[0]);
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, map.get(key(i)));
+    }
+  }
+
+  @Test
+  void clearEmptiesTheMap() {
+    LongObjectMap<String> map = new LongObjectMap<>();
+
+    map.put(1L, "one");
+    map.put(2L, "two");
+
+    map.clear();
+
+    assertTrue(map.isEmpty());
+    assertNull(map.get(1L));
+  }
+
+  /** Block positions laid out like a hopper farm, the keys the index stores in production. */
+  private static long key(int i) {
+    return ChunkHopperManager.blockKey(i % 100 - 50, 64, i / 100 - 50);
+  }
+}